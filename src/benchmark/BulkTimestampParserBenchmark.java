@@ -0,0 +1,59 @@
+package benchmark;
+
+import java_time.BulkTimestampParser;
+import java_time.TimestampLayout;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/* BulkTimestampParserBenchmark -> One batch of "dd/MM/yyyy HH:mm:ss" timestamps (the dtf4 layout of java_time.Program).
+* sequentialDateTimeFormatter -> LocalDateTime.parse(text, dtf4) in a loop on one thread, the way Program parses
+* bulkTimestampParser         -> BulkTimestampParser on the common ForkJoinPool
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar BulkTimestampParserBenchmark */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BulkTimestampParserBenchmark {
+
+    @Param({"1000000"})
+    int batchSize;
+
+    DateTimeFormatter dtf4 = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    BulkTimestampParser parser = new BulkTimestampParser(TimestampLayout.DD_MM_YYYY_HH_MM_SS);
+
+    String[] texts;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        texts = new String[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            texts[i] = dtf4.format(LocalDateTime.ofEpochSecond(random.nextLong(2_000_000_000L), 0, ZoneOffset.UTC));
+        }
+    }
+
+    @Benchmark
+    public long[] sequentialDateTimeFormatter() {
+        long[] epochSeconds = new long[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            epochSeconds[i] = LocalDateTime.parse(texts[i], dtf4).toEpochSecond(ZoneOffset.UTC);
+        }
+        return epochSeconds;
+    }
+
+    @Benchmark
+    public BulkTimestampParser.Result bulkTimestampParser() {
+        return parser.parse(texts);
+    }
+
+}
@@ -0,0 +1,104 @@
+package benchmark;
+
+import java_time.BusinessCalendar;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/* BusinessCalendarBenchmark -> Business-day arithmetic: a plusDays(1) loop over a Set<LocalDate> of holidays versus
+BusinessCalendar, for T+2, for a year of business days (250) and for counting the business days of a year.
+The calendar has Saturday / Sunday weekends and six fixed holidays a year over 2000 - 2100; the dates cycle through
+1024 random days of 2020 - 2030.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar BusinessCalendarBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BusinessCalendarBenchmark {
+
+    Set<DayOfWeek> weekend = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+    Set<LocalDate> holidays = new HashSet<>();
+    BusinessCalendar calendar;
+    LocalDate[] dates = new LocalDate[1024];
+    int next;
+
+    @Setup
+    public void setup() {
+        for (int year = 2000; year <= 2100; year++) {
+            for (int[] monthDay : new int[][]{{1, 1}, {5, 27}, {7, 4}, {9, 2}, {11, 28}, {12, 25}}) {
+                holidays.add(LocalDate.of(year, monthDay[0], monthDay[1]));
+            }
+        }
+        calendar = BusinessCalendar.of("XNYS", 2000, 2100, weekend, holidays);
+        Random random = new Random(42);
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(3653));
+        }
+    }
+
+    LocalDate nextDate() {
+        return dates[next++ & (dates.length - 1)];
+    }
+
+    LocalDate plusBusinessDaysLoop(LocalDate date, int n) {
+        LocalDate day = date;
+        while (n > 0) {
+            day = day.plusDays(1);
+            if (!weekend.contains(day.getDayOfWeek()) && !holidays.contains(day)) {
+                n--;
+            }
+        }
+        return day;
+    }
+
+    @Benchmark
+    public LocalDate plus2Loop() {
+        return plusBusinessDaysLoop(nextDate(), 2);
+    }
+
+    @Benchmark
+    public LocalDate plus2BusinessCalendar() {
+        return calendar.plusBusinessDays(nextDate(), 2);
+    }
+
+    @Benchmark
+    public LocalDate plus250Loop() {
+        return plusBusinessDaysLoop(nextDate(), 250);
+    }
+
+    @Benchmark
+    public LocalDate plus250BusinessCalendar() {
+        return calendar.plusBusinessDays(nextDate(), 250);
+    }
+
+    @Benchmark
+    public long betweenYearLoop() {
+        LocalDate start = nextDate();
+        LocalDate end = start.plusYears(1);
+        long count = 0;
+        for (LocalDate day = start; day.isBefore(end); day = day.plusDays(1)) {
+            if (!weekend.contains(day.getDayOfWeek()) && !holidays.contains(day)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long betweenYearBusinessCalendar() {
+        LocalDate start = nextDate();
+        return calendar.businessDaysBetween(start, start.plusYears(1));
+    }
+
+}
@@ -0,0 +1,90 @@
+package benchmark;
+
+import java_time.CachedClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/* CachedClockBenchmark -> Clock.systemUTC() / Clock.system(zone) versus CachedClock, with 64 concurrent callers.
+The system clock calls are the ones java_time.Program uses: Instant.now(Clock.systemUTC()), LocalDateTime.now() and
+System.currentTimeMillis(). The cached clocks tick every millisecond.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar CachedClockBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(64)
+@State(Scope.Benchmark)
+public class CachedClockBenchmark {
+
+    ZoneId zone3 = ZoneId.of("America/New_York");
+
+    Clock systemUTC = Clock.systemUTC();
+    Clock system = Clock.system(zone3);
+
+    CachedClock cachedUTC;
+    CachedClock cachedZoned;
+
+    @Setup
+    public void setup() {
+        cachedUTC = CachedClock.start(Duration.ofMillis(1));
+        cachedZoned = CachedClock.start(Duration.ofMillis(1), zone3, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        cachedUTC.close();
+        cachedZoned.close();
+    }
+
+    @Benchmark
+    public long systemCurrentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public long cachedMillis() {
+        return cachedUTC.millis();
+    }
+
+    @Benchmark
+    public Instant systemUTCInstant() {
+        return Instant.now(systemUTC);
+    }
+
+    @Benchmark
+    public Instant cachedInstant() {
+        return cachedUTC.instant();
+    }
+
+    @Benchmark
+    public LocalDateTime systemLocalDateTime() {
+        return LocalDateTime.now(system);
+    }
+
+    @Benchmark
+    public LocalDateTime cachedLocalDateTime() {
+        return cachedZoned.localDateTime();
+    }
+
+    @Benchmark
+    public LocalDate systemLocalDate() {
+        return LocalDate.now(system);
+    }
+
+    @Benchmark
+    public LocalDate cachedLocalDate() {
+        return cachedZoned.localDate();
+    }
+
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import java_time.CachedDateTimeFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/* CachedDateTimeFormatterBenchmark -> CachedDateTimeFormatter versus DateTimeFormatter.format, log writer style.
+The formatter is dtf6 from java_time.Program (dd/MM/yyyy HH:mm:ss, America/New_York). Every thread formats a clock
+that moves forward one second every 1024 calls, starting at instant5 (2007-12-03T04:15:30Z).
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar CachedDateTimeFormatterBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CachedDateTimeFormatterBenchmark {
+
+    DateTimeFormatter dtf6 = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(ZoneId.of("America/New_York"));
+    CachedDateTimeFormatter cached = CachedDateTimeFormatter.of(dtf6);
+
+    @State(Scope.Thread)
+    public static class Clock {
+
+        long start = Instant.parse("2007-12-03T04:15:30Z").getEpochSecond();
+        long calls;
+
+        StringBuilder sb = new StringBuilder(32);
+        char[] chars = new char[32];
+
+        long next() {
+            return start + (calls++ >>> 10);
+        }
+    }
+
+    @Benchmark
+    public String dateTimeFormatterFormat(Clock clock) {
+        return dtf6.format(Instant.ofEpochSecond(clock.next()));
+    }
+
+    @Benchmark
+    public String cachedFormat(Clock clock) {
+        return cached.format(clock.next());
+    }
+
+    @Benchmark
+    public StringBuilder cachedFormatToStringBuilder(Clock clock) {
+        clock.sb.setLength(0);
+        cached.formatTo(clock.next(), clock.sb);
+        return clock.sb;
+    }
+
+    @Benchmark
+    public char[] cachedFormatToCharArray(Clock clock) {
+        cached.formatTo(clock.next(), clock.chars, 0);
+        return clock.chars;
+    }
+
+}
@@ -0,0 +1,75 @@
+package benchmark;
+
+import java_time.DateFieldColumns;
+import java_time.ZoneOffsetIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/* DateFieldColumnsBenchmark -> Field extraction for a batch of epoch millis, per element versus DateFieldColumns.
+The per-element baseline does what the "Getting Date Fields" section of java_time.Program does for each value:
+Instant -> atZone(zone) -> getYear(), getMonthValue() ... Both sides read the same seven fields.
+
+-> Run (time per batch, divide by batchSize for ns/element):
+mvn -B package && java -jar target/benchmarks.jar DateFieldColumnsBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DateFieldColumnsBenchmark {
+
+    @Param({"65536"})
+    int batchSize;
+
+    @Param({"UTC", "America/New_York"})
+    String zoneId;
+
+    ZoneId zone;
+    ZoneOffsetIndex index;
+    long[] epochMillis;
+    DateFieldColumns columns;
+
+    @Setup
+    public void setup() {
+        zone = ZoneId.of(zoneId);
+        index = ZoneOffsetIndex.of(zone, 2000, 2030);
+        epochMillis = new long[batchSize];
+        SplittableRandom random = new SplittableRandom(42);
+        long from = Instant.parse("2007-12-03T04:15:30Z").toEpochMilli();
+        for (int i = 0; i < batchSize; i++) {
+            epochMillis[i] = from + random.nextLong(10L * 365 * 86_400_000L);
+        }
+        columns = new DateFieldColumns(batchSize);
+    }
+
+    @Benchmark
+    public long zonedDateTimePerElement() {
+        long sum = 0;
+        for (long millis : epochMillis) {
+            ZonedDateTime zdt = Instant.ofEpochMilli(millis).atZone(zone);
+            sum += zdt.getYear() + zdt.getMonthValue() + zdt.getDayOfMonth() + zdt.getHour() + zdt.getMinute()
+                    + zdt.getSecond() + zdt.getDayOfWeek().getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public DateFieldColumns dateFieldColumns() {
+        columns.fill(epochMillis, 0, batchSize, zone);
+        return columns;
+    }
+
+    @Benchmark
+    public DateFieldColumns dateFieldColumnsPrebuiltIndex() {
+        columns.fill(epochMillis, 0, batchSize, index);
+        return columns;
+    }
+
+}
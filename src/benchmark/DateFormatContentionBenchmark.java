@@ -0,0 +1,84 @@
+package benchmark;
+
+import java_util.SafeDateFormat;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/* DateFormatContentionBenchmark -> Throughput of a shared, synchronized SimpleDateFormat versus SafeDateFormat.
+Both sides use the sdf4 configuration of java_util.Program (dd/MM/yyyy HH:mm:ss, America/New_York). The synchronized
+variant is the usual "fix" for sharing sdf4 between threads; SafeDateFormat should scale with the thread count instead.
+
+-> Run (1, 2, 4, 8, 16 and 32 threads):
+mvn -B package && java -cp target/benchmarks.jar benchmark.DateFormatContentionBenchmark
+
+-> Run a single thread count:
+java -jar target/benchmarks.jar DateFormatContentionBenchmark -t 32 */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateFormatContentionBenchmark {
+
+    static final String PATTERN = "dd/MM/yyyy HH:mm:ss";
+    static final String DATE_TIME_TEXT = "03/12/2007 04:15:30";
+
+    SimpleDateFormat shared;
+    SafeDateFormat safe;
+    Date date8;
+
+    @Setup
+    public void setup() throws ParseException {
+        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+        shared = new SimpleDateFormat(PATTERN);
+        shared.setTimeZone(zone);
+        safe = SafeDateFormat.of(PATTERN, zone);
+        date8 = shared.parse(DATE_TIME_TEXT);
+    }
+
+    @Benchmark
+    public String formatSynchronized() {
+        synchronized (shared) {
+            return shared.format(date8);
+        }
+    }
+
+    @Benchmark
+    public String formatSafeDateFormat() {
+        return safe.format(date8);
+    }
+
+    @Benchmark
+    public Date parseSynchronized() throws ParseException {
+        synchronized (shared) {
+            return shared.parse(DATE_TIME_TEXT);
+        }
+    }
+
+    @Benchmark
+    public Date parseSafeDateFormat() throws ParseException {
+        return safe.parse(DATE_TIME_TEXT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32}) {
+            Options options = new OptionsBuilder()
+                    .include(DateFormatContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+}
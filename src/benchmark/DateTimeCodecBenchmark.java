@@ -0,0 +1,102 @@
+package benchmark;
+
+import java_time.DateTimeCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/* DateTimeCodecBenchmark -> ISO text (toString / parse) versus DateTimeCodec, for an Instant and a ZonedDateTime.
+The text variants write and read the UTF-8 bytes of the ISO string to a ByteBuffer, as an RPC or cache payload would;
+the codec writes its varints to the same buffer. The values are the Instant and zone3 of Program.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar DateTimeCodecBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DateTimeCodecBenchmark {
+
+    Instant instant = Instant.parse("2007-12-03T04:15:30.123Z");
+    ZonedDateTime zonedDateTime = instant.atZone(ZoneId.of("America/New_York"));
+    DateTimeCodec codec = DateTimeCodec.standard();
+
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    ByteBuffer instantText = encoded(instant.toString());
+    ByteBuffer zonedDateTimeText = encoded(zonedDateTime.toString());
+    ByteBuffer instantBinary = ByteBuffer.allocate(DateTimeCodec.MAX_VALUE_BYTES);
+    ByteBuffer zonedDateTimeBinary = ByteBuffer.allocate(DateTimeCodec.MAX_VALUE_BYTES);
+
+    @Setup
+    public void setup() {
+        DateTimeCodec.putInstant(instantBinary, instant);
+        instantBinary.flip();
+        codec.putZonedDateTime(zonedDateTimeBinary, zonedDateTime);
+        zonedDateTimeBinary.flip();
+    }
+
+    static ByteBuffer encoded(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decoded(ByteBuffer bytes) {
+        return new String(bytes.array(), bytes.position(), bytes.remaining(), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int instantToString() {
+        buffer.clear();
+        buffer.put(instant.toString().getBytes(StandardCharsets.UTF_8));
+        return buffer.position();
+    }
+
+    @Benchmark
+    public int instantPut() {
+        buffer.clear();
+        DateTimeCodec.putInstant(buffer, instant);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public Instant instantParse() {
+        return Instant.parse(decoded(instantText));
+    }
+
+    @Benchmark
+    public Instant instantGet() {
+        return DateTimeCodec.getInstant(instantBinary.duplicate());
+    }
+
+    @Benchmark
+    public int zonedDateTimeToString() {
+        buffer.clear();
+        buffer.put(zonedDateTime.toString().getBytes(StandardCharsets.UTF_8));
+        return buffer.position();
+    }
+
+    @Benchmark
+    public int zonedDateTimePut() {
+        buffer.clear();
+        codec.putZonedDateTime(buffer, zonedDateTime);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public ZonedDateTime zonedDateTimeParse() {
+        return ZonedDateTime.parse(decoded(zonedDateTimeText));
+    }
+
+    @Benchmark
+    public ZonedDateTime zonedDateTimeGet() {
+        return codec.getZonedDateTime(zonedDateTimeBinary.duplicate());
+    }
+
+}
@@ -0,0 +1,138 @@
+package benchmark;
+
+import java_time.DateTimeFormatService;
+import java_util.SafeDateFormat;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/* DateTimeFormatServiceLoadTest -> One task per request, each formatting a ZonedDateTime like zdt7 through the dtf6
+configuration (dd/MM/yyyy HH:mm:ss, America/New_York), with three formatters:
+* SafeDateFormat        -> a ThreadLocal SimpleDateFormat, so every thread clones its own
+* DateTimeFormatter     -> dtf6 itself, shared
+* DateTimeFormatService -> the compiled plan of dtf6, shared
+
+On a JDK with virtual threads (21+) every task is a virtual thread. They all start and wait at a gate, so the given
+number of threads (1M by default) are alive at the same time, then format together. Without virtual threads, the
+tasks run on a fixed pool of platform threads instead. Each run prints the throughput, the peak heap used above the
+heap before the run (sampled every 5 ms) and the collections it caused. It is not a JMH benchmark: run it with a
+large heap, e.g. -Xmx4g for 1M virtual threads.
+
+-> Run (number of tasks, default 1000000):
+mvn -B package && java -Xmx4g -cp target/benchmarks.jar benchmark.DateTimeFormatServiceLoadTest 1000000 */
+
+public class DateTimeFormatServiceLoadTest {
+
+    static final String PATTERN = "dd/MM/yyyy HH:mm:ss";
+    static final String DATE_TIME_TEXT = "03/12/2007 04:15:30";
+    static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        ZoneId zone3 = ZoneId.of("America/New_York");
+        DateTimeFormatter dtf6 = DateTimeFormatter.ofPattern(PATTERN).withZone(zone3);
+        ZonedDateTime zdt7 = ZonedDateTime.parse(DATE_TIME_TEXT, DateTimeFormatter.ofPattern(PATTERN).withZone(ZoneId.of("UTC")));
+        SafeDateFormat safe = SafeDateFormat.of(PATTERN, TimeZone.getTimeZone(zone3));
+        DateTimeFormatService.Plan plan = DateTimeFormatService.shared().plan(PATTERN, zone3);
+
+        ExecutorService probe = newVirtualThreadExecutor();
+        boolean virtual = probe != null;
+        if (virtual) {
+            probe.shutdown();
+        }
+        System.out.println(tasks + " tasks on " + (virtual ? "virtual threads"
+                : Runtime.getRuntime().availableProcessors() + " platform threads (no virtual threads in this JDK)"));
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("Round " + round);
+            run("SafeDateFormat", tasks, zdt -> safe.format(Date.from(zdt.toInstant())), zdt7);
+            run("DateTimeFormatter", tasks, dtf6::format, zdt7);
+            run("DateTimeFormatService", tasks, plan::format, zdt7);
+        }
+    }
+
+    static void run(String name, int tasks, Function<ZonedDateTime, String> format, ZonedDateTime zdt7)
+            throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        long[] gcBefore = collections();
+        AtomicLong peak = new AtomicLong(heapBefore);
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        ExecutorService executor = virtual != null ? virtual
+                : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        // Virtual threads wait until all of them are started; platform pool threads can't all be alive at once.
+        CountDownLatch gate = new CountDownLatch(virtual != null ? 1 : 0);
+        LongAdder chars = new LongAdder();
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            long second = i;
+            executor.execute(() -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                chars.add(format.apply(zdt7.plusSeconds(second)).length());
+            });
+        }
+        gate.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        long elapsed = System.nanoTime() - start;
+        sampler.interrupt();
+        sampler.join();
+
+        long[] gcAfter = collections();
+        System.out.printf("  %-22s %8.0f ms %12.0f tasks/s   peak heap +%6.1f MB   %3d GCs, %5d ms   (%d chars)%n",
+                name, elapsed / 1e6, tasks / (elapsed / 1e9), (peak.get() - heapBefore) / 1e6,
+                gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1], chars.sum());
+    }
+
+    // Collection count and time of all collectors.
+    static long[] collections() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(collector.getCollectionCount(), 0);
+            time += Math.max(collector.getCollectionTime(), 0);
+        }
+        return new long[]{count, time};
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() on JDK 21+, null before. Looked up by reflection to build on 11.
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import java_time.DateTimeFormatService;
+import java_time.DateTimeInterner;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/* DateTimeInternerBenchmark -> Parsing a feed in which the same values repeat, one value per call:
+* localDateParse / internerParseLocalDate         -> LocalDate.parse of one of 365 dates of 2007 ("2007-12-03" ...)
+* zonedDateTimeParse / internerParseZonedDateTime -> ZonedDateTime.parse with dtf6 ("dd/MM/yyyy HH:mm:ss",
+                                                     America/New_York) of one of 3600 seconds of 03/12/2007
+The interner's results are the canonical instances, so with -prof gc the interner variants show what a cache of the
+parsed values no longer retains, besides the time saved.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar DateTimeInternerBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DateTimeInternerBenchmark {
+
+    static final int TEXTS = 4096;
+
+    DateTimeInterner interner = new DateTimeInterner(DateTimeInterner.DEFAULT_CAPACITY);
+    DateTimeFormatter dtf6 = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(ZoneId.of("America/New_York"));
+    DateTimeFormatService.Plan plan = DateTimeFormatService.shared().plan("dd/MM/yyyy HH:mm:ss", "America/New_York");
+
+    String[] dates = new String[TEXTS];
+    String[] dateTimes = new String[TEXTS];
+    int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        ZonedDateTime zdt7 = ZonedDateTime.parse("03/12/2007 04:15:30", dtf6);
+        for (int i = 0; i < TEXTS; i++) {
+            dates[i] = LocalDate.of(2007, 1, 1).plusDays(random.nextInt(365)).toString();
+            dateTimes[i] = dtf6.format(zdt7.plusSeconds(random.nextInt(3600)));
+        }
+    }
+
+    private int next() {
+        return next = (next + 1) & (TEXTS - 1);
+    }
+
+    @Benchmark
+    public LocalDate localDateParse() {
+        return LocalDate.parse(dates[next()]);
+    }
+
+    @Benchmark
+    public LocalDate internerParseLocalDate() {
+        return interner.parseLocalDate(dates[next()]);
+    }
+
+    @Benchmark
+    public ZonedDateTime zonedDateTimeParse() {
+        return ZonedDateTime.parse(dateTimes[next()], dtf6);
+    }
+
+    @Benchmark
+    public ZonedDateTime internerParseZonedDateTime() {
+        return interner.parseZonedDateTime(dateTimes[next()], plan);
+    }
+
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import java_time.DateTimeMetrics;
+import java_time.InstrumentedFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/* DateTimeMetricsBenchmark -> Cost of the instrumentation on dtf4 of Program: the plain DateTimeFormatter versus an
+InstrumentedFormatter with DateTimeMetrics disabled, enabled, and enabled with allocation tracking.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar DateTimeMetricsBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DateTimeMetricsBenchmark {
+
+    @Param({"disabled", "enabled", "allocations"})
+    String metrics;
+
+    LocalDateTime localDateTime = LocalDateTime.of(2007, 12, 3, 4, 15, 30);
+    String text = "03/12/2007 04:15:30";
+    DateTimeFormatter dtf4 = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    InstrumentedFormatter instrumented = InstrumentedFormatter.of("dd/MM/yyyy HH:mm:ss", dtf4);
+
+    @Setup
+    public void setup() {
+        if (metrics.equals("disabled")) {
+            DateTimeMetrics.disable();
+        } else {
+            DateTimeMetrics.enable();
+        }
+        DateTimeMetrics.setAllocationTracking(metrics.equals("allocations"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        DateTimeMetrics.disable();
+        DateTimeMetrics.setAllocationTracking(false);
+    }
+
+    @Benchmark
+    public String format() {
+        return dtf4.format(localDateTime);
+    }
+
+    @Benchmark
+    public String instrumentedFormat() {
+        return instrumented.format(localDateTime);
+    }
+
+    @Benchmark
+    public LocalDateTime parse() {
+        return dtf4.parse(text, LocalDateTime::from);
+    }
+
+    @Benchmark
+    public LocalDateTime instrumentedParse() {
+        return instrumented.parse(text, LocalDateTime::from);
+    }
+
+}
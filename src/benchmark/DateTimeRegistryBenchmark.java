@@ -0,0 +1,56 @@
+package benchmark;
+
+import java_time.DateTimeRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/* DateTimeRegistryBenchmark -> Building a tenant formatter inline versus looking it up in DateTimeRegistry.
+The inline variant is what java_time.Program does for dtf6:
+DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(ZoneId.of("America/New_York")), here with the pattern and
+zone picked from 10,000 tenant configurations.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar DateTimeRegistryBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DateTimeRegistryBenchmark {
+
+    static final int TENANTS = 10_000;
+    static final String[] ZONES = {"UTC", "America/New_York", "America/Sao_Paulo", "Europe/Paris", "Asia/Tokyo"};
+
+    DateTimeRegistry registry = new DateTimeRegistry(DateTimeRegistry.DEFAULT_FORMATTERS, DateTimeRegistry.DEFAULT_ZONES);
+
+    String[] patterns = new String[TENANTS];
+    String[] zones = new String[TENANTS];
+    int next;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < TENANTS; i++) {
+            patterns[i] = "dd/MM/yyyy HH:mm:ss '[tenant-" + i + "]'";
+            zones[i] = ZONES[i % ZONES.length];
+        }
+    }
+
+    @Benchmark
+    public DateTimeFormatter inlineOfPatternAndZoneIdOf() {
+        int tenant = next++ % TENANTS;
+        return DateTimeFormatter.ofPattern(patterns[tenant], Locale.ROOT).withZone(ZoneId.of(zones[tenant]));
+    }
+
+    @Benchmark
+    public DateTimeFormatter registryFormatter() {
+        int tenant = next++ % TENANTS;
+        return registry.formatter(patterns[tenant], Locale.ROOT, zones[tenant]);
+    }
+
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import java_util.FastCalendar;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/* FastCalendarBenchmark -> The set/add/get sequence of the Calendar section of java_util.Program.
+setTime(date9), set(MONTH, 11), add(DAY_OF_MONTH, 4), then get DAY_OF_MONTH, MONTH, YEAR, HOUR, MINUTE and SECOND,
+with a Calendar (GregorianCalendar) and with a FastCalendar, both reused and created per call.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar FastCalendarBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FastCalendarBenchmark {
+
+    TimeZone timeZone = TimeZone.getTimeZone("America/New_York");
+
+    // 03/11/2007 04:15:30 UTC, date9 in Program.
+    Date date9 = new Date(1194063330000L);
+
+    Calendar calendar = Calendar.getInstance(timeZone);
+    FastCalendar fastCalendar = FastCalendar.getInstance(timeZone);
+
+    @Benchmark
+    public int calendarReused() {
+        return setAddGet(calendar);
+    }
+
+    @Benchmark
+    public int calendarNew() {
+        return setAddGet(Calendar.getInstance(timeZone));
+    }
+
+    @Benchmark
+    public int fastCalendarReused() {
+        return setAddGet(fastCalendar);
+    }
+
+    @Benchmark
+    public int fastCalendarNew() {
+        return setAddGet(FastCalendar.getInstance(timeZone));
+    }
+
+    private int setAddGet(Calendar cal) {
+        cal.setTime(date9);
+        cal.set(Calendar.MONTH, 11);
+        cal.add(Calendar.DAY_OF_MONTH, 4);
+        return cal.get(Calendar.DAY_OF_MONTH) + cal.get(Calendar.MONTH) + cal.get(Calendar.YEAR)
+                + cal.get(Calendar.HOUR) + cal.get(Calendar.MINUTE) + cal.get(Calendar.SECOND);
+    }
+
+    private int setAddGet(FastCalendar cal) {
+        cal.setTime(date9);
+        cal.set(Calendar.MONTH, 11);
+        cal.add(Calendar.DAY_OF_MONTH, 4);
+        return cal.get(Calendar.DAY_OF_MONTH) + cal.get(Calendar.MONTH) + cal.get(Calendar.YEAR)
+                + cal.get(Calendar.HOUR) + cal.get(Calendar.MINUTE) + cal.get(Calendar.SECOND);
+    }
+
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import java_time.FastDateTimeParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/* FastDateTimeParserBenchmark -> FastDateTimeParser versus the DateTimeFormatter paths it replaces.
+Each pair returns the same epoch second: ZonedDateTime.parse with dtf5 / LocalDateTime.parse with dtf4 against
+FastDateTimeParser.parseLocal, and Instant.parse / LocalDateTime.parse against FastDateTimeParser.parseIso.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar FastDateTimeParserBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FastDateTimeParserBenchmark {
+
+    static final String LOCAL_TEXT = "03/12/2007 04:15:30";
+    static final String ISO_TEXT = "2007-12-03T04:15:30";
+    static final String INSTANT_TEXT = "2007-12-03T04:15:30Z";
+
+    DateTimeFormatter dtf4 = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    DateTimeFormatter dtf5 = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(ZoneId.of("UTC"));
+
+    byte[] localBytes = LOCAL_TEXT.getBytes(StandardCharsets.US_ASCII);
+    byte[] instantBytes = INSTANT_TEXT.getBytes(StandardCharsets.US_ASCII);
+
+    @Benchmark
+    public long zonedDateTimeParseDtf5() {
+        return ZonedDateTime.parse(LOCAL_TEXT, dtf5).toEpochSecond();
+    }
+
+    @Benchmark
+    public long localDateTimeParseDtf4() {
+        return LocalDateTime.parse(LOCAL_TEXT, dtf4).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @Benchmark
+    public long fastParseLocal() {
+        return FastDateTimeParser.parseLocal(LOCAL_TEXT);
+    }
+
+    @Benchmark
+    public long fastParseLocalBytes() {
+        return FastDateTimeParser.parseLocal(localBytes, 0, localBytes.length);
+    }
+
+    @Benchmark
+    public long instantParse() {
+        return Instant.parse(INSTANT_TEXT).getEpochSecond();
+    }
+
+    @Benchmark
+    public long localDateTimeParseIso() {
+        return LocalDateTime.parse(ISO_TEXT).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @Benchmark
+    public long fastParseIso() {
+        return FastDateTimeParser.parseIso(INSTANT_TEXT);
+    }
+
+    @Benchmark
+    public long fastParseIsoBytes() {
+        return FastDateTimeParser.parseIso(instantBytes, 0, instantBytes.length);
+    }
+
+}
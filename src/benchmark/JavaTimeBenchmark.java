@@ -0,0 +1,98 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/* JavaTimeBenchmark -> JMH benchmarks for the java.time parse/format paths shown in java_time.Program.
+The formatters below are built exactly like dtf4, dtf5, dtf6 and dtf7 in java_time.Program, and the inputs are the same
+strings the program prints ("03/12/2007 04:15:30" and "2007-12-03T04:15:30Z").
+
+DateTimeFormatter is immutable and thread-safe, so the state is shared by every benchmark thread (Scope.Benchmark).
+
+-> Run (ns/op and allocation per op):
+mvn -B package && java -jar target/benchmarks.jar JavaTimeBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JavaTimeBenchmark {
+
+    static final String LOCAL_TEXT = "03/12/2007 04:15:30";
+    static final String INSTANT_TEXT = "2007-12-03T04:15:30Z";
+
+    ZoneId zone2 = ZoneId.of("UTC");
+    ZoneId zone3 = ZoneId.of("America/New_York");
+    ZoneId zone4 = ZoneId.systemDefault();
+
+    DateTimeFormatter dtf4 = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    DateTimeFormatter dtf5 = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(zone2);
+    DateTimeFormatter dtf6 = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(zone3);
+    DateTimeFormatter dtf7 = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(zone4);
+
+    Instant instant5;
+    ZonedDateTime zdt7;
+
+    @Setup
+    public void setup() {
+        instant5 = ZonedDateTime.parse(INSTANT_TEXT).toInstant();
+        zdt7 = ZonedDateTime.parse(LOCAL_TEXT, dtf5);
+    }
+
+    // Parsing
+
+    @Benchmark
+    public LocalDateTime parseLocalDateTimeDtf4() {
+        return LocalDateTime.parse(LOCAL_TEXT, dtf4);
+    }
+
+    @Benchmark
+    public ZonedDateTime parseZonedDateTimeDtf5() {
+        return ZonedDateTime.parse(LOCAL_TEXT, dtf5);
+    }
+
+    @Benchmark
+    public Instant parseInstant() {
+        return Instant.parse(INSTANT_TEXT);
+    }
+
+    // Formatting an Instant (the formatter zone is applied)
+
+    @Benchmark
+    public String formatInstantDtf5() {
+        return dtf5.format(instant5);
+    }
+
+    @Benchmark
+    public String formatInstantDtf6() {
+        return dtf6.format(instant5);
+    }
+
+    @Benchmark
+    public String formatInstantDtf7() {
+        return dtf7.format(instant5);
+    }
+
+    // Formatting a ZonedDateTime (the formatter zone overrides the value zone)
+
+    @Benchmark
+    public String formatZonedDateTimeDtf5() {
+        return dtf5.format(zdt7);
+    }
+
+    @Benchmark
+    public String formatZonedDateTimeDtf6() {
+        return dtf6.format(zdt7);
+    }
+
+    @Benchmark
+    public String formatZonedDateTimeDtf7() {
+        return dtf7.format(zdt7);
+    }
+
+}
@@ -0,0 +1,96 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/* JavaUtilBenchmark -> JMH benchmarks for the SimpleDateFormat parse/format paths shown in java_util.Program.
+The formatters below are built exactly like sdf1, sdf2, sdf3 and sdf4 in java_util.Program.
+
+SimpleDateFormat is NOT thread-safe, so every benchmark thread gets its own copy of the state (Scope.Thread). This
+measures the best case of the legacy API: no contention and no synchronization.
+
+-> Run (ns/op and allocation per op):
+mvn -B package && java -jar target/benchmarks.jar JavaUtilBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class JavaUtilBenchmark {
+
+    static final String DATE_TEXT = "03/12/2007";
+    static final String DATE_TIME_TEXT = "03/12/2007 04:15:30";
+
+    SimpleDateFormat sdf1;
+    SimpleDateFormat sdf2;
+    SimpleDateFormat sdf3;
+    SimpleDateFormat sdf4;
+
+    Date date6;
+
+    @Setup
+    public void setup() throws ParseException {
+        sdf1 = new SimpleDateFormat("dd/MM/yyyy");
+        sdf2 = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+
+        sdf3 = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+        sdf3.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        sdf4 = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+        sdf4.setTimeZone(TimeZone.getTimeZone("America/New_York"));
+
+        date6 = sdf2.parse(DATE_TIME_TEXT);
+    }
+
+    // Parsing
+
+    @Benchmark
+    public Date parseSdf1() throws ParseException {
+        return sdf1.parse(DATE_TEXT);
+    }
+
+    @Benchmark
+    public Date parseSdf2() throws ParseException {
+        return sdf2.parse(DATE_TIME_TEXT);
+    }
+
+    @Benchmark
+    public Date parseSdf3() throws ParseException {
+        return sdf3.parse(DATE_TIME_TEXT);
+    }
+
+    @Benchmark
+    public Date parseSdf4() throws ParseException {
+        return sdf4.parse(DATE_TIME_TEXT);
+    }
+
+    // Formatting
+
+    @Benchmark
+    public String formatSdf1() {
+        return sdf1.format(date6);
+    }
+
+    @Benchmark
+    public String formatSdf2() {
+        return sdf2.format(date6);
+    }
+
+    @Benchmark
+    public String formatSdf3() {
+        return sdf3.format(date6);
+    }
+
+    @Benchmark
+    public String formatSdf4() {
+        return sdf4.format(date6);
+    }
+
+}
@@ -0,0 +1,103 @@
+package benchmark;
+
+import java_util.LegacyBridge;
+import java_util.LegacyDateFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/* LegacyBridgeBenchmark -> SimpleDateFormat / TimeZone / Date[] paths versus LegacyDateFormat and LegacyBridge.
+The formats are sdf2 and sdf4 of java_util.Program, formatting date6 ("03/12/2007 04:15:30"). The zone benchmarks
+convert a TimeZone fresh from TimeZone.getTimeZone (as each JDBC/RPC call hands out) to a ZoneId, and the bulk ones a
+column of 1,024 dates to epoch millis.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar LegacyBridgeBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class LegacyBridgeBenchmark {
+
+    static final String PATTERN = "dd/MM/yyyy HH:mm:ss";
+
+    TimeZone timeZone4 = TimeZone.getTimeZone("America/New_York");
+
+    SimpleDateFormat sdf2;
+    SimpleDateFormat sdf4;
+    LegacyDateFormat legacy2;
+    LegacyDateFormat legacy4;
+
+    Date date6 = new Date(1196655330000L);
+    Date[] dates = new Date[1024];
+
+    @Setup
+    public void setup() {
+        sdf2 = new SimpleDateFormat(PATTERN);
+        sdf4 = new SimpleDateFormat(PATTERN);
+        sdf4.setTimeZone(timeZone4);
+        legacy2 = LegacyDateFormat.of(PATTERN);
+        legacy4 = LegacyDateFormat.of(PATTERN, timeZone4);
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = new Date(date6.getTime() + i * 60_000L);
+        }
+    }
+
+    // Formatting
+
+    @Benchmark
+    public String formatSdf2() {
+        return sdf2.format(date6);
+    }
+
+    @Benchmark
+    public String formatLegacy2() {
+        return legacy2.format(date6);
+    }
+
+    @Benchmark
+    public String formatSdf4() {
+        return sdf4.format(date6);
+    }
+
+    @Benchmark
+    public String formatLegacy4() {
+        return legacy4.format(date6);
+    }
+
+    // TimeZone -> ZoneId
+
+    @Benchmark
+    public ZoneId toZoneIdJdk() {
+        return TimeZone.getTimeZone("America/New_York").toZoneId();
+    }
+
+    @Benchmark
+    public ZoneId toZoneIdBridge() {
+        return LegacyBridge.toZoneId(TimeZone.getTimeZone("America/New_York"));
+    }
+
+    // Date[] -> long[]
+
+    @Benchmark
+    public long[] toEpochMillisLoop() {
+        long[] epochMillis = new long[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            epochMillis[i] = dates[i].toInstant().toEpochMilli();
+        }
+        return epochMillis;
+    }
+
+    @Benchmark
+    public long[] toEpochMillisBridge() {
+        return LegacyBridge.toEpochMillis(dates);
+    }
+
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import java_time.MappedTimestampReader;
+import java_time.TimestampLayout;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/* MappedTimestampReaderBenchmark -> Leading timestamps of a generated log file ("dd/MM/yyyy HH:mm:ss" + message).
+* bufferedReaderLocalDateTimeParse -> readLine() into a String, then LocalDateTime.parse(line.substring(0, 19), dtf4)
+* mappedTimestampReader            -> MappedTimestampReader, no String per line
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar MappedTimestampReaderBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedTimestampReaderBenchmark {
+
+    @Param({"1000000"})
+    int lines;
+
+    DateTimeFormatter dtf4 = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("timestamps", ".log");
+        SplittableRandom random = new SplittableRandom(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (int i = 0; i < lines; i++) {
+                LocalDateTime ldt = LocalDateTime.ofEpochSecond(random.nextLong(2_000_000_000L), 0, ZoneOffset.UTC);
+                writer.write(dtf4.format(ldt));
+                writer.write(" INFO [ingest-worker-" + random.nextInt(32) + "] processed batch " + i);
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long bufferedReaderLocalDateTimeParse() throws IOException {
+        long sum = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                sum += LocalDateTime.parse(line.substring(0, 19), dtf4).toEpochSecond(ZoneOffset.UTC);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long mappedTimestampReader() throws IOException {
+        try (MappedTimestampReader reader = MappedTimestampReader.open(file, TimestampLayout.DD_MM_YYYY_HH_MM_SS)) {
+            return reader.epochSeconds().sum();
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package benchmark;
+
+import java_time.MappedTimestampStore;
+import java_time.PackedInstant;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/* MappedTimestampStoreBenchmark -> Restarting with one million events (instant and zone) from feeds in the zones of
+java_time.Program, about one per 100 ms from instant4 on:
+* csvReload            -> the CSV of "instant,zone" lines read back with Instant.parse and ZoneId.of
+* storeReopenAndScan   -> MappedTimestampStore.openReadOnly, then a scan of every event
+* storeReopen          -> openReadOnly alone, the time before the first query
+* storeRangeCount      -> count() of the events of one hour on the open store
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar MappedTimestampStoreBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedTimestampStoreBenchmark {
+
+    @Param({"1000000"})
+    int events;
+
+    Instant instant4 = Instant.ofEpochSecond(1196655330L);
+    Path csv;
+    Path file;
+    MappedTimestampStore store;
+    long hourFrom;
+    long hourTo;
+
+    @Setup
+    public void setup() throws IOException {
+        ZoneId[] zones = {ZoneId.of("+02:00"), ZoneId.of("UTC"), ZoneId.of("America/New_York"), ZoneId.systemDefault()};
+        csv = Files.createTempFile("events", ".csv");
+        file = Files.createTempFile("events", ".store");
+        Files.delete(file);
+        SplittableRandom random = new SplittableRandom(42);
+        long instant = PackedInstant.of(instant4);
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.US_ASCII);
+             MappedTimestampStore writing = MappedTimestampStore.open(file)) {
+            for (int i = 0; i < events; i++) {
+                instant += random.nextLong(200_000_000L);
+                ZoneId zone = zones[(i / 10_000) % zones.length];
+                writing.append(instant, zone);
+                writer.write(PackedInstant.toInstant(instant) + "," + zone.getId());
+                writer.newLine();
+            }
+        }
+        store = MappedTimestampStore.openReadOnly(file);
+        hourFrom = PackedInstant.of(instant4.plusSeconds(20_000));
+        hourTo = hourFrom + 3_600_000_000_000L;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long csvReload() throws IOException {
+        long sum = 0;
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comma = line.indexOf(',');
+                Instant instant = Instant.parse(line.substring(0, comma));
+                ZoneId zone = ZoneId.of(line.substring(comma + 1));
+                sum += instant.getNano() + zone.hashCode();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long storeReopenAndScan() throws IOException {
+        long[] sum = new long[1];
+        try (MappedTimestampStore reopened = MappedTimestampStore.openReadOnly(file)) {
+            reopened.scan(Long.MIN_VALUE, Long.MAX_VALUE, (packedInstant, zone) -> sum[0] += packedInstant + zone.hashCode());
+        }
+        return sum[0];
+    }
+
+    @Benchmark
+    public long storeReopen() throws IOException {
+        try (MappedTimestampStore reopened = MappedTimestampStore.openReadOnly(file)) {
+            return reopened.size();
+        }
+    }
+
+    @Benchmark
+    public long storeRangeCount() {
+        return store.count(hourFrom, hourTo);
+    }
+
+}
@@ -0,0 +1,73 @@
+package benchmark;
+
+import java_time.MultiPatternParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.concurrent.TimeUnit;
+
+/* MultiPatternParserBenchmark -> Mixed-format input: a DateTimeFormatter try/catch chain versus MultiPatternParser.
+The chain tries dtf4, dtf2 (Program) and the ISO layouts in order and catches DateTimeParseException, so the later a
+layout comes in the chain, the more exceptions its texts cost. The inputs cycle through one text of each layout.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar MultiPatternParserBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MultiPatternParserBenchmark {
+
+    String[] patterns = {
+            "dd/MM/yyyy HH:mm:ss", "dd/MM/yyyy", "yyyy-MM-dd'T'HH:mm:ssXXX", "yyyy-MM-dd'T'HH:mm:ss.SSSXXX",
+            "yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd"
+    };
+    String[] texts = {
+            "03/12/2007 04:15:30", "03/12/2007", "2007-12-03T04:15:30Z", "2007-12-03T04:15:30.123+01:00",
+            "2007-12-03T04:15:30", "2007-12-03", "03/12/2007 04:15:30", "2007-12-03T04:15:30Z"
+    };
+
+    DateTimeFormatter[] chain = new DateTimeFormatter[patterns.length];
+    MultiPatternParser parser = MultiPatternParser.of(patterns);
+    int next;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < patterns.length; i++) {
+            chain[i] = DateTimeFormatter.ofPattern(patterns[i]);
+        }
+    }
+
+    String nextText() {
+        return texts[next++ & (texts.length - 1)];
+    }
+
+    @Benchmark
+    public TemporalAccessor tryCatchChain() {
+        String text = nextText();
+        for (DateTimeFormatter formatter : chain) {
+            try {
+                return formatter.parse(text);
+            } catch (DateTimeParseException e) {
+                // next layout
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public TemporalAccessor multiPatternParser() {
+        return parser.match(nextText()).toTemporal();
+    }
+
+    @Benchmark
+    public long multiPatternParserEpochDay() {
+        return parser.match(nextText()).getEpochDay();
+    }
+
+}
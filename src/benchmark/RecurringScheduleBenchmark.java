@@ -0,0 +1,74 @@
+package benchmark;
+
+import java_time.RecurringSchedule;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/* RecurringScheduleBenchmark -> Expanding a recurrence: plusDays / plusWeeks on a ZonedDateTime (nextWeekZonedDateTime
+in Program) versus RecurringSchedule, per occurrence.
+Two rules in America/New_York (zone3 in Program) over 2000 - 2100: every day at 09:00 (36525 occurrences) and every
+weekday at 02:30, which falls into the spring-forward gap once a year. Each benchmark returns the sum of the epoch
+seconds; the score is the time of the whole expansion.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar RecurringScheduleBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RecurringScheduleBenchmark {
+
+    ZoneId zone3 = ZoneId.of("America/New_York");
+    ZonedDateTime start = ZonedDateTime.of(2000, 1, 1, 9, 0, 0, 0, zone3);
+    ZonedDateTime end = ZonedDateTime.of(2100, 1, 1, 0, 0, 0, 0, zone3);
+
+    RecurringSchedule daily = RecurringSchedule.daily(zone3, LocalTime.of(9, 0));
+    RecurringSchedule weekdays = RecurringSchedule.weekly(zone3, LocalTime.of(2, 30),
+            DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY);
+
+    @Benchmark
+    public long zonedDateTimePlusDays() {
+        long sum = 0;
+        for (ZonedDateTime t = start; t.isBefore(end); t = t.plusDays(1)) {
+            sum += t.toEpochSecond();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long recurringScheduleDaily() {
+        return daily.epochSeconds(start.toInstant(), end.toInstant()).sum();
+    }
+
+    @Benchmark
+    public long recurringScheduleDailyParallel() {
+        return daily.epochSeconds(start.toInstant(), end.toInstant()).parallel().sum();
+    }
+
+    @Benchmark
+    public long zonedDateTimeWeekdays() {
+        long sum = 0;
+        ZonedDateTime monday = ZonedDateTime.of(2000, 1, 3, 2, 30, 0, 0, zone3);
+        for (ZonedDateTime week = monday; week.isBefore(end); week = week.plusWeeks(1)) {
+            for (int day = 0; day < 5; day++) {
+                // plusDays on the week's ZonedDateTime keeps 02:30 local time, resolved like atZone.
+                sum += week.toLocalDateTime().plusDays(day).atZone(zone3).toEpochSecond();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long recurringScheduleWeekdays() {
+        return weekdays.epochSeconds(start.toInstant(), end.toInstant()).sum();
+    }
+
+}
@@ -0,0 +1,82 @@
+package benchmark;
+
+import java_time.TimeBucketAggregator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/* TimeBucketAggregatorBenchmark -> Hourly local-time roll-up in America/New_York (zone3 in Program), per event.
+The baseline is the usual map of truncated ZonedDateTime to LongAdder. The events are 4096 increasing epoch seconds
+over one day, like a live stream. Every 4096 events the partial is flushed, the watermark advanced and the next
+round moved a week later.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar TimeBucketAggregatorBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TimeBucketAggregatorBenchmark {
+
+    ZoneId zone3 = ZoneId.of("America/New_York");
+
+    TimeBucketAggregator hourly = TimeBucketAggregator.tumbling(ChronoUnit.HOURS, zone3);
+    TimeBucketAggregator.Partial partial = hourly.newPartial();
+    Map<ZonedDateTime, LongAdder> counters = new HashMap<>();
+
+    long[] epochSeconds = new long[4096];
+    long shift;
+    int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        long second = Instant.parse("2024-11-03T00:00:00Z").getEpochSecond();
+        for (int i = 0; i < epochSeconds.length; i++) {
+            second += random.nextInt(42);
+            epochSeconds[i] = second;
+        }
+    }
+
+    @Benchmark
+    public void zonedDateTimeTruncatedTo(Blackhole blackhole) {
+        int i = next++ & (epochSeconds.length - 1);
+        ZonedDateTime hour = Instant.ofEpochSecond(epochSeconds[i]).atZone(zone3).truncatedTo(ChronoUnit.HOURS);
+        counters.computeIfAbsent(hour, h -> new LongAdder()).add(i);
+        if (i == epochSeconds.length - 1) {
+            blackhole.consume(counters.size());
+            counters.clear();
+        }
+    }
+
+    @Benchmark
+    public void timeBucketAggregator(Blackhole blackhole) {
+        int i = next++ & (epochSeconds.length - 1);
+        partial.add(epochSeconds[i] + shift, i);
+        if (i == epochSeconds.length - 1) {
+            partial.flush();
+            // The next round starts a week later, after every bucket of this one is emitted.
+            shift += 7 * 86_400L;
+            hourly.advanceWatermark(epochSeconds[0] + shift, (start, end, count, sum, min, max) -> blackhole.consume(sum));
+            if (shift > 365 * 86_400L) {
+                // Stays inside the offset index years, the watermark can't go back on the same aggregator.
+                hourly = TimeBucketAggregator.tumbling(ChronoUnit.HOURS, zone3);
+                partial = hourly.newPartial();
+                shift = 0;
+            }
+        }
+    }
+
+}
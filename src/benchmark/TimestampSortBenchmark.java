@@ -0,0 +1,102 @@
+package benchmark;
+
+import java_time.PackedInstant;
+import java_time.TimestampSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.chrono.ChronoZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/* TimestampSortBenchmark -> Sorting one batch of events from feeds in different zones (the zones of java_time.Program),
+spread over one day:
+* zonedDateTimeListSort / timestampSortZoned -> List<ZonedDateTime>.sort(timeLineOrder()) vs TimestampSort
+* instantListSort / timestampSortInstants    -> List<Instant>.sort(null) vs TimestampSort
+* arraysParallelSort / timestampSortKeys     -> the epoch-nanos keys alone: Arrays.parallelSort vs TimestampSort
+Every call sorts a fresh copy of the batch; the copy is part of the score of both sides.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar TimestampSortBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TimestampSortBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    TimestampSort sorter = new TimestampSort();
+
+    List<ZonedDateTime> zonedDateTimes;
+    List<Instant> instants;
+    long[] keys;
+
+    @Setup
+    public void setup() {
+        ZoneId[] zones = {ZoneId.of("+02:00"), ZoneId.of("UTC"), ZoneId.of("America/New_York"), ZoneId.systemDefault()};
+        SplittableRandom random = new SplittableRandom(42);
+        Instant start = Instant.parse("2007-12-03T04:15:30Z");
+        zonedDateTimes = new ArrayList<>(size);
+        instants = new ArrayList<>(size);
+        keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            Instant instant = start.plusNanos(random.nextLong(86_400_000_000_000L));
+            zonedDateTimes.add(instant.atZone(zones[random.nextInt(zones.length)]));
+            instants.add(instant);
+            keys[i] = PackedInstant.of(instant);
+        }
+    }
+
+    @Benchmark
+    public List<ZonedDateTime> zonedDateTimeListSort() {
+        List<ZonedDateTime> list = new ArrayList<>(zonedDateTimes);
+        list.sort(ChronoZonedDateTime.timeLineOrder());
+        return list;
+    }
+
+    @Benchmark
+    public List<ZonedDateTime> timestampSortZoned() {
+        List<ZonedDateTime> list = new ArrayList<>(zonedDateTimes);
+        sorter.sortZonedDateTimes(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<Instant> instantListSort() {
+        List<Instant> list = new ArrayList<>(instants);
+        list.sort(null);
+        return list;
+    }
+
+    @Benchmark
+    public List<Instant> timestampSortInstants() {
+        List<Instant> list = new ArrayList<>(instants);
+        sorter.sortInstants(list);
+        return list;
+    }
+
+    @Benchmark
+    public long[] arraysParallelSort() {
+        long[] copy = keys.clone();
+        Arrays.parallelSort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public long[] timestampSortKeys() {
+        long[] copy = keys.clone();
+        sorter.sort(copy);
+        return copy;
+    }
+
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import java_time.ZoneOffsetIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/* ZoneOffsetIndexBenchmark -> ZoneOffsetIndex versus ZoneRules.getOffset for America/New_York (zone3 in Program).
+Every call looks up one of 4096 random epoch seconds between 1990 and 2040, which includes years past the last
+historic transition where ZoneRules builds transitions from its rules.
+
+-> Run:
+mvn -B package && java -jar target/benchmarks.jar ZoneOffsetIndexBenchmark -prof gc */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ZoneOffsetIndexBenchmark {
+
+    ZoneId zone3 = ZoneId.of("America/New_York");
+    ZoneOffsetIndex index = ZoneOffsetIndex.of(zone3, 1970, 2100);
+
+    long[] epochSeconds = new long[4096];
+    int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        long from = Instant.parse("1990-01-01T00:00:00Z").getEpochSecond();
+        long to = Instant.parse("2040-01-01T00:00:00Z").getEpochSecond();
+        for (int i = 0; i < epochSeconds.length; i++) {
+            epochSeconds[i] = random.nextLong(from, to);
+        }
+    }
+
+    long nextEpochSecond() {
+        return epochSeconds[next++ & (epochSeconds.length - 1)];
+    }
+
+    @Benchmark
+    public int zoneRulesGetOffset() {
+        return zone3.getRules().getOffset(Instant.ofEpochSecond(nextEpochSecond())).getTotalSeconds();
+    }
+
+    @Benchmark
+    public int zoneOffsetIndexGetOffset() {
+        return index.getOffsetSeconds(nextEpochSecond());
+    }
+
+    @Benchmark
+    public LocalDateTime localDateTimeOfInstant() {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(nextEpochSecond()), zone3);
+    }
+
+    @Benchmark
+    public LocalDateTime zoneOffsetIndexToLocalDateTime() {
+        return index.toLocalDateTime(nextEpochSecond(), 0);
+    }
+
+}
@@ -0,0 +1,44 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/* ZoneRulesSnapshotBenchmark -> Time to the first conversion in a fresh JVM: the JDK's tzdb provider versus a
+ZoneRulesSnapshot of three zones.
+Each fork is a new JVM that runs the benchmark method once, so the score is the cold cost of ZoneId.of("America/New_York")
+(zone3 in Program) plus LocalDateTime.ofInstant of instant4, i.e. loading the provider, the zone rules and the classes
+they need.
+
+-> Run (the snapshot first, it is read from target/zones.snapshot):
+mvn -B package && java -cp target/benchmarks.jar java_time.ZoneRulesSnapshot target/zones.snapshot America/New_York Europe/London Etc/UTC
+java -jar target/benchmarks.jar ZoneRulesSnapshotBenchmark */
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Benchmark)
+public class ZoneRulesSnapshotBenchmark {
+
+    Instant instant4 = Instant.ofEpochSecond(1196655330L);
+
+    @Benchmark
+    public LocalDateTime jdkProvider() {
+        return LocalDateTime.ofInstant(instant4, ZoneId.of("America/New_York"));
+    }
+
+    @Benchmark
+    @Fork(value = 20, jvmArgsAppend = {
+            "-Djava.time.zone.DefaultZoneRulesProvider=java_time.ZoneRulesSnapshot",
+            "-Djava_time.ZoneRulesSnapshot.file=target/zones.snapshot"
+    })
+    public LocalDateTime snapshotProvider() {
+        return LocalDateTime.ofInstant(instant4, ZoneId.of("America/New_York"));
+    }
+
+}
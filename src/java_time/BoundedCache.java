@@ -0,0 +1,198 @@
+package java_time;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/* BoundedCache -> A size-bounded concurrent cache with CLOCK (second chance) eviction.
+Lookups are a ConcurrentHashMap get plus a write to the entry's "referenced" flag, so hits never lock. Misses load the
+value outside of any lock, and only the insertion (with the eviction it may need) takes a single lock, which is fine
+for caches whose misses are rare compared to hits.
+
+When the cache is full, a "clock hand" walks over the entries: entries used since the last pass get a second chance
+(their flag is cleared), and the first one that was not used is evicted. This approximates LRU without reordering a
+list on every hit.
+
+Hits, misses and evictions are counted with LongAdders and can be read through stats(). */
+
+public final class BoundedCache<K, V> {
+
+    private final int maximumSize;
+    private final ConcurrentHashMap<K, Node<K, V>> map;
+    private final Node<K, V>[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Guarded by lock.
+    private int filled;
+    private int hand;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BoundedCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.map = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16) * 4 / 3 + 1);
+        this.ring = (Node<K, V>[]) new Node[maximumSize];
+    }
+
+    // Cached value, or null.
+    public V getIfPresent(K key) {
+        Node<K, V> node = map.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        // Only written when clear, so a hot entry's cache line is not dirtied on every read.
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        hits.increment();
+        return node.value;
+    }
+
+    // Cached value, loading (and caching) it on a miss. The loader must not return null.
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Node<K, V> node = map.get(key);
+        if (node != null) {
+            if (!node.referenced) {
+                node.referenced = true;
+            }
+            hits.increment();
+            return node.value;
+        }
+        misses.increment();
+        return put(key, Objects.requireNonNull(loader.apply(key), "loader returned null"));
+    }
+
+    // Caches the value unless the key is already present, and returns the cached one.
+    public V put(K key, V value) {
+        lock.lock();
+        try {
+            Node<K, V> existing = map.get(key);
+            if (existing != null) {
+                return existing.value;
+            }
+            Node<K, V> node = new Node<>(key, value);
+            if (filled < maximumSize) {
+                ring[filled++] = node;
+            } else {
+                evictAndReplace(node);
+            }
+            map.put(key, node);
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictAndReplace(Node<K, V> node) {
+        while (true) {
+            Node<K, V> candidate = ring[hand];
+            if (candidate.referenced) {
+                candidate.referenced = false;
+                hand = hand + 1 == maximumSize ? 0 : hand + 1;
+                continue;
+            }
+            map.remove(candidate.key, candidate);
+            evictions.increment();
+            ring[hand] = node;
+            hand = hand + 1 == maximumSize ? 0 : hand + 1;
+            return;
+        }
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            map.clear();
+            Arrays.fill(ring, null);
+            filled = 0;
+            hand = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), map.size(), maximumSize);
+    }
+
+    /* Stats */
+
+    public static final class Stats {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final int maximumSize;
+
+        Stats(long hits, long misses, long evictions, int size, int maximumSize) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.maximumSize = maximumSize;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public double getHitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 1.0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, evictions=%d, size=%d/%d, hitRatio=%.4f",
+                    hits, misses, evictions, size, maximumSize, getHitRatio());
+        }
+    }
+
+    private static final class Node<K, V> {
+
+        final K key;
+        final V value;
+        volatile boolean referenced;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+}
@@ -0,0 +1,359 @@
+package java_time;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/* BulkTimestampParser -> Parses large batches of timestamps in parallel on a ForkJoinPool.
+Every example in Program parses one string at a time on the main thread. This parser splits a batch into ranges,
+parses each range on a pool worker with the stateless FastDateTimeParser (so workers share no formatter state), and
+returns a Result with:
+* a long[] of epoch seconds (0 where the text could not be parsed)
+* an error bitmap, one bit per input, set where parsing failed (null elements included)
+
+Ranges are split on multiples of 64, so every long word of the bitmap is written by a single worker and no locking
+or atomic operation is needed.
+
+A file is read as ASCII lines (\n or \r\n) and parsed straight from its bytes, without creating a String per line. It
+is read in chunks of whole lines (16 MB), so its size is not limited by a byte[], and the next chunk is read while the
+pool parses the current one. The number of lines is limited by the arrays of the Result (MAX_SIZE). */
+
+public final class BulkTimestampParser {
+
+    // Largest Result: the long[] of epoch seconds can't hold more.
+    public static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final int DEFAULT_THRESHOLD = 8192;
+    private static final int CHUNK_SIZE = 1 << 24;
+
+    private final TimestampLayout layout;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public BulkTimestampParser(TimestampLayout layout) {
+        this(layout, ForkJoinPool.commonPool());
+    }
+
+    public BulkTimestampParser(TimestampLayout layout, ForkJoinPool pool) {
+        this(layout, pool, DEFAULT_THRESHOLD);
+    }
+
+    // threshold -> number of timestamps below which a range is parsed without splitting (rounded up to 64).
+    public BulkTimestampParser(TimestampLayout layout, ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        }
+        this.layout = Objects.requireNonNull(layout, "layout");
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.threshold = (threshold + 63) & ~63;
+    }
+
+    public Result parse(CharSequence[] texts) {
+        Result result = new Result(texts.length);
+        pool.invoke(new CharSequenceTask(texts, result, 0, texts.length));
+        return result;
+    }
+
+    public Result parse(List<? extends CharSequence> texts) {
+        if (!(texts instanceof RandomAccess)) {
+            return parse(texts.toArray(new CharSequence[0]));
+        }
+        Result result = new Result(texts.size());
+        pool.invoke(new ListTask(texts, result, 0, texts.size()));
+        return result;
+    }
+
+    // One timestamp per line. Blank lines are reported as errors, a trailing line break is ignored.
+    // Throws IllegalArgumentException for files of more than MAX_SIZE lines.
+    public Result parse(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            // Small files get a buffer of their own size, which grows if they do.
+            int size = (int) Math.min(CHUNK_SIZE, channel.size() + 1);
+            Chunk chunk = new Chunk(size);
+            Chunk spare = null;
+            chunk.read(channel, null);
+            // Sized from the first chunk, so files of lines of similar length are not copied while growing.
+            Result result = new Result((int) Math.min(MAX_SIZE,
+                    (double) chunk.lines / Math.max(1, chunk.length) * channel.size() * 1.01 + 64));
+            int lines = 0;
+            while (true) {
+                if (chunk.lines > MAX_SIZE - lines) {
+                    throw new IllegalArgumentException("More than " + MAX_SIZE + " lines in " + file);
+                }
+                int from = lines;
+                lines += chunk.lines;
+                if (lines > result.size()) {
+                    result.resize((int) Math.min(MAX_SIZE, Math.max(lines, 2L * result.size())));
+                }
+                ForkJoinTask<Void> task = pool.submit(new BytesTask(chunk, from, result, from, lines));
+                if (chunk.end) {
+                    task.join();
+                    break;
+                }
+                // The spare buffer is free: its lines were parsed by the previous task.
+                if (spare == null) {
+                    spare = new Chunk(size);
+                }
+                spare.read(channel, chunk);
+                task.join();
+                Chunk parsed = chunk;
+                chunk = spare;
+                spare = parsed;
+            }
+            if (lines != result.size()) {
+                result.resize(lines);
+            }
+            return result;
+        }
+    }
+
+    // Whole lines read from a file. Line i is [lineStarts[i], lineStarts[i + 1] - 1), and the bytes from
+    // lineStarts[lines] to length begin a line that continues in the next chunk.
+    private static final class Chunk {
+
+        byte[] bytes;
+        int length;
+        int[] lineStarts = new int[1024];
+        int lines;
+        boolean end;
+
+        Chunk(int size) {
+            this.bytes = new byte[size];
+        }
+
+        // Copies the unfinished line of previous to the front, then fills the rest from the channel. The buffer only
+        // grows when a single line is longer than it.
+        void read(FileChannel channel, Chunk previous) throws IOException {
+            length = 0;
+            if (previous != null) {
+                int from = previous.lineStarts[previous.lines];
+                if (bytes.length < previous.bytes.length) {
+                    bytes = new byte[previous.bytes.length];
+                }
+                length = previous.length - from;
+                System.arraycopy(previous.bytes, from, bytes, 0, length);
+            }
+            while (true) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, length, bytes.length - length);
+                while (buffer.hasRemaining() && !end) {
+                    end = channel.read(buffer) < 0;
+                }
+                length = buffer.position();
+                scan();
+                if (lines > 0 || end) {
+                    return;
+                }
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+        }
+
+        private void scan() {
+            int n = 0;
+            int start = 0;
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] == '\n') {
+                    if (n + 1 >= lineStarts.length) {
+                        lineStarts = Arrays.copyOf(lineStarts, lineStarts.length * 2);
+                    }
+                    lineStarts[n++] = start;
+                    start = i + 1;
+                }
+            }
+            if (end && start < length) {
+                if (n + 1 >= lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, lineStarts.length + 2);
+                }
+                lineStarts[n++] = start;
+                start = length + 1;
+            }
+            lineStarts[n] = start;
+            lines = n;
+        }
+    }
+
+    /* Result */
+
+    public static final class Result {
+
+        private long[] epochSeconds;
+        private long[] errors;
+
+        Result(int size) {
+            this.epochSeconds = new long[size];
+            this.errors = new long[(size + 63) >>> 6];
+        }
+
+        public int size() {
+            return epochSeconds.length;
+        }
+
+        // The array is not copied.
+        public long[] epochSeconds() {
+            return epochSeconds;
+        }
+
+        // Bit i (errors[i >>> 6] & (1L << i)) is set when input i could not be parsed. The array is not copied.
+        public long[] errorBitmap() {
+            return errors;
+        }
+
+        public boolean isError(int index) {
+            Objects.checkIndex(index, epochSeconds.length);
+            return (errors[index >>> 6] & (1L << index)) != 0;
+        }
+
+        public int errorCount() {
+            int count = 0;
+            for (long word : errors) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        void error(int index) {
+            errors[index >>> 6] |= 1L << index;
+        }
+
+        // Grows (or trims) the arrays while a file is parsed chunk by chunk.
+        void resize(int size) {
+            epochSeconds = Arrays.copyOf(epochSeconds, size);
+            errors = Arrays.copyOf(errors, (size + 63) >>> 6);
+        }
+    }
+
+    /* Tasks */
+
+    // A null element is bad input like any other: it sets its error bit instead of failing the whole batch.
+    private static CharSequence nonNull(CharSequence text, int index) {
+        if (text == null) {
+            throw new DateTimeException("Null text at index " + index);
+        }
+        return text;
+    }
+
+    private abstract class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final Result result;
+        final int from;
+        final int to;
+
+        RangeTask(Result result, int from, int to) {
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int middle = (from + ((to - from) >>> 1) + 63) & ~63;
+            if (to - from <= threshold || middle >= to) {
+                long[] epochSeconds = result.epochSeconds;
+                for (int i = from; i < to; i++) {
+                    try {
+                        epochSeconds[i] = parse(i);
+                    } catch (DateTimeException e) {
+                        result.error(i);
+                    }
+                }
+                return;
+            }
+            invokeAll(split(from, middle), split(middle, to));
+        }
+
+        abstract long parse(int index);
+
+        abstract RangeTask split(int from, int to);
+    }
+
+    private final class CharSequenceTask extends RangeTask {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence[] texts;
+
+        CharSequenceTask(CharSequence[] texts, Result result, int from, int to) {
+            super(result, from, to);
+            this.texts = texts;
+        }
+
+        @Override
+        long parse(int index) {
+            return layout.parse(nonNull(texts[index], index));
+        }
+
+        @Override
+        RangeTask split(int from, int to) {
+            return new CharSequenceTask(texts, result, from, to);
+        }
+    }
+
+    private final class ListTask extends RangeTask {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends CharSequence> texts;
+
+        ListTask(List<? extends CharSequence> texts, Result result, int from, int to) {
+            super(result, from, to);
+            this.texts = texts;
+        }
+
+        @Override
+        long parse(int index) {
+            return layout.parse(nonNull(texts.get(index), index));
+        }
+
+        @Override
+        RangeTask split(int from, int to) {
+            return new ListTask(texts, result, from, to);
+        }
+    }
+
+    private final class BytesTask extends RangeTask {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] bytes;
+        private final int[] lineStarts;
+        // Index of the first line of the chunk in the Result.
+        private final int first;
+
+        BytesTask(Chunk chunk, int first, Result result, int from, int to) {
+            this(chunk.bytes, chunk.lineStarts, first, result, from, to);
+        }
+
+        private BytesTask(byte[] bytes, int[] lineStarts, int first, Result result, int from, int to) {
+            super(result, from, to);
+            this.bytes = bytes;
+            this.lineStarts = lineStarts;
+            this.first = first;
+        }
+
+        @Override
+        long parse(int index) {
+            int start = lineStarts[index - first];
+            int end = lineStarts[index - first + 1] - 1;
+            if (end > start && bytes[end - 1] == '\r') {
+                end--;
+            }
+            return layout.parse(bytes, start, end - start);
+        }
+
+        @Override
+        RangeTask split(int from, int to) {
+            return new BytesTask(bytes, lineStarts, first, result, from, to);
+        }
+    }
+
+}
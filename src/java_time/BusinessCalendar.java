@@ -0,0 +1,289 @@
+package java_time;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoField;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAdjuster;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+
+/* BusinessCalendar -> Business-day arithmetic (add N business days, business days between) for a market calendar.
+Program's date arithmetic counts calendar days: ld.plusWeeks(1), instant.minus(7, ChronoUnit.DAYS),
+Duration.between(...).toDays(). Adding business days the same way means stepping one LocalDate at a time and looking
+each one up in a Set<LocalDate> of holidays, so T+10 costs ten steps and counting the business days of a year
+costs 365 lookups.
+
+A calendar covers the years fromYear to toYear and stores one bit per day, indexed by epoch day (set = business
+day), in long words, plus the number of business days before each word:
+* isBusinessDay         -> one bit test
+* businessDaysBetween   -> rank(end) - rank(start), where rank is a prefix count plus one Long.bitCount: O(1)
+* plusBusinessDays      -> the business day whose rank is rank(date) + n: a scan of the next words for small n, a
+                           binary search of the prefix counts for large n, then the n-th set bit of one word
+A year is 6 words, so 200 calendars of 100 years take less than 2 MB. Dates (and results) outside the years throw
+DateTimeException. The TemporalAdjusters work on anything with an EPOCH_DAY (LocalDate, LocalDateTime,
+ZonedDateTime ...) and keep its time of day.
+
+-> Example:
+BusinessCalendar nyse = BusinessCalendar.of("NYSE", 2000, 2100, EnumSet.of(SATURDAY, SUNDAY), holidays);
+LocalDate settlement = trade.with(nyse.plusBusinessDays(2));                   // T+2
+long days = nyse.businessDaysBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1));
+BusinessCalendar both = nyse.and(lse);                                         // open on both markets */
+
+public final class BusinessCalendar {
+
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_BITS = 1 << WORD_SHIFT;
+    // Words scanned forward or backward before plusBusinessDays switches to a binary search.
+    private static final int SCAN_WORDS = 4;
+
+    private final String name;
+    private final int fromYear;
+    private final int toYear;
+    // Epoch days [start, end) are covered; bit i of words is epoch day base + i.
+    private final long start;
+    private final long end;
+    private final long base;
+    private final long[] words;
+    // prefix[w] is the number of business days in words[0 .. w), prefix[words.length] the total.
+    private final int[] prefix;
+
+    private BusinessCalendar(String name, int fromYear, int toYear, long start, long end, long base, long[] words) {
+        this.name = name;
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.start = start;
+        this.end = end;
+        this.base = base;
+        this.words = words;
+        this.prefix = new int[words.length + 1];
+        for (int w = 0; w < words.length; w++) {
+            prefix[w + 1] = prefix[w] + Long.bitCount(words[w]);
+        }
+    }
+
+    // Every day of fromYear - toYear except the weekend days and the holidays. Holidays outside the years are ignored.
+    public static BusinessCalendar of(String name, int fromYear, int toYear, Set<DayOfWeek> weekend,
+                                      Collection<LocalDate> holidays) {
+        Objects.requireNonNull(name, "name");
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("fromYear " + fromYear + " is after toYear " + toYear);
+        }
+        if (fromYear < 1 || toYear > 9999) {
+            throw new IllegalArgumentException("Year range must be within 1 - 9999: " + fromYear + " - " + toYear);
+        }
+        long start = EpochDays.of(fromYear, 1, 1);
+        long end = EpochDays.of(toYear + 1, 1, 1);
+        long base = Math.floorDiv(start, WORD_BITS) * WORD_BITS;
+        long[] words = new long[(int) ((end - base + WORD_BITS - 1) >>> WORD_SHIFT)];
+        boolean[] closed = new boolean[8];
+        for (DayOfWeek day : weekend) {
+            closed[day.getValue()] = true;
+        }
+        for (long day = start; day < end; day++) {
+            if (!closed[EpochDays.toDayOfWeek(day)]) {
+                words[(int) ((day - base) >>> WORD_SHIFT)] |= 1L << (day - base);
+            }
+        }
+        for (LocalDate holiday : holidays) {
+            long day = holiday.toEpochDay();
+            if (day >= start && day < end) {
+                words[(int) ((day - base) >>> WORD_SHIFT)] &= ~(1L << (day - base));
+            }
+        }
+        return new BusinessCalendar(name, fromYear, toYear, start, end, base, words);
+    }
+
+    // Days that are business days in both calendars, over the years both cover, e.g. for cross-market settlement.
+    public BusinessCalendar and(BusinessCalendar other) {
+        int from = Math.max(fromYear, other.fromYear);
+        int to = Math.min(toYear, other.toYear);
+        if (from > to) {
+            throw new IllegalArgumentException("No common years: " + this + ", " + other);
+        }
+        long start = EpochDays.of(from, 1, 1);
+        long end = EpochDays.of(to + 1, 1, 1);
+        long base = Math.floorDiv(start, WORD_BITS) * WORD_BITS;
+        long[] words = new long[(int) ((end - base + WORD_BITS - 1) >>> WORD_SHIFT)];
+        for (int w = 0; w < words.length; w++) {
+            long day = base + ((long) w << WORD_SHIFT);
+            words[w] = word(day) & other.word(day);
+        }
+        // Days of a shared first or last word that one calendar covers and the result doesn't.
+        words[0] &= -1L << (start - base);
+        long last = end - base - ((long) (words.length - 1) << WORD_SHIFT);
+        if (last < WORD_BITS) {
+            words[words.length - 1] &= (1L << last) - 1;
+        }
+        return new BusinessCalendar(name + "+" + other.name, from, to, start, end, base, words);
+    }
+
+    // The 64 days from day (a multiple of 64 days after base), 0 for days outside the calendar.
+    private long word(long day) {
+        long w = (day - base) >> WORD_SHIFT;
+        return w >= 0 && w < words.length ? words[(int) w] : 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    public int getToYear() {
+        return toYear;
+    }
+
+    /* Queries */
+
+    public boolean isBusinessDay(LocalDate date) {
+        return isBusinessDay(date.toEpochDay());
+    }
+
+    public boolean isBusinessDay(long epochDay) {
+        check(epochDay);
+        long bit = epochDay - base;
+        return (words[(int) (bit >>> WORD_SHIFT)] & (1L << bit)) != 0;
+    }
+
+    // Business days in [startInclusive, endExclusive), negative when end is before start, like ChronoUnit.between.
+    public long businessDaysBetween(LocalDate startInclusive, LocalDate endExclusive) {
+        return businessDaysBetween(startInclusive.toEpochDay(), endExclusive.toEpochDay());
+    }
+
+    public long businessDaysBetween(long startEpochDay, long endEpochDay) {
+        if (endEpochDay < startEpochDay) {
+            return -businessDaysBetween(endEpochDay, startEpochDay);
+        }
+        return rank(endEpochDay) - rank(startEpochDay);
+    }
+
+    /* Arithmetic */
+
+    // The n-th business day after the date (before it for negative n), the date itself for 0. T+2 is
+    // plusBusinessDays(trade, 2), whether or not the trade date is a business day.
+    public LocalDate plusBusinessDays(LocalDate date, long n) {
+        return LocalDate.ofEpochDay(plusBusinessDays(date.toEpochDay(), n));
+    }
+
+    public long plusBusinessDays(long epochDay, long n) {
+        check(epochDay);
+        if (n == 0) {
+            return epochDay;
+        }
+        // Rank of the result: the business days before it.
+        long target = n > 0 ? rank(epochDay + 1) + n - 1 : rank(epochDay) + n;
+        if (target < 0 || target >= prefix[words.length]) {
+            throw new DateTimeException(n + " business days from " + LocalDate.ofEpochDay(epochDay)
+                    + " is outside " + this);
+        }
+        return select((int) target, (int) ((epochDay - base) >>> WORD_SHIFT));
+    }
+
+    public LocalDate minusBusinessDays(LocalDate date, long n) {
+        return plusBusinessDays(date, -n);
+    }
+
+    // First business day after the date, and the last one before it.
+    public LocalDate nextBusinessDay(LocalDate date) {
+        return plusBusinessDays(date, 1);
+    }
+
+    public LocalDate previousBusinessDay(LocalDate date) {
+        return plusBusinessDays(date, -1);
+    }
+
+    // The date if it is a business day, otherwise the next one (the "following" roll convention).
+    public LocalDate nextOrSameBusinessDay(LocalDate date) {
+        return isBusinessDay(date) ? date : plusBusinessDays(date, 1);
+    }
+
+    /* Adjusters */
+
+    public TemporalAdjuster plusBusinessDays(long n) {
+        return temporal -> with(temporal, plusBusinessDays(temporal.getLong(ChronoField.EPOCH_DAY), n));
+    }
+
+    public TemporalAdjuster nextBusinessDay() {
+        return plusBusinessDays(1);
+    }
+
+    public TemporalAdjuster previousBusinessDay() {
+        return plusBusinessDays(-1);
+    }
+
+    public TemporalAdjuster nextOrSameBusinessDay() {
+        return temporal -> {
+            long epochDay = temporal.getLong(ChronoField.EPOCH_DAY);
+            return isBusinessDay(epochDay) ? temporal : with(temporal, plusBusinessDays(epochDay, 1));
+        };
+    }
+
+    private static Temporal with(Temporal temporal, long epochDay) {
+        return temporal.with(ChronoField.EPOCH_DAY, epochDay);
+    }
+
+    /* Bits */
+
+    // Business days before the epoch day, for days in [start, end].
+    private long rank(long epochDay) {
+        if (epochDay == end) {
+            return prefix[words.length];
+        }
+        check(epochDay);
+        long bit = epochDay - base;
+        int w = (int) (bit >>> WORD_SHIFT);
+        return prefix[w] + Long.bitCount(words[w] & ((1L << bit) - 1));
+    }
+
+    // Epoch day of the business day with the given rank, looking from word near first.
+    private long select(int rank, int near) {
+        int w = Math.min(near, words.length - 1);
+        int scanned = 0;
+        while (prefix[w + 1] <= rank && scanned++ < SCAN_WORDS) {
+            w++;
+        }
+        while (prefix[w] > rank && scanned++ < SCAN_WORDS) {
+            w--;
+        }
+        if (prefix[w] > rank || prefix[w + 1] <= rank) {
+            w = wordOfRank(rank);
+        }
+        long word = words[w];
+        for (int i = prefix[w]; i < rank; i++) {
+            word &= word - 1;
+        }
+        return base + ((long) w << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+    }
+
+    // Last word w with prefix[w] <= rank, which holds the business day of that rank.
+    private int wordOfRank(int rank) {
+        int low = 0;
+        int high = words.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (prefix[middle] <= rank) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private void check(long epochDay) {
+        if (epochDay < start || epochDay >= end) {
+            throw new DateTimeException(LocalDate.ofEpochDay(epochDay) + " is outside " + this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BusinessCalendar[" + name + ", " + fromYear + " - " + toYear + "]";
+    }
+
+}
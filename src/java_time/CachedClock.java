@@ -0,0 +1,213 @@
+package java_time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/* CachedClock -> A Clock that reads a value refreshed by a background ticker instead of the OS clock.
+Instant.now(), LocalDateTime.now(), ZonedDateTime.now(zone) and new Date() each read the system clock and allocate
+new objects. When every event on a request path is timestamped, those calls add up.
+
+A CachedClock starts a daemon thread that reads the system clock once per tick (the resolution, e.g. 1 ms or 10 ms)
+and publishes an immutable Tick through a volatile field. Readers never touch the OS clock:
+* millis() / epochSecond() -> primitive reads, no allocation
+* instant()                 -> the same Instant object for the whole tick
+
+With zone resolution enabled (resolveZone = true) the ticker also resolves the clock zone once per tick, so
+offset(), localDateTime() and localDate() return cached objects too. The offset is only looked up again when the next
+zone transition is reached. Values are at most one resolution behind the system clock, and the clock must be closed
+to stop its thread.
+
+It can be passed anywhere a Clock is expected: Instant.now(clock), LocalDateTime.now(clock) ... */
+
+public final class CachedClock extends Clock implements AutoCloseable {
+
+    private final ZoneId zone;
+    private final boolean resolveZone;
+    private final Duration resolution;
+    private final ScheduledExecutorService ticker;
+
+    private volatile Tick tick;
+
+    // Zone resolution state, only touched by the ticker thread.
+    private ZoneOffset offset;
+    private long offsetValidUntil = Long.MIN_VALUE;
+
+    private CachedClock(Duration resolution, ZoneId zone, boolean resolveZone) {
+        this.zone = zone;
+        this.resolveZone = resolveZone;
+        this.resolution = resolution;
+        this.tick = newTick(System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cached-clock-" + zone);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long nanos = resolution.toNanos();
+        ticker.scheduleAtFixedRate(() -> tick = newTick(System.currentTimeMillis()), nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static CachedClock start(Duration resolution) {
+        return start(resolution, ZoneOffset.UTC, false);
+    }
+
+    public static CachedClock start(Duration resolution, ZoneId zone, boolean resolveZone) {
+        Objects.requireNonNull(resolution, "resolution");
+        Objects.requireNonNull(zone, "zone");
+        if (resolution.compareTo(Duration.ofMillis(1)) < 0) {
+            throw new IllegalArgumentException("Resolution must be at least 1 ms: " + resolution);
+        }
+        return new CachedClock(resolution, zone, resolveZone);
+    }
+
+    public Duration getResolution() {
+        return resolution;
+    }
+
+    /* Clock */
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    // A clock for another zone that reads the same ticker. Closing this clock stops both.
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (zone.equals(this.zone)) {
+            return this;
+        }
+        return new ZonedView(this, zone);
+    }
+
+    @Override
+    public long millis() {
+        return tick.millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return tick.instant;
+    }
+
+    /* Cached values of the current tick */
+
+    public long epochSecond() {
+        return Math.floorDiv(tick.millis, 1000L);
+    }
+
+    public ZoneOffset offset() {
+        Tick t = tick;
+        return t.offset != null ? t.offset : zone.getRules().getOffset(t.instant);
+    }
+
+    public LocalDateTime localDateTime() {
+        Tick t = tick;
+        return t.localDateTime != null ? t.localDateTime : LocalDateTime.ofInstant(t.instant, zone);
+    }
+
+    public LocalDate localDate() {
+        Tick t = tick;
+        return t.localDateTime != null ? t.localDate : LocalDate.ofInstant(t.instant, zone);
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "CachedClock[" + zone + ", " + resolution + (resolveZone ? ", zone resolved per tick]" : "]");
+    }
+
+    /* Ticker */
+
+    private Tick newTick(long millis) {
+        Instant instant = Instant.ofEpochMilli(millis);
+        if (!resolveZone) {
+            return new Tick(millis, instant, null, null, null);
+        }
+        long epochSecond = instant.getEpochSecond();
+        if (offset == null || epochSecond >= offsetValidUntil) {
+            ZoneRules rules = zone.getRules();
+            offset = rules.getOffset(instant);
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            offsetValidUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+        }
+        Tick previous = tick;
+        LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(epochSecond, instant.getNano(), offset);
+        LocalDate localDate = previous != null && previous.localDate != null
+                && previous.localDate.equals(localDateTime.toLocalDate()) ? previous.localDate : localDateTime.toLocalDate();
+        return new Tick(millis, instant, offset, localDateTime, localDate);
+    }
+
+    private static final class Tick {
+
+        final long millis;
+        final Instant instant;
+        final ZoneOffset offset;
+        final LocalDateTime localDateTime;
+        final LocalDate localDate;
+
+        Tick(long millis, Instant instant, ZoneOffset offset, LocalDateTime localDateTime, LocalDate localDate) {
+            this.millis = millis;
+            this.instant = instant;
+            this.offset = offset;
+            this.localDateTime = localDateTime;
+            this.localDate = localDate;
+        }
+    }
+
+    private static final class ZonedView extends Clock {
+
+        private final CachedClock source;
+        private final ZoneId zone;
+
+        ZonedView(CachedClock source, ZoneId zone) {
+            this.source = source;
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return source.withZone(zone);
+        }
+
+        @Override
+        public long millis() {
+            return source.millis();
+        }
+
+        @Override
+        public Instant instant() {
+            return source.instant();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ZonedView && ((ZonedView) o).source == source && ((ZonedView) o).zone.equals(zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(source) ^ zone.hashCode();
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+package java_time;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.zone.ZoneRules;
+import java.util.Objects;
+
+/* CachedDateTimeFormatter -> A DateTimeFormatter wrapper that reuses the text rendered for the current minute.
+Formatting an Instant or a ZonedDateTime with a zoned formatter (dtf5, dtf6 ...) resolves the zone offset and renders
+every field on each call, even though a log writer formats the same second thousands of times in a row.
+
+The first call in a minute renders the whole text once and finds where the seconds digits are. Every other call in
+that minute only copies the cached characters and patches the two seconds digits. The cached text lives in an immutable
+entry published through a volatile field, so many threads can format at the same time without locking, and the
+char[] / StringBuilder methods do not allocate.
+
+The cache is only used when it gives exactly the same text as the wrapped formatter:
+* Patterns that print fractions of a second (S, n, N ...) are never cached.
+* Minutes with a zone offset change, or layouts where the seconds can't be found (e.g. "s" without padding), are
+cached one second at a time.
+* Temporals without an instant (LocalDateTime, LocalTime ...) are formatted by the wrapped formatter. */
+
+public final class CachedDateTimeFormatter {
+
+    private static final int PROBE_SECOND = 37;
+    private static final int PROBE_NANO = 123_456_789;
+    // 2000-01-01T00:00:37Z, used once to check whether the pattern prints fractions of a second.
+    private static final long PROBE_EPOCH_SECOND = 946_684_800L + PROBE_SECOND;
+
+    private final DateTimeFormatter formatter;
+    private final ZoneRules rules;
+    private final ZoneOffset fixedOffset;
+    private final boolean cacheable;
+
+    // Latest rendered text. Replaced as a whole, never modified after publication.
+    private volatile Entry entry;
+
+    private CachedDateTimeFormatter(DateTimeFormatter formatter, ZoneId zone) {
+        this.formatter = formatter;
+        this.rules = zone.getRules();
+        this.fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+        this.cacheable = formatter.format(Instant.ofEpochSecond(PROBE_EPOCH_SECOND))
+                .equals(formatter.format(Instant.ofEpochSecond(PROBE_EPOCH_SECOND, PROBE_NANO)));
+    }
+
+    // The formatter must have a zone (withZone), like dtf5, dtf6 and dtf7 in Program.
+    public static CachedDateTimeFormatter of(DateTimeFormatter formatter) {
+        Objects.requireNonNull(formatter, "formatter");
+        ZoneId zone = formatter.getZone();
+        if (zone == null) {
+            throw new IllegalArgumentException("Formatter has no zone, use withZone(...): " + formatter);
+        }
+        return new CachedDateTimeFormatter(formatter, zone);
+    }
+
+    public DateTimeFormatter getFormatter() {
+        return formatter;
+    }
+
+    public String format(long epochSecond) {
+        Entry e = entry(epochSecond);
+        if (e == null) {
+            return formatter.format(Instant.ofEpochSecond(epochSecond));
+        }
+        char[] text = new char[e.chars.length];
+        e.copyTo(epochSecond, text, 0);
+        return new String(text);
+    }
+
+    public String format(TemporalAccessor temporal) {
+        if (!temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+            return formatter.format(temporal);
+        }
+        long epochSecond = temporal.getLong(ChronoField.INSTANT_SECONDS);
+        Entry e = entry(epochSecond);
+        if (e == null) {
+            // Not cacheable (fractions of a second): the temporal itself, with its nanoseconds.
+            return formatter.format(temporal);
+        }
+        char[] text = new char[e.chars.length];
+        e.copyTo(epochSecond, text, 0);
+        return new String(text);
+    }
+
+    public void formatTo(long epochSecond, StringBuilder sb) {
+        Entry e = entry(epochSecond);
+        if (e == null) {
+            formatter.formatTo(Instant.ofEpochSecond(epochSecond), sb);
+            return;
+        }
+        append(e, epochSecond, sb);
+    }
+
+    private static void append(Entry e, long epochSecond, StringBuilder sb) {
+        int start = sb.length();
+        sb.append(e.chars);
+        if (e.secondIndex >= 0) {
+            int second = e.second(epochSecond);
+            sb.setCharAt(start + e.secondIndex, (char) ('0' + second / 10));
+            sb.setCharAt(start + e.secondIndex + 1, (char) ('0' + second % 10));
+        }
+    }
+
+    public void formatTo(TemporalAccessor temporal, StringBuilder sb) {
+        if (!temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+            formatter.formatTo(temporal, sb);
+            return;
+        }
+        long epochSecond = temporal.getLong(ChronoField.INSTANT_SECONDS);
+        Entry e = entry(epochSecond);
+        if (e == null) {
+            formatter.formatTo(temporal, sb);
+            return;
+        }
+        append(e, epochSecond, sb);
+    }
+
+    // Writes the text at dest[offset] and returns the number of chars written.
+    public int formatTo(long epochSecond, char[] dest, int offset) {
+        Entry e = entry(epochSecond);
+        if (e == null) {
+            String text = formatter.format(Instant.ofEpochSecond(epochSecond));
+            text.getChars(0, text.length(), dest, offset);
+            return text.length();
+        }
+        return e.copyTo(epochSecond, dest, offset);
+    }
+
+    public int formatTo(TemporalAccessor temporal, char[] dest, int offset) {
+        Entry e = temporal.isSupported(ChronoField.INSTANT_SECONDS)
+                ? entry(temporal.getLong(ChronoField.INSTANT_SECONDS)) : null;
+        if (e == null) {
+            String text = formatter.format(temporal);
+            text.getChars(0, text.length(), dest, offset);
+            return text.length();
+        }
+        return e.copyTo(temporal.getLong(ChronoField.INSTANT_SECONDS), dest, offset);
+    }
+
+    /* Cache */
+
+    // Returns null when the formatter output depends on fractions of a second and can't be cached.
+    private Entry entry(long epochSecond) {
+        if (!cacheable) {
+            return null;
+        }
+        Entry e = entry;
+        if (e != null && epochSecond >= e.from && epochSecond < e.until) {
+            return e;
+        }
+        e = render(epochSecond);
+        entry = e;
+        return e;
+    }
+
+    private Entry render(long epochSecond) {
+        // Start of the local minute. Old offsets such as LMT are not whole minutes, so this is not always UTC-aligned.
+        int offset = offset(epochSecond).getTotalSeconds();
+        long minute = Math.floorDiv(epochSecond + offset, 60L) * 60L - offset;
+        String probe = formatter.format(Instant.ofEpochSecond(minute + PROBE_SECOND));
+        String base = formatter.format(Instant.ofEpochSecond(minute));
+        int secondIndex = secondIndex(base, probe);
+        if (secondIndex != Entry.NOT_FOUND && sameOffset(minute, minute + 59)) {
+            return new Entry(minute, minute + 60L, base.toCharArray(), secondIndex);
+        }
+        char[] chars = formatter.format(Instant.ofEpochSecond(epochSecond)).toCharArray();
+        return new Entry(epochSecond, epochSecond + 1L, chars, Entry.NO_SECONDS);
+    }
+
+    private ZoneOffset offset(long epochSecond) {
+        return fixedOffset != null ? fixedOffset : rules.getOffset(Instant.ofEpochSecond(epochSecond));
+    }
+
+    private boolean sameOffset(long from, long to) {
+        return fixedOffset != null || offset(from).equals(offset(to));
+    }
+
+    // Position of the "00" that became "37", NO_SECONDS if nothing changed, NOT_FOUND for anything else.
+    private static int secondIndex(String base, String probe) {
+        if (base.length() != probe.length()) {
+            return Entry.NOT_FOUND;
+        }
+        int index = Entry.NO_SECONDS;
+        for (int i = 0; i < base.length(); i++) {
+            if (base.charAt(i) != probe.charAt(i)) {
+                if (index != Entry.NO_SECONDS || i + 1 >= base.length()
+                        || !base.startsWith("00", i) || !probe.startsWith("37", i)) {
+                    return Entry.NOT_FOUND;
+                }
+                index = i++;
+            }
+        }
+        return index;
+    }
+
+    private static final class Entry {
+
+        static final int NO_SECONDS = -1;
+        static final int NOT_FOUND = -2;
+
+        final long from;
+        final long until;
+        final char[] chars;
+        final int secondIndex;
+
+        Entry(long from, long until, char[] chars, int secondIndex) {
+            this.from = from;
+            this.until = until;
+            this.chars = chars;
+            this.secondIndex = secondIndex;
+        }
+
+        int second(long epochSecond) {
+            return (int) (epochSecond - from);
+        }
+
+        int copyTo(long epochSecond, char[] dest, int offset) {
+            System.arraycopy(chars, 0, dest, offset, chars.length);
+            if (secondIndex >= 0) {
+                int second = second(epochSecond);
+                dest[offset + secondIndex] = (char) ('0' + second / 10);
+                dest[offset + secondIndex + 1] = (char) ('0' + second % 10);
+            }
+            return chars.length;
+        }
+    }
+
+}
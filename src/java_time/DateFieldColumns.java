@@ -0,0 +1,155 @@
+package java_time;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/* DateFieldColumns -> Batch extraction of date/time fields from epoch millis into primitive columns.
+The "Getting Date Fields" section of Program reads one field at a time (ld.getDayOfMonth(),
+instant.atZone(zone2).get(ChronoField.YEAR) ...), and every value goes through a ZonedDateTime.
+
+Here a whole long[] of epoch millis is converted in one loop: the zone offset comes from a ZoneOffsetIndex (or a
+constant for fixed offsets), the date from the civil_from_days algorithm in EpochDays, and the results go into int[]
+columns. No object is created per element.
+
+The columns are public and can be read directly. Values are ISO, like the java.time getters:
+* month       -> 1 (January) - 12 (December)
+* dayOfWeek   -> 1 (Monday) - 7 (Sunday) */
+
+public final class DateFieldColumns {
+
+    public final int[] year;
+    public final int[] month;
+    public final int[] day;
+    public final int[] hour;
+    public final int[] minute;
+    public final int[] second;
+    public final int[] dayOfWeek;
+
+    // Largest epoch-day whose shifted value (epochDay + 719_468) still fits in an int.
+    private static final long MAX_FAST_DAY = Integer.MAX_VALUE - 719_468;
+
+    private int size;
+
+    public DateFieldColumns(int capacity) {
+        this.year = new int[capacity];
+        this.month = new int[capacity];
+        this.day = new int[capacity];
+        this.hour = new int[capacity];
+        this.minute = new int[capacity];
+        this.second = new int[capacity];
+        this.dayOfWeek = new int[capacity];
+    }
+
+    public static DateFieldColumns fromEpochMillis(long[] epochMillis, ZoneId zone) {
+        DateFieldColumns columns = new DateFieldColumns(epochMillis.length);
+        columns.fill(epochMillis, 0, epochMillis.length, zone);
+        return columns;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return year.length;
+    }
+
+    // Converts epochMillis[from, from + length) into rows 0 - length of the columns.
+    public void fill(long[] epochMillis, int from, int length, ZoneId zone) {
+        Objects.requireNonNull(zone, "zone");
+        checkRange(epochMillis, from, length);
+        ZoneId normalized = zone.normalized();
+        if (normalized instanceof ZoneOffset) {
+            fill(epochMillis, from, length, ((ZoneOffset) normalized).getTotalSeconds());
+        } else if (length > 0) {
+            fill(epochMillis, from, length, indexFor(epochMillis, from, length, zone));
+        } else {
+            size = 0;
+        }
+    }
+
+    // Same as fill(..., ZoneId) with a prebuilt index, for callers that convert many batches into the same zone.
+    public void fill(long[] epochMillis, int from, int length, ZoneOffsetIndex index) {
+        checkRange(epochMillis, from, length);
+        for (int i = 0; i < length; i++) {
+            long epochSecond = Math.floorDiv(epochMillis[from + i], 1000L);
+            set(i, epochSecond + index.getOffsetSeconds(epochSecond));
+        }
+        size = length;
+    }
+
+    private void fill(long[] epochMillis, int from, int length, int offsetSeconds) {
+        for (int i = 0; i < length; i++) {
+            set(i, Math.floorDiv(epochMillis[from + i], 1000L) + offsetSeconds);
+        }
+        size = length;
+    }
+
+    // Splits a local epoch second into the columns of row i (civil_from_days inlined, see EpochDays). The int math
+    // covers every epoch-day up to MAX_FAST_DAY (about +/- 5 million years), and int division by a constant compiles
+    // to a multiply. Days outside that go through LocalDateTime, which throws DateTimeException past its own range.
+    private void set(int i, long localEpochSecond) {
+        long days = Math.floorDiv(localEpochSecond, EpochDays.SECONDS_PER_DAY);
+        if (days < Integer.MIN_VALUE || days > MAX_FAST_DAY) {
+            setSlow(i, localEpochSecond);
+            return;
+        }
+        int epochDay = (int) days;
+        int secondOfDay = (int) (localEpochSecond - days * EpochDays.SECONDS_PER_DAY);
+
+        int z = epochDay + 719_468;
+        int era = (z >= 0 ? z : z - 146_096) / 146_097;
+        int dayOfEra = z - era * 146_097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int minuteOfDay = secondOfDay / 60;
+
+        year[i] = yearOfEra + era * 400 + (mp >= 10 ? 1 : 0);
+        month[i] = mp < 10 ? mp + 3 : mp - 9;
+        day[i] = dayOfYear - (153 * mp + 2) / 5 + 1;
+        hour[i] = minuteOfDay / 60;
+        minute[i] = minuteOfDay - minuteOfDay / 60 * 60;
+        second[i] = secondOfDay - minuteOfDay * 60;
+        // Eras start on a Wednesday (0000-03-01) and are a whole number of weeks long.
+        dayOfWeek[i] = (dayOfEra + 2) % 7 + 1;
+    }
+
+    private void setSlow(int i, long localEpochSecond) {
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC);
+        year[i] = dateTime.getYear();
+        month[i] = dateTime.getMonthValue();
+        day[i] = dateTime.getDayOfMonth();
+        hour[i] = dateTime.getHour();
+        minute[i] = dateTime.getMinute();
+        second[i] = dateTime.getSecond();
+        dayOfWeek[i] = dateTime.getDayOfWeek().getValue();
+    }
+
+    private void checkRange(long[] epochMillis, int from, int length) {
+        Objects.checkFromIndexSize(from, length, epochMillis.length);
+        if (length > capacity()) {
+            throw new IllegalArgumentException("Batch of " + length + " exceeds capacity " + capacity());
+        }
+    }
+
+    // Index covering the years of the batch (one pass to find min/max, a few microseconds for millions of rows).
+    private static ZoneOffsetIndex indexFor(long[] epochMillis, int from, int length, ZoneId zone) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = from; i < from + length; i++) {
+            min = Math.min(min, epochMillis[i]);
+            max = Math.max(max, epochMillis[i]);
+        }
+        int fromYear = clampYear(EpochDays.toYear(Math.floorDiv(min, 86_400_000L)) - 1);
+        int toYear = clampYear(EpochDays.toYear(Math.floorDiv(max, 86_400_000L)) + 1);
+        return ZoneOffsetIndex.of(zone, fromYear, toYear);
+    }
+
+    private static int clampYear(int year) {
+        return Math.max(1, Math.min(9999, year));
+    }
+
+}
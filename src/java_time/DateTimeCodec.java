@@ -0,0 +1,396 @@
+package java_time;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/* DateTimeCodec -> Compact binary encoding of LocalDate, LocalTime, LocalDateTime, Instant, ZoneOffset and
+ZonedDateTime, read and written directly on a ByteBuffer.
+Program prints every value with toString() or a DateTimeFormatter ("2007-12-03T04:15:30Z", "03/12/2007 04:15:30"),
+and that text is also what usually goes over RPC or into a cache: 20 to 35 bytes that have to be parsed again.
+
+The codec writes the numbers behind the value as varints (7 bits per byte, small values in few bytes):
+* LocalDate     -> epoch day                                                   3 bytes for 1800 - 2150
+* LocalTime     -> second of day and fraction precision, then the fraction     3 bytes, +1 or 2 for millis
+* LocalDateTime -> epoch second (local) and fraction precision, then fraction  5 bytes, +1 or 2 for millis
+* Instant       -> epoch second and fraction precision, then the fraction      5 bytes, +1 or 2 for millis
+* ZoneOffset    -> quarter hours, or seconds for other offsets                 1 byte
+* ZonedDateTime -> LocalDateTime, ZoneOffset and zone                          7 bytes
+The fraction is written in millis, micros or nanos, whichever is the coarsest exact one. Zone ids are written as their
+index in the codec's zone dictionary (1 byte for the common zones), other ids as text. Encoder and decoder have to
+use the same dictionary: standard() has a fixed list, only ever appended to, and withZones(...) a custom one.
+
+Sorted sequences of timestamps (epoch millis, PackedInstant nanos ...) are delta encoded by putTimestamps: the first
+value, then each difference to the previous one, scaled down by the largest of 1000^n dividing every difference.
+A list of event times a few millis apart takes 1 or 2 bytes per value.
+
+Values out of range throw DateTimeException like the java.time factories, a full buffer BufferOverflowException and
+a truncated one BufferUnderflowException.
+
+-> Example:
+ByteBuffer buffer = ByteBuffer.allocate(64);
+DateTimeCodec.putInstant(buffer, Instant.parse("2007-12-03T04:15:30Z"));     // 5 bytes instead of 20
+buffer.flip();
+Instant instant = DateTimeCodec.getInstant(buffer); */
+
+public final class DateTimeCodec {
+
+    // Longest varint, and the longest value any put method writes (a ZonedDateTime with a zone id as text excluded).
+    public static final int MAX_VARINT_BYTES = 10;
+    public static final int MAX_VALUE_BYTES = 2 * MAX_VARINT_BYTES;
+
+    // Append only: the index of a zone is its encoding.
+    private static final String[] STANDARD_ZONES = {
+            "UTC", "GMT", "Europe/London", "Europe/Paris", "Europe/Berlin", "Europe/Madrid", "Europe/Rome",
+            "Europe/Amsterdam", "Europe/Brussels", "Europe/Zurich", "Europe/Vienna", "Europe/Stockholm",
+            "Europe/Oslo", "Europe/Copenhagen", "Europe/Helsinki", "Europe/Warsaw", "Europe/Prague", "Europe/Athens",
+            "Europe/Istanbul", "Europe/Moscow", "Europe/Kiev", "Europe/Lisbon", "Europe/Dublin",
+            "America/New_York", "America/Chicago", "America/Denver", "America/Los_Angeles", "America/Phoenix",
+            "America/Anchorage", "America/Toronto", "America/Vancouver", "America/Mexico_City", "America/Sao_Paulo",
+            "America/Argentina/Buenos_Aires", "America/Bogota", "America/Lima", "America/Santiago", "America/Halifax",
+            "America/St_Johns", "Pacific/Honolulu", "Asia/Tokyo", "Asia/Seoul", "Asia/Shanghai", "Asia/Hong_Kong",
+            "Asia/Singapore", "Asia/Taipei", "Asia/Kolkata", "Asia/Dubai", "Asia/Jakarta", "Asia/Bangkok",
+            "Asia/Manila", "Asia/Karachi", "Asia/Tehran", "Asia/Jerusalem", "Asia/Riyadh", "Australia/Sydney",
+            "Australia/Melbourne", "Australia/Brisbane", "Australia/Perth", "Australia/Adelaide", "Pacific/Auckland",
+            "Africa/Johannesburg", "Africa/Cairo", "Africa/Lagos", "Africa/Nairobi", "Africa/Casablanca"
+    };
+
+    private static final DateTimeCodec STANDARD = new DateTimeCodec(STANDARD_ZONES);
+
+    // Zone references: the zone is the ZoneOffset itself, the id follows as text, or the dictionary index + 2.
+    private static final int ZONE_IS_OFFSET = 0;
+    private static final int ZONE_AS_TEXT = 1;
+    private static final int ZONE_DICTIONARY = 2;
+
+    // Fraction precision, in the low 2 bits of the second.
+    private static final int WHOLE_SECONDS = 0;
+    private static final int MILLIS = 1;
+    private static final int MICROS = 2;
+    private static final int NANOS = 3;
+
+    private static final long[] SCALES = {1L, 1_000L, 1_000_000L, 1_000_000_000L};
+
+    private final ZoneId[] zones;
+    private final Map<String, Integer> zoneIndexes;
+
+    private DateTimeCodec(String[] zoneIds) {
+        this.zones = new ZoneId[zoneIds.length];
+        this.zoneIndexes = new HashMap<>();
+        for (int i = 0; i < zoneIds.length; i++) {
+            zones[i] = ZoneId.of(zoneIds[i]);
+            if (zoneIndexes.putIfAbsent(zones[i].getId(), i) != null) {
+                throw new IllegalArgumentException("Duplicate zone id: " + zoneIds[i]);
+            }
+        }
+    }
+
+    public static DateTimeCodec standard() {
+        return STANDARD;
+    }
+
+    // A codec whose dictionary is the given zone ids, in this order. Unknown ids throw DateTimeException.
+    public static DateTimeCodec withZones(List<String> zoneIds) {
+        return new DateTimeCodec(zoneIds.toArray(new String[0]));
+    }
+
+    public List<ZoneId> getZones() {
+        return List.of(zones);
+    }
+
+    /* Varints */
+
+    // Unsigned LEB128: 7 bits per byte, least significant first, high bit set on all but the last byte.
+    public static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    public static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint at position " + (buffer.position() - 1));
+    }
+
+    // Zigzag encoded, so small negative values are short too: 0, -1, 1, -2 ... become 0, 1, 2, 3 ...
+    public static void putSignedVarint(ByteBuffer buffer, long value) {
+        putVarint(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    public static long getSignedVarint(ByteBuffer buffer) {
+        long value = getVarint(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /* Values */
+
+    public static void putLocalDate(ByteBuffer buffer, LocalDate date) {
+        putSignedVarint(buffer, date.toEpochDay());
+    }
+
+    public static LocalDate getLocalDate(ByteBuffer buffer) {
+        return LocalDate.ofEpochDay(getSignedVarint(buffer));
+    }
+
+    public static void putLocalTime(ByteBuffer buffer, LocalTime time) {
+        putSeconds(buffer, time.toSecondOfDay(), time.getNano());
+    }
+
+    public static LocalTime getLocalTime(ByteBuffer buffer) {
+        long header = getVarint(buffer);
+        long secondOfDay = header >>> 2;
+        if (secondOfDay >= EpochDays.SECONDS_PER_DAY) {
+            throw new DateTimeException("Invalid second of day: " + secondOfDay);
+        }
+        return LocalTime.ofNanoOfDay(secondOfDay * PackedInstant.NANOS_PER_SECOND + getFraction(buffer, (int) header & 3));
+    }
+
+    public static void putLocalDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        putSignedSeconds(buffer, dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano());
+    }
+
+    public static LocalDateTime getLocalDateTime(ByteBuffer buffer) {
+        long header = getSignedVarint(buffer);
+        return LocalDateTime.ofEpochSecond(header >> 2, getFraction(buffer, (int) header & 3), ZoneOffset.UTC);
+    }
+
+    public static void putInstant(ByteBuffer buffer, Instant instant) {
+        putSignedSeconds(buffer, instant.getEpochSecond(), instant.getNano());
+    }
+
+    public static Instant getInstant(ByteBuffer buffer) {
+        long header = getSignedVarint(buffer);
+        return Instant.ofEpochSecond(header >> 2, getFraction(buffer, (int) header & 3));
+    }
+
+    // Same encoding as putInstant, from and to a PackedInstant long, without an Instant in between.
+    public static void putPackedInstant(ByteBuffer buffer, long packed) {
+        putSignedSeconds(buffer, PackedInstant.getEpochSecond(packed), PackedInstant.getNano(packed));
+    }
+
+    public static long getPackedInstant(ByteBuffer buffer) {
+        long header = getSignedVarint(buffer);
+        return PackedInstant.ofEpochSecond(header >> 2, getFraction(buffer, (int) header & 3));
+    }
+
+    // Quarter hours (+01:00 is 4) in 1 byte, anything else in seconds.
+    public static void putZoneOffset(ByteBuffer buffer, ZoneOffset offset) {
+        int seconds = offset.getTotalSeconds();
+        if (seconds % 900 == 0) {
+            putSignedVarint(buffer, (long) (seconds / 900) << 1);
+        } else {
+            putSignedVarint(buffer, ((long) seconds << 1) | 1);
+        }
+    }
+
+    public static ZoneOffset getZoneOffset(ByteBuffer buffer) {
+        long value = getSignedVarint(buffer);
+        long seconds = (value & 1) == 0 ? (value >> 1) * 900 : value >> 1;
+        if (seconds < -64_800 || seconds > 64_800) {
+            throw new DateTimeException("Zone offset not in valid range: " + seconds + "s");
+        }
+        return ZoneOffset.ofTotalSeconds((int) seconds);
+    }
+
+    public void putZoneId(ByteBuffer buffer, ZoneId zone) {
+        if (zone instanceof ZoneOffset) {
+            putVarint(buffer, ZONE_IS_OFFSET);
+            putZoneOffset(buffer, (ZoneOffset) zone);
+        } else {
+            putZoneRegion(buffer, zone);
+        }
+    }
+
+    public ZoneId getZoneId(ByteBuffer buffer) {
+        long reference = getVarint(buffer);
+        return reference == ZONE_IS_OFFSET ? getZoneOffset(buffer) : getZoneRegion(buffer, reference);
+    }
+
+    // The local date-time and offset, like ZonedDateTime's own serialized form, so times in an overlap keep their offset.
+    public void putZonedDateTime(ByteBuffer buffer, ZonedDateTime dateTime) {
+        putLocalDateTime(buffer, dateTime.toLocalDateTime());
+        putZoneOffset(buffer, dateTime.getOffset());
+        ZoneId zone = dateTime.getZone();
+        if (zone instanceof ZoneOffset) {
+            putVarint(buffer, ZONE_IS_OFFSET);
+        } else {
+            putZoneRegion(buffer, zone);
+        }
+    }
+
+    public ZonedDateTime getZonedDateTime(ByteBuffer buffer) {
+        LocalDateTime dateTime = getLocalDateTime(buffer);
+        ZoneOffset offset = getZoneOffset(buffer);
+        long reference = getVarint(buffer);
+        ZoneId zone = reference == ZONE_IS_OFFSET ? offset : getZoneRegion(buffer, reference);
+        return ZonedDateTime.ofInstant(dateTime, offset, zone);
+    }
+
+    private void putZoneRegion(ByteBuffer buffer, ZoneId zone) {
+        Integer index = zoneIndexes.get(zone.getId());
+        if (index != null) {
+            putVarint(buffer, ZONE_DICTIONARY + index);
+            return;
+        }
+        byte[] id = zone.getId().getBytes(StandardCharsets.US_ASCII);
+        putVarint(buffer, ZONE_AS_TEXT);
+        putVarint(buffer, id.length);
+        buffer.put(id);
+    }
+
+    private ZoneId getZoneRegion(ByteBuffer buffer, long reference) {
+        if (reference == ZONE_AS_TEXT) {
+            int length = (int) getVarint(buffer);
+            if (length > buffer.remaining()) {
+                throw new DateTimeException("Zone id longer than the buffer: " + length);
+            }
+            byte[] id = new byte[length];
+            buffer.get(id);
+            return ZoneId.of(new String(id, StandardCharsets.US_ASCII));
+        }
+        long index = reference - ZONE_DICTIONARY;
+        if (index >= zones.length) {
+            throw new DateTimeException("Zone index not in the dictionary: " + index);
+        }
+        return zones[(int) index];
+    }
+
+    // Second of day (never negative) and the fraction.
+    private static void putSeconds(ByteBuffer buffer, long seconds, int nano) {
+        int precision = precision(nano);
+        putVarint(buffer, seconds << 2 | precision);
+        putFraction(buffer, nano, precision);
+    }
+
+    private static void putSignedSeconds(ByteBuffer buffer, long seconds, int nano) {
+        int precision = precision(nano);
+        putSignedVarint(buffer, seconds << 2 | precision);
+        putFraction(buffer, nano, precision);
+    }
+
+    private static int precision(int nano) {
+        if (nano == 0) {
+            return WHOLE_SECONDS;
+        }
+        if (nano % 1_000_000 == 0) {
+            return MILLIS;
+        }
+        return nano % 1_000 == 0 ? MICROS : NANOS;
+    }
+
+    private static void putFraction(ByteBuffer buffer, int nano, int precision) {
+        if (precision != WHOLE_SECONDS) {
+            putVarint(buffer, nano / SCALES[NANOS - precision]);
+        }
+    }
+
+    private static int getFraction(ByteBuffer buffer, int precision) {
+        if (precision == WHOLE_SECONDS) {
+            return 0;
+        }
+        long nano = getVarint(buffer) * SCALES[NANOS - precision];
+        if (nano < 0 || nano >= PackedInstant.NANOS_PER_SECOND) {
+            throw new DateTimeException("Invalid nano of second: " + nano);
+        }
+        return (int) nano;
+    }
+
+    /* Sequences */
+
+    // Longest encoding of count timestamps.
+    public static int maxTimestampsBytes(int count) {
+        return 1 + (count + 2) * MAX_VARINT_BYTES;
+    }
+
+    // Count, scale, first value, then the differences divided by the scale. Any order works, sorted is shortest.
+    public static void putTimestamps(ByteBuffer buffer, long[] values, int from, int length) {
+        Objects.checkFromIndexSize(from, length, values.length);
+        putVarint(buffer, length);
+        if (length == 0) {
+            return;
+        }
+        int scale = SCALES.length - 1;
+        for (int i = from + 1; i < from + length && scale > 0; i++) {
+            long delta = values[i] - values[i - 1];
+            while (scale > 0 && delta % SCALES[scale] != 0) {
+                scale--;
+            }
+        }
+        long divisor = SCALES[scale];
+        buffer.put((byte) scale);
+        putSignedVarint(buffer, values[from]);
+        for (int i = from + 1; i < from + length; i++) {
+            putSignedVarint(buffer, (values[i] - values[i - 1]) / divisor);
+        }
+    }
+
+    public static long[] getTimestamps(ByteBuffer buffer) {
+        int count = peekTimestampCount(buffer);
+        if (count > buffer.remaining()) {
+            throw new IllegalArgumentException("Timestamp count larger than the buffer: " + count);
+        }
+        long[] values = new long[count];
+        getTimestamps(buffer, values, 0);
+        return values;
+    }
+
+    // Reads a sequence into target from offset and returns its count. Throws IndexOutOfBoundsException if it doesn't fit.
+    public static int getTimestamps(ByteBuffer buffer, long[] target, int offset) {
+        long count = getVarint(buffer);
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid timestamp count: " + count);
+        }
+        int length = (int) count;
+        Objects.checkFromIndexSize(offset, length, target.length);
+        if (length == 0) {
+            return 0;
+        }
+        int scale = buffer.get();
+        if (scale < 0 || scale >= SCALES.length) {
+            throw new IllegalArgumentException("Invalid timestamp scale: " + scale);
+        }
+        long divisor = SCALES[scale];
+        long value = getSignedVarint(buffer);
+        target[offset] = value;
+        for (int i = 1; i < length; i++) {
+            value += getSignedVarint(buffer) * divisor;
+            target[offset + i] = value;
+        }
+        return length;
+    }
+
+    // Number of timestamps in the sequence at the buffer's position, without moving it.
+    public static int peekTimestampCount(ByteBuffer buffer) {
+        long count = getVarint(buffer.duplicate());
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid timestamp count: " + count);
+        }
+        return (int) count;
+    }
+
+    @Override
+    public String toString() {
+        return "DateTimeCodec" + Arrays.toString(zones);
+    }
+
+}
@@ -0,0 +1,496 @@
+package java_time;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+
+/* DateTimeFormatService -> Formatting and parsing for servers that run a task (or a virtual thread) per request.
+java_util.Program shares nothing between threads because SimpleDateFormat is mutable, and the usual fix is a
+ThreadLocal copy per thread (SafeDateFormat). With a thread per request, and above all with virtual threads, that is a
+new SimpleDateFormat and Calendar for every request: the copies are never reused and the heap fills with them.
+
+The service keeps no per-thread state at all. A Plan is the pattern compiled once for a zone into an immutable list of
+fixed-width fields and literals, plus the zone's ZoneOffsetIndex. Formatting reads the offset from the index, splits
+the local time with EpochDays and writes the digits into a char[] of the exact length, so a call allocates the result
+and nothing else; the formatTo methods write into the caller's StringBuilder or char[] and allocate nothing. Parsing
+reads the same fields back and resolves them like ZonedDateTime.parse(text, dtf6). Nothing synchronizes or parks, so
+a virtual thread never pins its carrier, and the plans are cached in a BoundedCache, whose lookups don't lock.
+
+Compiled patterns are made of yyyy uuuu MM dd HH mm ss, S...S (1 to 9) and literals (quoted text or non-letters),
+e.g. dtf4 "dd/MM/yyyy HH:mm:ss" or "yyyy-MM-dd'T'HH:mm:ss.SSS". Other patterns, years outside 1 - 9999 and texts the
+fast path doesn't read (wrong length, invalid values ...) go to the DateTimeFormatter of the same pattern and zone,
+which is immutable as well, so the results and exceptions are always exactly those of the formatter.
+
+-> Example:
+DateTimeFormatService.Plan dtf6 = DateTimeFormatService.shared().plan("dd/MM/yyyy HH:mm:ss", "America/New_York");
+dtf6.format(zdt7);                             // "02/12/2007 23:15:30", same as dtf6.format(zdt7) in Program
+dtf6.parseEpochSecond("03/12/2007 04:15:30");  // 1196673330 */
+
+public final class DateTimeFormatService {
+
+    public static final int DEFAULT_PLANS = 4_096;
+    public static final int DEFAULT_ZONES = 1_024;
+
+    // Years of the ZoneOffsetIndex of a zone; other years ask the ZoneRules.
+    private static final int FROM_YEAR = 1900;
+    private static final int TO_YEAR = 2100;
+
+    private static final DateTimeFormatService SHARED = new DateTimeFormatService(DEFAULT_PLANS, DEFAULT_ZONES);
+
+    private final BoundedCache<PlanKey, Plan> plans;
+    private final BoundedCache<ZoneId, ZoneOffsetIndex> indexes;
+
+    public DateTimeFormatService(int maximumPlans, int maximumZones) {
+        this.plans = new BoundedCache<>(maximumPlans);
+        this.indexes = new BoundedCache<>(maximumZones);
+    }
+
+    public static DateTimeFormatService shared() {
+        return SHARED;
+    }
+
+    // Same output as DateTimeFormatter.ofPattern(pattern).withZone(ZoneId.of(zoneId)).
+    public Plan plan(String pattern, String zoneId) {
+        return plan(pattern, DateTimeRegistry.shared().zone(Objects.requireNonNull(zoneId, "zoneId")));
+    }
+
+    public Plan plan(String pattern, ZoneId zone) {
+        Objects.requireNonNull(pattern, "pattern");
+        Objects.requireNonNull(zone, "zone");
+        return plans.get(new PlanKey(pattern, zone), key -> new Plan(key.pattern, key.zone,
+                indexes.get(key.zone, z -> ZoneOffsetIndex.of(z, FROM_YEAR, TO_YEAR))));
+    }
+
+    public BoundedCache.Stats planStats() {
+        return plans.stats();
+    }
+
+    @Override
+    public String toString() {
+        return "DateTimeFormatService[plans: " + planStats() + "]";
+    }
+
+    /* Plan */
+
+    public static final class Plan {
+
+        private static final int YEAR = 0;
+        private static final int MONTH = 1;
+        private static final int DAY = 2;
+        private static final int HOUR = 3;
+        private static final int MINUTE = 4;
+        private static final int SECOND = 5;
+        private static final int FRACTION = 6;
+        private static final int LITERAL = 7;
+
+        private static final int MIN_YEAR = 1;
+        private static final int MAX_YEAR = 9999;
+        private static final int[] POWERS_OF_TEN = {
+                1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000
+        };
+
+        private final String pattern;
+        private final ZoneId zone;
+        private final ZoneOffsetIndex index;
+        private final DateTimeFormatter formatter;
+
+        // Compiled elements, null when the pattern is not compiled. A literal's text is literals[e].
+        private final int[] kinds;
+        private final int[] widths;
+        private final String[] literals;
+        private final int length;
+        // Every field needed for an instant appears once, so texts can be parsed without the formatter.
+        private final boolean parseable;
+
+        Plan(String pattern, ZoneId zone, ZoneOffsetIndex index) {
+            this.pattern = pattern;
+            this.zone = zone;
+            this.index = index;
+            this.formatter = DateTimeRegistry.shared().formatter(pattern, Locale.getDefault(Locale.Category.FORMAT), zone);
+
+            Compiler compiler = new Compiler(pattern);
+            boolean compiled = compiler.compile();
+            this.kinds = compiled ? Arrays.copyOf(compiler.kinds, compiler.count) : null;
+            this.widths = compiled ? Arrays.copyOf(compiler.widths, compiler.count) : null;
+            this.literals = compiled ? Arrays.copyOf(compiler.literals, compiler.count) : null;
+            int total = 0;
+            int[] occurrences = new int[LITERAL];
+            for (int e = 0; compiled && e < kinds.length; e++) {
+                total += widths[e];
+                if (kinds[e] != LITERAL) {
+                    occurrences[kinds[e]]++;
+                }
+            }
+            this.length = compiled ? total : -1;
+            boolean once = true;
+            for (int kind = YEAR; kind <= MINUTE; kind++) {
+                once &= occurrences[kind] == 1;
+            }
+            this.parseable = compiled && once && occurrences[SECOND] <= 1
+                    && occurrences[FRACTION] <= occurrences[SECOND];
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        // The equivalent formatter, used for everything the plan doesn't compile.
+        public DateTimeFormatter getFormatter() {
+            return formatter;
+        }
+
+        public boolean isCompiled() {
+            return kinds != null;
+        }
+
+        // Length of every formatted text, -1 when the pattern is not compiled.
+        public int getLength() {
+            return length;
+        }
+
+        /* Formatting */
+
+        public String format(long epochSecond) {
+            return format(epochSecond, 0);
+        }
+
+        public String format(long epochSecond, int nanoOfSecond) {
+            if (kinds != null) {
+                char[] text = new char[length];
+                if (write(epochSecond, nanoOfSecond, text, 0)) {
+                    return new String(text);
+                }
+            }
+            return formatter.format(Instant.ofEpochSecond(epochSecond, nanoOfSecond));
+        }
+
+        // An Instant, ZonedDateTime, OffsetDateTime ... is formatted at its instant in the plan's zone, like withZone.
+        public String format(TemporalAccessor temporal) {
+            if (kinds == null || !temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+                return formatter.format(temporal);
+            }
+            return format(temporal.getLong(ChronoField.INSTANT_SECONDS), nanoOf(temporal));
+        }
+
+        public void formatTo(TemporalAccessor temporal, StringBuilder sb) {
+            if (kinds == null || !temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+                formatter.formatTo(temporal, sb);
+                return;
+            }
+            long epochSecond = temporal.getLong(ChronoField.INSTANT_SECONDS);
+            int nanoOfSecond = nanoOf(temporal);
+            int start = sb.length();
+            sb.setLength(start + length);
+            if (!write(epochSecond, nanoOfSecond, sb, start)) {
+                sb.setLength(start);
+                formatter.formatTo(Instant.ofEpochSecond(epochSecond, nanoOfSecond), sb);
+            }
+        }
+
+        // Writes the text at dest[offset] and returns the number of chars written.
+        public int formatTo(long epochSecond, int nanoOfSecond, char[] dest, int offset) {
+            if (kinds != null && write(epochSecond, nanoOfSecond, dest, offset)) {
+                return length;
+            }
+            String text = formatter.format(Instant.ofEpochSecond(epochSecond, nanoOfSecond));
+            text.getChars(0, text.length(), dest, offset);
+            return text.length();
+        }
+
+        private static int nanoOf(TemporalAccessor temporal) {
+            return temporal.isSupported(ChronoField.NANO_OF_SECOND) ? temporal.get(ChronoField.NANO_OF_SECOND) : 0;
+        }
+
+        // False, with dest untouched, when the local year is outside MIN_YEAR - MAX_YEAR.
+        private boolean write(long epochSecond, int nanoOfSecond, char[] dest, int offset) {
+            long local = index.toLocalEpochSecond(epochSecond);
+            long epochDay = Math.floorDiv(local, EpochDays.SECONDS_PER_DAY);
+            int year = EpochDays.toYear(epochDay);
+            if (year < MIN_YEAR || year > MAX_YEAR) {
+                return false;
+            }
+            int secondOfDay = (int) (local - epochDay * EpochDays.SECONDS_PER_DAY);
+            int position = offset;
+            for (int e = 0; e < kinds.length; e++) {
+                int width = widths[e];
+                if (kinds[e] == LITERAL) {
+                    literals[e].getChars(0, width, dest, position);
+                } else {
+                    int value = value(kinds[e], width, year, epochDay, secondOfDay, nanoOfSecond);
+                    for (int i = position + width - 1; i >= position; i--) {
+                        dest[i] = (char) ('0' + value % 10);
+                        value /= 10;
+                    }
+                }
+                position += width;
+            }
+            return true;
+        }
+
+        private boolean write(long epochSecond, int nanoOfSecond, StringBuilder dest, int offset) {
+            long local = index.toLocalEpochSecond(epochSecond);
+            long epochDay = Math.floorDiv(local, EpochDays.SECONDS_PER_DAY);
+            int year = EpochDays.toYear(epochDay);
+            if (year < MIN_YEAR || year > MAX_YEAR) {
+                return false;
+            }
+            int secondOfDay = (int) (local - epochDay * EpochDays.SECONDS_PER_DAY);
+            int position = offset;
+            for (int e = 0; e < kinds.length; e++) {
+                int width = widths[e];
+                if (kinds[e] == LITERAL) {
+                    dest.replace(position, position + width, literals[e]);
+                } else {
+                    int value = value(kinds[e], width, year, epochDay, secondOfDay, nanoOfSecond);
+                    for (int i = position + width - 1; i >= position; i--) {
+                        dest.setCharAt(i, (char) ('0' + value % 10));
+                        value /= 10;
+                    }
+                }
+                position += width;
+            }
+            return true;
+        }
+
+        private static int value(int kind, int width, int year, long epochDay, int secondOfDay, int nanoOfSecond) {
+            switch (kind) {
+                case YEAR:
+                    return year;
+                case MONTH:
+                    return EpochDays.toMonth(epochDay);
+                case DAY:
+                    return EpochDays.toDayOfMonth(epochDay);
+                case HOUR:
+                    return secondOfDay / 3600;
+                case MINUTE:
+                    return secondOfDay / 60 % 60;
+                case SECOND:
+                    return secondOfDay % 60;
+                default:
+                    // Truncated like DateTimeFormatter's fraction.
+                    return nanoOfSecond / POWERS_OF_TEN[9 - width];
+            }
+        }
+
+        /* Parsing */
+
+        // Same as ZonedDateTime.parse(text, formatter).toEpochSecond(), including the DateTimeParseException.
+        public long parseEpochSecond(CharSequence text) {
+            long epochSecond = tryParse(text);
+            return epochSecond == FastDateTimeParser.NO_VALUE
+                    ? ZonedDateTime.parse(text, formatter).toEpochSecond() : epochSecond;
+        }
+
+        // Same as ZonedDateTime.parse(text, formatter).toInstant(), so fractions of a second are kept.
+        public Instant parseInstant(CharSequence text) {
+            long epochSecond = tryParse(text);
+            if (epochSecond == FastDateTimeParser.NO_VALUE) {
+                return ZonedDateTime.parse(text, formatter).toInstant();
+            }
+            return Instant.ofEpochSecond(epochSecond, parseFraction(text));
+        }
+
+        // Epoch second of a well-formed, valid text, NO_VALUE for anything the fast path doesn't read.
+        long tryParse(CharSequence text) {
+            if (!parseable || text.length() != length) {
+                return FastDateTimeParser.NO_VALUE;
+            }
+            int year = 0;
+            int month = 0;
+            int day = 0;
+            int hour = 0;
+            int minute = 0;
+            int second = 0;
+            int position = 0;
+            for (int e = 0; e < kinds.length; e++) {
+                int width = widths[e];
+                if (kinds[e] == LITERAL) {
+                    String literal = literals[e];
+                    for (int i = 0; i < width; i++) {
+                        if (text.charAt(position + i) != literal.charAt(i)) {
+                            return FastDateTimeParser.NO_VALUE;
+                        }
+                    }
+                } else {
+                    int value = digits(text, position, width);
+                    if (value < 0) {
+                        return FastDateTimeParser.NO_VALUE;
+                    }
+                    switch (kinds[e]) {
+                        case YEAR: year = value; break;
+                        case MONTH: month = value; break;
+                        case DAY: day = value; break;
+                        case HOUR: hour = value; break;
+                        case MINUTE: minute = value; break;
+                        case SECOND: second = value; break;
+                        default: break;
+                    }
+                }
+                position += width;
+            }
+            if (year < MIN_YEAR || month < 1 || month > 12 || day < 1 || day > EpochDays.lengthOfMonth(year, month)
+                    || hour > 23 || minute > 59 || second > 59) {
+                return FastDateTimeParser.NO_VALUE;
+            }
+            long local = EpochDays.of(year, month, day) * EpochDays.SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+            return index.toEpochSecond(local);
+        }
+
+        // Nano of second of a text tryParse has read.
+        int parseFraction(CharSequence text) {
+            int position = 0;
+            for (int e = 0; e < kinds.length; e++) {
+                if (kinds[e] == FRACTION) {
+                    return digits(text, position, widths[e]) * POWERS_OF_TEN[9 - widths[e]];
+                }
+                position += widths[e];
+            }
+            return 0;
+        }
+
+        private static int digits(CharSequence text, int position, int width) {
+            int value = 0;
+            for (int i = position; i < position + width; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Plan[" + pattern + ", " + zone + (isCompiled() ? ", compiled]" : ", formatter]");
+        }
+    }
+
+    // Splits a pattern into fixed-width fields and literals, with DateTimeFormatter.ofPattern's quoting rules.
+    private static final class Compiler {
+
+        final String pattern;
+        int[] kinds = new int[8];
+        int[] widths = new int[8];
+        String[] literals = new String[8];
+        int count;
+
+        Compiler(String pattern) {
+            this.pattern = pattern;
+        }
+
+        // False when the pattern has anything else than the supported fields and literals.
+        boolean compile() {
+            int i = 0;
+            while (i < pattern.length()) {
+                char c = pattern.charAt(i);
+                if (c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z') {
+                    int start = i;
+                    while (i < pattern.length() && pattern.charAt(i) == c) {
+                        i++;
+                    }
+                    int kind = field(c, i - start);
+                    if (kind < 0) {
+                        return false;
+                    }
+                    add(kind, i - start, null);
+                } else if (c == '\'') {
+                    // '' alone is a quote, and so is '' inside quoted text.
+                    int end = i + 1;
+                    while (end < pattern.length()) {
+                        if (pattern.charAt(end) == '\'') {
+                            if (end + 1 < pattern.length() && pattern.charAt(end + 1) == '\'') {
+                                end++;
+                            } else {
+                                break;
+                            }
+                        }
+                        end++;
+                    }
+                    if (end >= pattern.length()) {
+                        return false;
+                    }
+                    String literal = end == i + 1 ? "'" : pattern.substring(i + 1, end).replace("''", "'");
+                    add(Plan.LITERAL, literal.length(), literal);
+                    i = end + 1;
+                } else if (c == '[' || c == ']' || c == '{' || c == '}' || c == '#') {
+                    return false;
+                } else {
+                    add(Plan.LITERAL, 1, String.valueOf(c));
+                    i++;
+                }
+            }
+            return true;
+        }
+
+        private static int field(char letter, int count) {
+            switch (letter) {
+                case 'y':
+                case 'u':
+                    return count == 4 ? Plan.YEAR : -1;
+                case 'M':
+                    return count == 2 ? Plan.MONTH : -1;
+                case 'd':
+                    return count == 2 ? Plan.DAY : -1;
+                case 'H':
+                    return count == 2 ? Plan.HOUR : -1;
+                case 'm':
+                    return count == 2 ? Plan.MINUTE : -1;
+                case 's':
+                    return count == 2 ? Plan.SECOND : -1;
+                case 'S':
+                    return count <= 9 ? Plan.FRACTION : -1;
+                default:
+                    return -1;
+            }
+        }
+
+        private void add(int kind, int width, String literal) {
+            if (count == kinds.length) {
+                kinds = Arrays.copyOf(kinds, count * 2);
+                widths = Arrays.copyOf(widths, count * 2);
+                literals = Arrays.copyOf(literals, count * 2);
+            }
+            kinds[count] = kind;
+            widths[count] = width;
+            literals[count++] = literal;
+        }
+    }
+
+    private static final class PlanKey {
+
+        final String pattern;
+        final ZoneId zone;
+        final int hash;
+
+        PlanKey(String pattern, ZoneId zone) {
+            this.pattern = pattern;
+            this.zone = zone;
+            this.hash = pattern.hashCode() * 31 + zone.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PlanKey)) return false;
+            PlanKey other = (PlanKey) o;
+            return hash == other.hash && pattern.equals(other.pattern) && zone.equals(other.zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
@@ -0,0 +1,449 @@
+package java_time;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/* DateTimeInterner -> Canonical instances of repeated LocalDate, LocalTime, LocalDateTime and ZonedDateTime values.
+Every LocalDate.parse("2007-12-03") or ZonedDateTime.parse(text, dtf5) in Program returns a new object, so a cache
+filled from a feed where the same dates repeat holds millions of equal LocalDates. The interner keeps one instance
+per value in a bounded table per type, keyed by a long, and returns that instance instead:
+* LocalDate     -> epoch day
+* LocalTime     -> nano of day
+* LocalDateTime -> epoch nanoseconds on the local time-line (PackedLocalDateTime)
+* ZonedDateTime -> epoch nanoseconds (PackedInstant) plus the index of the zone
+
+intern(value) returns the canonical instance equal to the value. The parse methods read the key straight from the
+text (with FastDateTimeParser, a TimestampLayout or a DateTimeFormatService plan) and only create the value when the
+key is not cached, so a hit allocates nothing; they return or throw exactly what the standard parse does.
+
+The tables are 2-way set associative arrays of immutable entries: lookups and insertions never lock, and a full set
+replaces the entry that was not used since the last replacement (CLOCK with two entries). Two threads may insert
+the same value at once, in which case both get an equal, if not identical, instance. Date-times outside the packed
+range (1677 - 2262) and zones past the first 65536 are returned as they are.
+
+Each table counts hits, misses, evictions and the duplicates it replaced, and estimates the heap they would have
+kept (with compressed oops: 24 bytes per LocalDate or LocalTime, 72 per LocalDateTime, 96 per ZonedDateTime).
+
+-> Example:
+DateTimeInterner interner = DateTimeInterner.shared();
+LocalDate ld = interner.parseLocalDate("2007-12-03");                   // same as LocalDate.parse("2007-12-03")
+ZonedDateTime zdt = interner.intern(ZonedDateTime.parse(text, dtf5));
+interner.localDateStats().getBytesSaved(); */
+
+public final class DateTimeInterner {
+
+    public static final int DEFAULT_CAPACITY = 65_536;
+
+    private static final DateTimeInterner SHARED = new DateTimeInterner(DEFAULT_CAPACITY);
+
+    // Retained size of each value, with compressed oops and 8-byte alignment (offsets and zones are shared).
+    private static final int LOCAL_DATE_BYTES = 24;
+    private static final int LOCAL_TIME_BYTES = 24;
+    private static final int LOCAL_DATE_TIME_BYTES = 24 + LOCAL_DATE_BYTES + LOCAL_TIME_BYTES;
+    private static final int ZONED_DATE_TIME_BYTES = 24 + LOCAL_DATE_TIME_BYTES;
+
+    private static final int MAX_ZONES = 1 << 16;
+    // Epoch seconds whose nanoseconds always fit in a long, whatever the nano of second.
+    private static final long MIN_PACKED_SECOND = Long.MIN_VALUE / PackedInstant.NANOS_PER_SECOND + 1;
+    private static final long MAX_PACKED_SECOND = Long.MAX_VALUE / PackedInstant.NANOS_PER_SECOND - 1;
+
+    private static final int ISO_DATE_LENGTH = 10;
+    private static final int ISO_TIME_LENGTH = 8;
+    private static final int ISO_DATE_TIME_LENGTH = ISO_DATE_LENGTH + 1 + ISO_TIME_LENGTH;
+    private static final int ISO_SHORT_TIME_LENGTH = 5;
+
+    private final Table<LocalDate> localDates;
+    private final Table<LocalTime> localTimes;
+    private final Table<LocalDateTime> localDateTimes;
+    private final Table<ZonedDateTime> zonedDateTimes;
+    private final ConcurrentHashMap<ZoneId, Integer> zones = new ConcurrentHashMap<>();
+    private final AtomicInteger nextZone = new AtomicInteger();
+
+    // capacity -> maximum number of values of each type, rounded up to a power of two.
+    public DateTimeInterner(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.localDates = new Table<>(capacity, LOCAL_DATE_BYTES);
+        this.localTimes = new Table<>(capacity, LOCAL_TIME_BYTES);
+        this.localDateTimes = new Table<>(capacity, LOCAL_DATE_TIME_BYTES);
+        this.zonedDateTimes = new Table<>(capacity, ZONED_DATE_TIME_BYTES);
+    }
+
+    public static DateTimeInterner shared() {
+        return SHARED;
+    }
+
+    /* Interning */
+
+    public LocalDate intern(LocalDate date) {
+        return localDates.intern(date.toEpochDay(), 0, date);
+    }
+
+    public LocalTime intern(LocalTime time) {
+        return localTimes.intern(time.toNanoOfDay(), 0, time);
+    }
+
+    public LocalDateTime intern(LocalDateTime dateTime) {
+        long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        if (epochSecond < MIN_PACKED_SECOND || epochSecond > MAX_PACKED_SECOND) {
+            return dateTime;
+        }
+        return localDateTimes.intern(epochSecond * PackedInstant.NANOS_PER_SECOND + dateTime.getNano(), 0, dateTime);
+    }
+
+    public ZonedDateTime intern(ZonedDateTime dateTime) {
+        long epochSecond = dateTime.toEpochSecond();
+        int zone = zoneIndex(dateTime.getZone());
+        if (epochSecond < MIN_PACKED_SECOND || epochSecond > MAX_PACKED_SECOND || zone < 0) {
+            return dateTime;
+        }
+        return zonedDateTimes.intern(epochSecond * PackedInstant.NANOS_PER_SECOND + dateTime.getNano(), zone, dateTime);
+    }
+
+    /* Parsing */
+
+    // Same as LocalDate.parse(text), i.e. "yyyy-MM-dd".
+    public LocalDate parseLocalDate(CharSequence text) {
+        long epochDay = tryParseIsoDate(text);
+        if (epochDay == FastDateTimeParser.NO_VALUE) {
+            return intern(LocalDate.parse(text));
+        }
+        return localDate(epochDay);
+    }
+
+    // The date the layout reads, e.g. LocalDate.parse(text, dtf2) for DD_MM_YYYY.
+    public LocalDate parseLocalDate(CharSequence text, TimestampLayout layout) {
+        return localDate(Math.floorDiv(layout.parse(text), EpochDays.SECONDS_PER_DAY));
+    }
+
+    // Same as LocalTime.parse(text), fast for "HH:mm" and "HH:mm:ss".
+    public LocalTime parseLocalTime(CharSequence text) {
+        long nanoOfDay = tryParseIsoTime(text);
+        if (nanoOfDay == FastDateTimeParser.NO_VALUE) {
+            return intern(LocalTime.parse(text));
+        }
+        LocalTime cached = localTimes.get(nanoOfDay, 0, null);
+        return cached != null ? cached : localTimes.put(nanoOfDay, 0, LocalTime.ofNanoOfDay(nanoOfDay));
+    }
+
+    // The local date-time the layout reads, e.g. LocalDateTime.parse(text, dtf4) for DD_MM_YYYY_HH_MM_SS. For ISO only
+    // a plain "yyyy-MM-ddTHH:mm:ss" takes the fast path: fractions and offsets go to LocalDateTime.parse(text), which
+    // keeps the fraction and rejects the offset.
+    public LocalDateTime parseLocalDateTime(CharSequence text, TimestampLayout layout) {
+        long epochSecond;
+        if (layout == TimestampLayout.ISO) {
+            epochSecond = text.length() == ISO_DATE_TIME_LENGTH
+                    ? FastDateTimeParser.tryParseIso(text) : FastDateTimeParser.NO_VALUE;
+            if (epochSecond == FastDateTimeParser.NO_VALUE) {
+                return intern(LocalDateTime.parse(text));
+            }
+        } else {
+            epochSecond = layout.parse(text);
+        }
+        if (epochSecond < MIN_PACKED_SECOND || epochSecond > MAX_PACKED_SECOND) {
+            return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        }
+        long key = epochSecond * PackedInstant.NANOS_PER_SECOND;
+        LocalDateTime cached = localDateTimes.get(key, 0, null);
+        return cached != null ? cached
+                : localDateTimes.put(key, 0, LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC));
+    }
+
+    // Same as ZonedDateTime.parse(text, plan.getFormatter()).
+    public ZonedDateTime parseZonedDateTime(CharSequence text, DateTimeFormatService.Plan plan) {
+        long epochSecond = plan.tryParse(text);
+        int zone = zoneIndex(plan.getZone());
+        if (epochSecond == FastDateTimeParser.NO_VALUE || epochSecond < MIN_PACKED_SECOND
+                || epochSecond > MAX_PACKED_SECOND || zone < 0) {
+            return intern(ZonedDateTime.parse(text, plan.getFormatter()));
+        }
+        int nano = plan.parseFraction(text);
+        long key = epochSecond * PackedInstant.NANOS_PER_SECOND + nano;
+        ZonedDateTime cached = zonedDateTimes.get(key, zone, null);
+        return cached != null ? cached
+                : zonedDateTimes.put(key, zone, ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano), plan.getZone()));
+    }
+
+    private LocalDate localDate(long epochDay) {
+        LocalDate cached = localDates.get(epochDay, 0, null);
+        return cached != null ? cached : localDates.put(epochDay, 0, LocalDate.ofEpochDay(epochDay));
+    }
+
+    // Epoch day of a valid "yyyy-MM-dd" with a year from 1 to 9999, NO_VALUE for anything else.
+    private static long tryParseIsoDate(CharSequence text) {
+        if (text.length() != ISO_DATE_LENGTH || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return FastDateTimeParser.NO_VALUE;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > EpochDays.lengthOfMonth(year, month)) {
+            return FastDateTimeParser.NO_VALUE;
+        }
+        return EpochDays.of(year, month, day);
+    }
+
+    // Nano of day of a valid "HH:mm" or "HH:mm:ss", NO_VALUE for anything else.
+    private static long tryParseIsoTime(CharSequence text) {
+        int length = text.length();
+        if (length != ISO_TIME_LENGTH && length != ISO_SHORT_TIME_LENGTH || text.charAt(2) != ':') {
+            return FastDateTimeParser.NO_VALUE;
+        }
+        int hour = digits(text, 0, 2);
+        int minute = digits(text, 3, 2);
+        int second = 0;
+        if (length == ISO_TIME_LENGTH) {
+            second = text.charAt(5) == ':' ? digits(text, 6, 2) : -1;
+        }
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return FastDateTimeParser.NO_VALUE;
+        }
+        return (hour * 3600L + minute * 60 + second) * PackedInstant.NANOS_PER_SECOND;
+    }
+
+    // Value of width digits, -1 if one of them is not a digit.
+    private static int digits(CharSequence text, int position, int width) {
+        int value = 0;
+        for (int i = position; i < position + width; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // Small number identifying the zone in ZonedDateTime keys, -1 once MAX_ZONES zones are numbered.
+    private int zoneIndex(ZoneId zone) {
+        Integer index = zones.get(zone);
+        if (index == null) {
+            if (zones.size() >= MAX_ZONES) {
+                return -1;
+            }
+            index = zones.computeIfAbsent(zone, z -> nextZone.getAndIncrement());
+        }
+        return index < MAX_ZONES ? index : -1;
+    }
+
+    /* Metrics */
+
+    public Stats localDateStats() {
+        return localDates.stats();
+    }
+
+    public Stats localTimeStats() {
+        return localTimes.stats();
+    }
+
+    public Stats localDateTimeStats() {
+        return localDateTimes.stats();
+    }
+
+    public Stats zonedDateTimeStats() {
+        return zonedDateTimes.stats();
+    }
+
+    // Estimated heap of all the duplicates returned as a canonical instance instead.
+    public long getBytesSaved() {
+        return localDates.stats().getBytesSaved() + localTimes.stats().getBytesSaved()
+                + localDateTimes.stats().getBytesSaved() + zonedDateTimes.stats().getBytesSaved();
+    }
+
+    // Drops every canonical instance; the counters are kept.
+    public void clear() {
+        localDates.clear();
+        localTimes.clear();
+        localDateTimes.clear();
+        zonedDateTimes.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "DateTimeInterner[localDates: " + localDateStats() + "; localTimes: " + localTimeStats()
+                + "; localDateTimes: " + localDateTimeStats() + "; zonedDateTimes: " + zonedDateTimeStats() + "]";
+    }
+
+    /* Stats */
+
+    public static final class Stats {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long duplicates;
+        private final int size;
+        private final int capacity;
+        private final int bytesPerValue;
+
+        Stats(long hits, long misses, long evictions, long duplicates, int size, int capacity, int bytesPerValue) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.duplicates = duplicates;
+            this.size = size;
+            this.capacity = capacity;
+            this.bytesPerValue = bytesPerValue;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        // Hits that returned another instance than the one passed in (every hit of the parse methods).
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        public long getBytesSaved() {
+            return duplicates * bytesPerValue;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public double getHitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 1.0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, evictions=%d, size=%d/%d, hitRatio=%.4f, bytesSaved=%d",
+                    hits, misses, evictions, size, capacity, getHitRatio(), getBytesSaved());
+        }
+    }
+
+    /* Table */
+
+    private static final class Table<V> {
+
+        private final Node<V>[] slots;
+        private final int mask;
+        private final int bytesPerValue;
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder duplicates = new LongAdder();
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Table(int capacity, int bytesPerValue) {
+            int size = Math.max(2, Integer.highestOneBit(Math.min(capacity, 1 << 30) - 1) << 1);
+            this.slots = (Node<V>[]) new Node[size];
+            this.mask = size - 1;
+            this.bytesPerValue = bytesPerValue;
+        }
+
+        // The canonical instance equal to value, which becomes the canonical one on a miss.
+        V intern(long key, int tag, V value) {
+            V cached = get(key, tag, value);
+            return cached != null ? cached : put(key, tag, value);
+        }
+
+        // Cached value, or null. A hit is a duplicate unless it returns the argument itself (null when parsing).
+        V get(long key, int tag, V argument) {
+            int set = set(key, tag);
+            Node<V> node = slots[set];
+            if (node == null || node.key != key || node.tag != tag) {
+                node = slots[set + 1];
+                if (node == null || node.key != key || node.tag != tag) {
+                    return null;
+                }
+            }
+            if (!node.referenced) {
+                node.referenced = true;
+            }
+            hits.increment();
+            if (node.value != argument) {
+                duplicates.increment();
+            }
+            return node.value;
+        }
+
+        // Caches the value of a key get missed, replacing the entry of its set that was not used since the last
+        // replacement, and returns it.
+        V put(long key, int tag, V value) {
+            misses.increment();
+            int set = set(key, tag);
+            Node<V> first = slots[set];
+            Node<V> second = slots[set + 1];
+            int slot;
+            if (first == null || second == null) {
+                slot = first == null ? set : set + 1;
+            } else {
+                evictions.increment();
+                if (!first.referenced) {
+                    slot = set;
+                } else if (!second.referenced) {
+                    slot = set + 1;
+                } else {
+                    // Both were used: the second gets a second chance.
+                    second.referenced = false;
+                    slot = set;
+                }
+            }
+            slots[slot] = new Node<>(key, tag, value);
+            return value;
+        }
+
+        private int set(long key, int tag) {
+            long hash = (key ^ (tag * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+            return (int) (hash ^ (hash >>> 32)) & mask & ~1;
+        }
+
+        void clear() {
+            Arrays.fill(slots, null);
+        }
+
+        Stats stats() {
+            int size = 0;
+            for (Node<V> node : slots) {
+                if (node != null) {
+                    size++;
+                }
+            }
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), duplicates.sum(), size, slots.length,
+                    bytesPerValue);
+        }
+    }
+
+    // Immutable apart from the referenced flag, a hint whose races only affect which entry is replaced.
+    private static final class Node<V> {
+
+        final long key;
+        final int tag;
+        final V value;
+        boolean referenced;
+
+        Node(long key, int tag, V value) {
+            this.key = key;
+            this.tag = tag;
+            this.value = value;
+        }
+    }
+
+}
@@ -0,0 +1,394 @@
+package java_time;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/* DateTimeMetrics -> Opt-in counters and latency histograms for parsing, formatting, zone conversion and Calendar
+recomputation, per pattern or zone.
+Program shows the operations, but not what they cost in a running service. The Instrumented* wrappers
+(InstrumentedFormatter, InstrumentedZone, java_util.InstrumentedCalendar) record every call into a Recorder, one per
+(operation, pattern or zone id):
+* calls and failures (DateTimeParseException / DateTimeException)
+* a LatencyHistogram of the call times (lock-free, about 3% precision)
+* allocated bytes, read from the thread's allocation counter around the call, when allocation tracking is on
+
+Everything is off until enable() is called; a disabled wrapper costs one volatile read per call. The numbers are
+pulled with snapshot(), or through JMX after registerMBeans(): one MBean for the switches and one per recorder
+(java_time:type=DateTimeMetrics,operation=PARSE,key="dd/MM/yyyy" ...). To keep the number of recorders bounded when
+patterns or zones come from input, each operation keeps at most MAX_KEYS keys and records the rest under OTHER. */
+
+public final class DateTimeMetrics {
+
+    public enum Operation { PARSE, FORMAT, ZONE_CONVERSION, CALENDAR_COMPUTE }
+
+    public static final int MAX_KEYS = 1_024;
+    public static final String OTHER = "(other)";
+
+    // Returned by allocatedBytes() when allocation tracking is off or not supported.
+    public static final long NOT_TRACKED = -1;
+
+    private static final String DOMAIN = "java_time";
+
+    private static volatile boolean enabled;
+    private static volatile boolean allocationTracking;
+    private static volatile MBeanServer server;
+
+    private static final ConcurrentMap<Operation, ConcurrentMap<String, Recorder>> RECORDERS = new ConcurrentHashMap<>();
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private DateTimeMetrics() {
+    }
+
+    /* Switches */
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isAllocationTracking() {
+        return allocationTracking;
+    }
+
+    // Reads the thread's allocated bytes twice per call (about 2 x 20 ns), so it is a separate switch.
+    public static void setAllocationTracking(boolean tracking) {
+        if (tracking) {
+            if (THREADS == null) {
+                throw new UnsupportedOperationException("Thread allocation counters are not supported by this JVM");
+            }
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+        allocationTracking = tracking;
+    }
+
+    /* Recording */
+
+    // Recorder of the operation for a pattern or zone id. Wrappers look it up once and keep it.
+    public static Recorder recorder(Operation operation, String key) {
+        ConcurrentMap<String, Recorder> recorders = RECORDERS.computeIfAbsent(operation, o -> new ConcurrentHashMap<>());
+        Recorder recorder = recorders.get(key);
+        if (recorder == null) {
+            String bounded = recorders.size() < MAX_KEYS ? key : OTHER;
+            recorder = recorders.computeIfAbsent(bounded, k -> register(new Recorder(operation, k)));
+        }
+        return recorder;
+    }
+
+    // Bytes allocated by the current thread so far, or NOT_TRACKED.
+    public static long allocatedBytes() {
+        if (!allocationTracking) {
+            return NOT_TRACKED;
+        }
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // Only checks for support: the JVM counters are switched on by setAllocationTracking(true), not while loading.
+    private static com.sun.management.ThreadMXBean threads() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported()) {
+                return sunThreads;
+            }
+        }
+        return null;
+    }
+
+    /* Snapshot */
+
+    // Every recorder with at least one call, by operation and then key.
+    public static List<RecorderSnapshot> snapshot() {
+        List<RecorderSnapshot> snapshots = new ArrayList<>();
+        for (ConcurrentMap<String, Recorder> recorders : RECORDERS.values()) {
+            for (Recorder recorder : recorders.values()) {
+                RecorderSnapshot snapshot = recorder.snapshot();
+                if (snapshot.getCalls() > 0) {
+                    snapshots.add(snapshot);
+                }
+            }
+        }
+        snapshots.sort(Comparator.comparing(RecorderSnapshot::getOperation).thenComparing(RecorderSnapshot::getKey));
+        return snapshots;
+    }
+
+    public static void reset() {
+        for (ConcurrentMap<String, Recorder> recorders : RECORDERS.values()) {
+            for (Recorder recorder : recorders.values()) {
+                recorder.reset();
+            }
+        }
+    }
+
+    /* JMX */
+
+    // Registers the MBeans on the platform MBean server, and every recorder created from now on.
+    public static synchronized void registerMBeans() {
+        if (server != null) {
+            return;
+        }
+        MBeanServer platform = ManagementFactory.getPlatformMBeanServer();
+        try {
+            platform.registerMBean(new StandardMBean(new Control(), ControlMXBean.class, true),
+                    new ObjectName(DOMAIN + ":type=DateTimeMetrics"));
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register the DateTimeMetrics MBean", e);
+        }
+        server = platform;
+        for (ConcurrentMap<String, Recorder> recorders : RECORDERS.values()) {
+            recorders.values().forEach(DateTimeMetrics::register);
+        }
+    }
+
+    private static Recorder register(Recorder recorder) {
+        MBeanServer target = server;
+        if (target == null) {
+            return recorder;
+        }
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":type=DateTimeMetrics,operation=" + recorder.operation
+                    + ",key=" + ObjectName.quote(recorder.key));
+            if (!target.isRegistered(name)) {
+                target.registerMBean(new StandardMBean(recorder, RecorderMXBean.class, true), name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register the MBean of " + recorder, e);
+        }
+        return recorder;
+    }
+
+    public interface ControlMXBean {
+
+        boolean isEnabled();
+
+        void setEnabled(boolean enabled);
+
+        boolean isAllocationTracking();
+
+        void setAllocationTracking(boolean tracking);
+
+        void reset();
+    }
+
+    public interface RecorderMXBean {
+
+        String getOperation();
+
+        String getKey();
+
+        long getCalls();
+
+        long getFailures();
+
+        long getAllocatedBytes();
+
+        double getMeanNanos();
+
+        long getP50Nanos();
+
+        long getP99Nanos();
+
+        long getP999Nanos();
+
+        long getMaxNanos();
+    }
+
+    private static final class Control implements ControlMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return DateTimeMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            DateTimeMetrics.enabled = enabled;
+        }
+
+        @Override
+        public boolean isAllocationTracking() {
+            return DateTimeMetrics.isAllocationTracking();
+        }
+
+        @Override
+        public void setAllocationTracking(boolean tracking) {
+            DateTimeMetrics.setAllocationTracking(tracking);
+        }
+
+        @Override
+        public void reset() {
+            DateTimeMetrics.reset();
+        }
+    }
+
+    /* Recorder */
+
+    public static final class Recorder implements RecorderMXBean {
+
+        private final Operation operation;
+        private final String key;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder allocated = new LongAdder();
+        private final LatencyHistogram latencies = new LatencyHistogram();
+
+        Recorder(Operation operation, String key) {
+            this.operation = operation;
+            this.key = key;
+        }
+
+        // startNanos from System.nanoTime() and allocatedBefore from allocatedBytes(), both taken before the call.
+        public void record(long startNanos, long allocatedBefore, boolean failed) {
+            long elapsed = System.nanoTime() - startNanos;
+            if (allocatedBefore != NOT_TRACKED) {
+                long after = allocatedBytes();
+                if (after != NOT_TRACKED) {
+                    allocated.add(after - allocatedBefore);
+                }
+            }
+            calls.increment();
+            if (failed) {
+                failures.increment();
+            }
+            latencies.record(elapsed);
+        }
+
+        void reset() {
+            calls.reset();
+            failures.reset();
+            allocated.reset();
+            latencies.reset();
+        }
+
+        public RecorderSnapshot snapshot() {
+            return new RecorderSnapshot(operation, key, calls.sum(), failures.sum(), allocated.sum(), latencies.snapshot());
+        }
+
+        @Override
+        public String getOperation() {
+            return operation.name();
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        @Override
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        @Override
+        public long getAllocatedBytes() {
+            return allocated.sum();
+        }
+
+        @Override
+        public double getMeanNanos() {
+            return latencies.snapshot().getMean();
+        }
+
+        @Override
+        public long getP50Nanos() {
+            return latencies.snapshot().getPercentile(50);
+        }
+
+        @Override
+        public long getP99Nanos() {
+            return latencies.snapshot().getPercentile(99);
+        }
+
+        @Override
+        public long getP999Nanos() {
+            return latencies.snapshot().getPercentile(99.9);
+        }
+
+        @Override
+        public long getMaxNanos() {
+            return latencies.snapshot().getMax();
+        }
+
+        @Override
+        public String toString() {
+            return "Recorder[" + operation + " " + key + "]";
+        }
+    }
+
+    public static final class RecorderSnapshot {
+
+        private final Operation operation;
+        private final String key;
+        private final long calls;
+        private final long failures;
+        private final long allocatedBytes;
+        private final LatencyHistogram.Snapshot latencies;
+
+        RecorderSnapshot(Operation operation, String key, long calls, long failures, long allocatedBytes,
+                         LatencyHistogram.Snapshot latencies) {
+            this.operation = operation;
+            this.key = key;
+            this.calls = calls;
+            this.failures = failures;
+            this.allocatedBytes = allocatedBytes;
+            this.latencies = latencies;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        // Total over all calls, 0 when allocation tracking was off.
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public double getAllocatedBytesPerCall() {
+            return calls == 0 ? 0 : (double) allocatedBytes / calls;
+        }
+
+        public LatencyHistogram.Snapshot getLatencies() {
+            return latencies;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: calls=%d, failures=%d, bytes/call=%.1f, %s",
+                    operation, key, calls, failures, getAllocatedBytesPerCall(), latencies);
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+package java_time;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
+import java.util.Locale;
+import java.util.Objects;
+
+/* DateTimeRegistry -> Central, bounded cache of DateTimeFormatter.ofPattern(...) and ZoneId.of(...) results.
+Program builds its formatters and zones inline (DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(zone3),
+ZonedDateTime.now(ZoneId.of("UTC")) ...). That is fine once, but when the pattern, locale and zone come from
+per-tenant configuration on every request, each call compiles the pattern again and looks up the zone rules again.
+
+The registry keeps both in BoundedCaches:
+* formatters -> keyed by (pattern, locale, zone id), the zone is optional
+* zones      -> keyed by zone id, holding the ZoneId and its ZoneRules
+
+Both caches are bounded (CLOCK eviction), so an unbounded number of distinct tenant formats can't grow the heap
+forever, and both expose hit/miss/eviction counters through formatterStats() and zoneStats(). DateTimeFormatter,
+ZoneId and ZoneRules are immutable, so the cached instances can be shared by every thread. */
+
+public final class DateTimeRegistry {
+
+    public static final int DEFAULT_FORMATTERS = 16_384;
+    public static final int DEFAULT_ZONES = 1_024;
+
+    private static final DateTimeRegistry SHARED = new DateTimeRegistry(DEFAULT_FORMATTERS, DEFAULT_ZONES);
+
+    private final BoundedCache<FormatterKey, DateTimeFormatter> formatters;
+    private final BoundedCache<String, Zone> zones;
+
+    public DateTimeRegistry(int maximumFormatters, int maximumZones) {
+        this.formatters = new BoundedCache<>(maximumFormatters);
+        this.zones = new BoundedCache<>(maximumZones);
+    }
+
+    public static DateTimeRegistry shared() {
+        return SHARED;
+    }
+
+    /* Formatters */
+
+    // Same as DateTimeFormatter.ofPattern(pattern), which uses the default FORMAT locale.
+    public DateTimeFormatter formatter(String pattern) {
+        return formatter(pattern, Locale.getDefault(Locale.Category.FORMAT), (String) null);
+    }
+
+    public DateTimeFormatter formatter(String pattern, Locale locale) {
+        return formatter(pattern, locale, (String) null);
+    }
+
+    // Same as DateTimeFormatter.ofPattern(pattern, locale).withZone(ZoneId.of(zoneId)), zoneId may be null.
+    public DateTimeFormatter formatter(String pattern, Locale locale, String zoneId) {
+        Objects.requireNonNull(pattern, "pattern");
+        Objects.requireNonNull(locale, "locale");
+        return formatters.get(new FormatterKey(pattern, locale, zoneId), key -> {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(key.pattern, key.locale);
+            return key.zoneId == null ? formatter : formatter.withZone(zone(key.zoneId));
+        });
+    }
+
+    public DateTimeFormatter formatter(String pattern, Locale locale, ZoneId zone) {
+        return formatter(pattern, locale, zone == null ? null : zone.getId());
+    }
+
+    /* Zones */
+
+    // Same as ZoneId.of(zoneId), including the DateTimeException for unknown ids (which are not cached).
+    public ZoneId zone(String zoneId) {
+        return zones.get(Objects.requireNonNull(zoneId, "zoneId"), Zone::new).id;
+    }
+
+    public ZoneRules rules(String zoneId) {
+        return zones.get(Objects.requireNonNull(zoneId, "zoneId"), Zone::new).rules;
+    }
+
+    /* Metrics */
+
+    public BoundedCache.Stats formatterStats() {
+        return formatters.stats();
+    }
+
+    public BoundedCache.Stats zoneStats() {
+        return zones.stats();
+    }
+
+    @Override
+    public String toString() {
+        return "DateTimeRegistry[formatters: " + formatterStats() + "; zones: " + zoneStats() + "]";
+    }
+
+    private static final class Zone {
+
+        final ZoneId id;
+        final ZoneRules rules;
+
+        Zone(String zoneId) {
+            this.id = ZoneId.of(zoneId);
+            this.rules = id.getRules();
+        }
+    }
+
+    private static final class FormatterKey {
+
+        final String pattern;
+        final Locale locale;
+        final String zoneId;
+        final int hash;
+
+        FormatterKey(String pattern, Locale locale, String zoneId) {
+            this.pattern = pattern;
+            this.locale = locale;
+            this.zoneId = zoneId;
+            this.hash = (pattern.hashCode() * 31 + locale.hashCode()) * 31 + Objects.hashCode(zoneId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FormatterKey)) return false;
+            FormatterKey other = (FormatterKey) o;
+            return hash == other.hash && pattern.equals(other.pattern) && locale.equals(other.locale)
+                    && Objects.equals(zoneId, other.zoneId);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package java_time;
+
+/* EpochDays -> Primitive conversions between ISO year-month-day fields and the epoch-day count.
+The epoch-day is the same value returned by LocalDate.toEpochDay(): the number of days since 1970-01-01 in the
+proleptic Gregorian calendar. These helpers work only with int/long values, so they can be used on hot paths where
+creating a LocalDate for every value is too expensive.
+
+The conversions are the days_from_civil / civil_from_days algorithms by Howard Hinnant, which work on 400-year eras
+(146097 days) and need no tables or loops.
+
+-> Links:
+http://howardhinnant.github.io/date_algorithms.html */
+
+public final class EpochDays {
+
+    public static final long SECONDS_PER_DAY = 86_400L;
+
+    private EpochDays() {
+    }
+
+    // Year-month-day (month 1 - 12) to epoch-day. The fields are not validated.
+    public static long of(int year, int month, int day) {
+        long y = month <= 2 ? year - 1L : year;
+        long era = Math.floorDiv(y, 400L);
+        long yearOfEra = y - era * 400L;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2L) / 5L + day - 1L;
+        long dayOfEra = yearOfEra * 365L + yearOfEra / 4L - yearOfEra / 100L + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+    public static int toYear(long epochDay) {
+        long z = epochDay + 719_468L;
+        long era = Math.floorDiv(z, 146_097L);
+        long dayOfEra = z - era * 146_097L;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460L + dayOfEra / 36_524L - dayOfEra / 146_096L) / 365L;
+        long dayOfYear = dayOfEra - (365L * yearOfEra + yearOfEra / 4L - yearOfEra / 100L);
+        long mp = (5L * dayOfYear + 2L) / 153L;
+        return (int) (yearOfEra + era * 400L + (mp >= 10 ? 1 : 0));
+    }
+
+    // Month 1 - 12.
+    public static int toMonth(long epochDay) {
+        long mp = (5L * dayOfMarchYear(epochDay) + 2L) / 153L;
+        return (int) (mp < 10 ? mp + 3 : mp - 9);
+    }
+
+    public static int toDayOfMonth(long epochDay) {
+        long dayOfYear = dayOfMarchYear(epochDay);
+        long mp = (5L * dayOfYear + 2L) / 153L;
+        return (int) (dayOfYear - (153L * mp + 2L) / 5L + 1L);
+    }
+
+    // ISO day-of-week, 1 (Monday) - 7 (Sunday), same as DayOfWeek.getValue(). 1970-01-01 was a Thursday.
+    public static int toDayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3L, 7L) + 1;
+    }
+
+    // Day of a year that starts on March 1st (0 - 365), the intermediate value of civil_from_days.
+    private static long dayOfMarchYear(long epochDay) {
+        long z = epochDay + 719_468L;
+        long dayOfEra = z - Math.floorDiv(z, 146_097L) * 146_097L;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460L + dayOfEra / 36_524L - dayOfEra / 146_096L) / 365L;
+        return dayOfEra - (365L * yearOfEra + yearOfEra / 4L - yearOfEra / 100L);
+    }
+
+    public static boolean isLeapYear(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    public static int lengthOfMonth(long year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+}
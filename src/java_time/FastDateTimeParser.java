@@ -0,0 +1,258 @@
+package java_time;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/* FastDateTimeParser -> Allocation-free parsers for the fixed layouts used in Program.
+* "dd/MM/yyyy"             -> the dtf2 layout, e.g. "03/12/2007"
+* "dd/MM/yyyy HH:mm:ss"    -> the dtf4/dtf5 layout, e.g. "03/12/2007 04:15:30"
+* "yyyy-MM-ddTHH:mm:ss[Z]" -> the ISO layout read by LocalDateTime.parse and Instant.parse, e.g. "2007-12-03T04:15:30Z"
+
+DateTimeFormatter is a general pattern interpreter: every parse creates a parse context, a field map and the resolved
+temporal objects. These parsers read the digits straight from a CharSequence or a byte[] (ASCII) and return the epoch
+second as a primitive long, without allocating.
+
+Only well-formed, in-range values are handled by the fast path. Anything else (wrong length, non-digits, day 31 in
+a 30-day month, hour 24, fractional seconds, offsets other than Z, ...) is handed to the standard formatter, so the
+result or the DateTimeParseException is exactly the one LocalDate.parse / LocalDateTime.parse / Instant.parse would
+give. The tryParse methods only run the fast path and return NO_VALUE instead, without throwing. */
+
+public final class FastDateTimeParser {
+
+    // Same formatters as dtf2 and dtf4 in Program.
+    private static final DateTimeFormatter DD_MM_YYYY = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DD_MM_YYYY_HH_MM_SS = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    private static final int DATE_LENGTH = 10;
+    private static final int LOCAL_LENGTH = 19;
+    private static final int ISO_LENGTH = 19;
+    private static final int ISO_INSTANT_LENGTH = 20;
+
+    // Returned by the tryParse methods when the text is not handled by the fast path. Not reachable by a 4-digit year.
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final long INVALID = NO_VALUE;
+
+    private FastDateTimeParser() {
+    }
+
+    /* "dd/MM/yyyy" */
+
+    // Epoch-day of the date, same as LocalDate.parse(text, dtf2).toEpochDay().
+    public static long parseLocalDate(CharSequence text) {
+        long epochDay = tryParseLocalDate(text);
+        return epochDay == INVALID ? LocalDate.parse(text, DD_MM_YYYY).toEpochDay() : epochDay;
+    }
+
+    public static long parseLocalDate(byte[] bytes, int offset, int length) {
+        long epochDay = tryParseLocalDate(bytes, offset, length);
+        return epochDay == INVALID ? LocalDate.parse(ascii(bytes, offset, length), DD_MM_YYYY).toEpochDay() : epochDay;
+    }
+
+    public static long tryParseLocalDate(CharSequence text) {
+        return text.length() == DATE_LENGTH ? date(text, 0) : INVALID;
+    }
+
+    public static long tryParseLocalDate(byte[] bytes, int offset, int length) {
+        return length == DATE_LENGTH ? date(bytes, offset) : INVALID;
+    }
+
+    /* "dd/MM/yyyy HH:mm:ss" */
+
+    // Epoch second of the local date-time read as UTC, same as ZonedDateTime.parse(text, dtf5).toEpochSecond().
+    public static long parseLocal(CharSequence text) {
+        return parseLocal(text, ZoneOffset.UTC);
+    }
+
+    public static long parseLocal(CharSequence text, ZoneOffset offset) {
+        long epochSecond = tryParseLocal(text);
+        if (epochSecond == INVALID) {
+            return LocalDateTime.parse(text, DD_MM_YYYY_HH_MM_SS).toEpochSecond(offset);
+        }
+        return epochSecond - offset.getTotalSeconds();
+    }
+
+    // Reads length ASCII bytes starting at offset, e.g. a field of a CSV line.
+    public static long parseLocal(byte[] bytes, int offset, int length) {
+        return parseLocal(bytes, offset, length, ZoneOffset.UTC);
+    }
+
+    public static long parseLocal(byte[] bytes, int offset, int length, ZoneOffset zoneOffset) {
+        long epochSecond = tryParseLocal(bytes, offset, length);
+        if (epochSecond == INVALID) {
+            return LocalDateTime.parse(ascii(bytes, offset, length), DD_MM_YYYY_HH_MM_SS).toEpochSecond(zoneOffset);
+        }
+        return epochSecond - zoneOffset.getTotalSeconds();
+    }
+
+    public static long tryParseLocal(CharSequence text) {
+        return text.length() == LOCAL_LENGTH ? local(text, 0) : INVALID;
+    }
+
+    public static long tryParseLocal(byte[] bytes, int offset, int length) {
+        return length == LOCAL_LENGTH ? local(bytes, offset) : INVALID;
+    }
+
+    /* "yyyy-MM-ddTHH:mm:ss" (LocalDateTime.parse, read as UTC) or "yyyy-MM-ddTHH:mm:ssZ" (Instant.parse) */
+
+    public static long parseIso(CharSequence text) {
+        long epochSecond = tryParseIso(text);
+        return epochSecond == INVALID ? isoFallback(text) : epochSecond;
+    }
+
+    public static long parseIso(byte[] bytes, int offset, int length) {
+        long epochSecond = tryParseIso(bytes, offset, length);
+        return epochSecond == INVALID ? isoFallback(ascii(bytes, offset, length)) : epochSecond;
+    }
+
+    public static long tryParseIso(CharSequence text) {
+        int length = text.length();
+        if (length == ISO_LENGTH || length == ISO_INSTANT_LENGTH && text.charAt(ISO_LENGTH) == 'Z') {
+            return iso(text, 0);
+        }
+        return INVALID;
+    }
+
+    public static long tryParseIso(byte[] bytes, int offset, int length) {
+        if (length == ISO_LENGTH || length == ISO_INSTANT_LENGTH && bytes[offset + ISO_LENGTH] == 'Z') {
+            return iso(bytes, offset);
+        }
+        return INVALID;
+    }
+
+    // Text with an offset (Z, +hh:mm, -hh:mm) is an Instant, anything else a LocalDateTime read as UTC.
+    private static long isoFallback(CharSequence text) {
+        if (hasOffset(text)) {
+            return Instant.parse(text).getEpochSecond();
+        }
+        return LocalDateTime.parse(text).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static boolean hasOffset(CharSequence text) {
+        for (int i = text.length() - 1; i > 10; i--) {
+            char c = text.charAt(i);
+            if (c == 'Z' || c == 'z' || c == '+' || c == '-') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Fixed-width readers. Every digit is checked, and any problem returns INVALID. */
+
+    private static long date(CharSequence s, int i) {
+        if (s.charAt(i + 2) != '/' || s.charAt(i + 5) != '/') {
+            return INVALID;
+        }
+        return epochDay(
+                digits4(s.charAt(i + 6), s.charAt(i + 7), s.charAt(i + 8), s.charAt(i + 9)),
+                digits2(s.charAt(i + 3), s.charAt(i + 4)),
+                digits2(s.charAt(i), s.charAt(i + 1)));
+    }
+
+    private static long date(byte[] b, int i) {
+        if (b[i + 2] != '/' || b[i + 5] != '/') {
+            return INVALID;
+        }
+        return epochDay(digits4(b[i + 6], b[i + 7], b[i + 8], b[i + 9]), digits2(b[i + 3], b[i + 4]), digits2(b[i], b[i + 1]));
+    }
+
+    private static long local(CharSequence s, int i) {
+        if (s.charAt(i + 2) != '/' || s.charAt(i + 5) != '/' || s.charAt(i + 10) != ' '
+                || s.charAt(i + 13) != ':' || s.charAt(i + 16) != ':') {
+            return INVALID;
+        }
+        return epochSecond(
+                digits4(s.charAt(i + 6), s.charAt(i + 7), s.charAt(i + 8), s.charAt(i + 9)),
+                digits2(s.charAt(i + 3), s.charAt(i + 4)),
+                digits2(s.charAt(i), s.charAt(i + 1)),
+                digits2(s.charAt(i + 11), s.charAt(i + 12)),
+                digits2(s.charAt(i + 14), s.charAt(i + 15)),
+                digits2(s.charAt(i + 17), s.charAt(i + 18)),
+                1);
+    }
+
+    private static long local(byte[] b, int i) {
+        if (b[i + 2] != '/' || b[i + 5] != '/' || b[i + 10] != ' ' || b[i + 13] != ':' || b[i + 16] != ':') {
+            return INVALID;
+        }
+        return epochSecond(
+                digits4(b[i + 6], b[i + 7], b[i + 8], b[i + 9]),
+                digits2(b[i + 3], b[i + 4]),
+                digits2(b[i], b[i + 1]),
+                digits2(b[i + 11], b[i + 12]),
+                digits2(b[i + 14], b[i + 15]),
+                digits2(b[i + 17], b[i + 18]),
+                1);
+    }
+
+    private static long iso(CharSequence s, int i) {
+        if (s.charAt(i + 4) != '-' || s.charAt(i + 7) != '-' || s.charAt(i + 10) != 'T'
+                || s.charAt(i + 13) != ':' || s.charAt(i + 16) != ':') {
+            return INVALID;
+        }
+        return epochSecond(
+                digits4(s.charAt(i), s.charAt(i + 1), s.charAt(i + 2), s.charAt(i + 3)),
+                digits2(s.charAt(i + 5), s.charAt(i + 6)),
+                digits2(s.charAt(i + 8), s.charAt(i + 9)),
+                digits2(s.charAt(i + 11), s.charAt(i + 12)),
+                digits2(s.charAt(i + 14), s.charAt(i + 15)),
+                digits2(s.charAt(i + 17), s.charAt(i + 18)),
+                0);
+    }
+
+    private static long iso(byte[] b, int i) {
+        if (b[i + 4] != '-' || b[i + 7] != '-' || b[i + 10] != 'T' || b[i + 13] != ':' || b[i + 16] != ':') {
+            return INVALID;
+        }
+        return epochSecond(
+                digits4(b[i], b[i + 1], b[i + 2], b[i + 3]),
+                digits2(b[i + 5], b[i + 6]),
+                digits2(b[i + 8], b[i + 9]),
+                digits2(b[i + 11], b[i + 12]),
+                digits2(b[i + 14], b[i + 15]),
+                digits2(b[i + 17], b[i + 18]),
+                0);
+    }
+
+    // A negative field means a non-digit was found. minYear is 1 for "yyyy" (year-of-era) and 0 for ISO years.
+    private static long epochSecond(int year, int month, int day, int hour, int minute, int second, int minYear) {
+        if ((year | month | day | hour | minute | second) < 0
+                || year < minYear || month < 1 || month > 12 || day < 1 || day > EpochDays.lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return INVALID;
+        }
+        return EpochDays.of(year, month, day) * EpochDays.SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+    }
+
+    private static long epochDay(int year, int month, int day) {
+        if ((year | month | day) < 0 || year < 1 || month < 1 || month > 12 || day < 1
+                || day > EpochDays.lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+        return EpochDays.of(year, month, day);
+    }
+
+    // A non-digit maps to a value that keeps digits2/digits4 negative without overflowing.
+    private static int digit(int c) {
+        int d = c - '0';
+        return d >= 0 && d <= 9 ? d : -100_000;
+    }
+
+    private static int digits2(int c1, int c2) {
+        return digit(c1) * 10 + digit(c2);
+    }
+
+    private static int digits4(int c1, int c2, int c3, int c4) {
+        return digit(c1) * 1000 + digit(c2) * 100 + digit(c3) * 10 + digit(c4);
+    }
+
+    private static String ascii(byte[] bytes, int offset, int length) {
+        return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+    }
+
+}
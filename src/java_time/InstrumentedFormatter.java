@@ -0,0 +1,126 @@
+package java_time;
+
+import java.time.DateTimeException;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQuery;
+import java.util.Objects;
+
+/* InstrumentedFormatter -> A DateTimeFormatter whose parse and format calls are recorded in DateTimeMetrics.
+Same results and exceptions as the wrapped formatter. The calls are recorded per pattern (PARSE and FORMAT). Parse
+calls that throw DateTimeParseException and format calls that throw DateTimeException count as failures; any other
+exception is recorded as a call only. Nothing is measured while DateTimeMetrics is disabled.
+
+-> Example:
+InstrumentedFormatter dtf4 = InstrumentedFormatter.of("dd/MM/yyyy HH:mm:ss");
+LocalDateTime dateTime = dtf4.parse("03/12/2007 04:15:30", LocalDateTime::from); */
+
+public final class InstrumentedFormatter {
+
+    private final String pattern;
+    private final DateTimeFormatter formatter;
+    private final DateTimeMetrics.Recorder parse;
+    private final DateTimeMetrics.Recorder format;
+
+    private InstrumentedFormatter(String pattern, DateTimeFormatter formatter) {
+        this.pattern = Objects.requireNonNull(pattern, "pattern");
+        this.formatter = Objects.requireNonNull(formatter, "formatter");
+        this.parse = DateTimeMetrics.recorder(DateTimeMetrics.Operation.PARSE, pattern);
+        this.format = DateTimeMetrics.recorder(DateTimeMetrics.Operation.FORMAT, pattern);
+    }
+
+    // The formatter of DateTimeRegistry.shared() for the pattern.
+    public static InstrumentedFormatter of(String pattern) {
+        return new InstrumentedFormatter(pattern, DateTimeRegistry.shared().formatter(pattern));
+    }
+
+    // Any formatter, recorded under the given name (DateTimeFormatter.toString() is not its pattern).
+    public static InstrumentedFormatter of(String name, DateTimeFormatter formatter) {
+        return new InstrumentedFormatter(name, formatter);
+    }
+
+    public String format(TemporalAccessor temporal) {
+        if (!DateTimeMetrics.isEnabled()) {
+            return formatter.format(temporal);
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return formatter.format(temporal);
+        } catch (DateTimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            format.record(start, allocated, failed);
+        }
+    }
+
+    public void formatTo(TemporalAccessor temporal, Appendable target) {
+        if (!DateTimeMetrics.isEnabled()) {
+            formatter.formatTo(temporal, target);
+            return;
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            formatter.formatTo(temporal, target);
+        } catch (DateTimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            format.record(start, allocated, failed);
+        }
+    }
+
+    public TemporalAccessor parse(CharSequence text) {
+        if (!DateTimeMetrics.isEnabled()) {
+            return formatter.parse(text);
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return formatter.parse(text);
+        } catch (DateTimeParseException e) {
+            failed = true;
+            throw e;
+        } finally {
+            parse.record(start, allocated, failed);
+        }
+    }
+
+    // Same as formatter.parse(text, query), e.g. parse(text, LocalDate::from).
+    public <T> T parse(CharSequence text, TemporalQuery<T> query) {
+        if (!DateTimeMetrics.isEnabled()) {
+            return formatter.parse(text, query);
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return formatter.parse(text, query);
+        } catch (DateTimeParseException e) {
+            failed = true;
+            throw e;
+        } finally {
+            parse.record(start, allocated, failed);
+        }
+    }
+
+    public DateTimeFormatter getFormatter() {
+        return formatter;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedFormatter[" + pattern + "]";
+    }
+
+}
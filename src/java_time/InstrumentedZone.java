@@ -0,0 +1,134 @@
+package java_time;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/* InstrumentedZone -> Conversions between Instant and local time in one zone, recorded in DateTimeMetrics.
+The conversions are the ones Program makes with atZone, LocalDateTime.ofInstant, withZoneSameInstant and the zone
+rules. Each call is recorded as ZONE_CONVERSION under the zone id, with the same results and exceptions as the
+java.time call; calls that throw DateTimeException (out of the supported range) count as failures. Nothing is
+measured while DateTimeMetrics is disabled. */
+
+public final class InstrumentedZone {
+
+    private final ZoneId zone;
+    private final DateTimeMetrics.Recorder conversions;
+
+    private InstrumentedZone(ZoneId zone) {
+        this.zone = Objects.requireNonNull(zone, "zone");
+        this.conversions = DateTimeMetrics.recorder(DateTimeMetrics.Operation.ZONE_CONVERSION, zone.getId());
+    }
+
+    public static InstrumentedZone of(ZoneId zone) {
+        return new InstrumentedZone(zone);
+    }
+
+    // The zone of DateTimeRegistry.shared() for the id.
+    public static InstrumentedZone of(String zoneId) {
+        return new InstrumentedZone(DateTimeRegistry.shared().zone(zoneId));
+    }
+
+    // Same as instant.atZone(zone).
+    public ZonedDateTime atZone(Instant instant) {
+        if (!DateTimeMetrics.isEnabled()) {
+            return instant.atZone(zone);
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return instant.atZone(zone);
+        } catch (DateTimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            conversions.record(start, allocated, failed);
+        }
+    }
+
+    // Same as dateTime.withZoneSameInstant(zone).
+    public ZonedDateTime withZoneSameInstant(ZonedDateTime dateTime) {
+        if (!DateTimeMetrics.isEnabled()) {
+            return dateTime.withZoneSameInstant(zone);
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return dateTime.withZoneSameInstant(zone);
+        } catch (DateTimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            conversions.record(start, allocated, failed);
+        }
+    }
+
+    // Same as LocalDateTime.ofInstant(instant, zone).
+    public LocalDateTime toLocalDateTime(Instant instant) {
+        if (!DateTimeMetrics.isEnabled()) {
+            return LocalDateTime.ofInstant(instant, zone);
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return LocalDateTime.ofInstant(instant, zone);
+        } catch (DateTimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            conversions.record(start, allocated, failed);
+        }
+    }
+
+    // Same as dateTime.atZone(zone).toInstant(): a time in a gap moves forward, one in an overlap takes the earlier offset.
+    public Instant toInstant(LocalDateTime dateTime) {
+        if (!DateTimeMetrics.isEnabled()) {
+            return dateTime.atZone(zone).toInstant();
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return dateTime.atZone(zone).toInstant();
+        } catch (DateTimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            conversions.record(start, allocated, failed);
+        }
+    }
+
+    public ZoneOffset getOffset(Instant instant) {
+        if (!DateTimeMetrics.isEnabled()) {
+            return zone.getRules().getOffset(instant);
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return zone.getRules().getOffset(instant);
+        } catch (DateTimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            conversions.record(start, allocated, failed);
+        }
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedZone[" + zone + "]";
+    }
+
+}
@@ -0,0 +1,331 @@
+package java_time;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/* LongTimeSeriesIndex -> A sorted multiset of timestamps stored in primitive long[] chunks.
+A TreeMap<Instant, ...> costs a tree node, a boxed Instant and pointer chasing per entry. This index keeps the
+timestamps as PackedInstant longs (nanoseconds since the epoch) in sorted chunks of 4096 values, with a small
+directory of the first value and the running count of every chunk:
+* append in time order -> written at the end of the last chunk, O(1)
+* out-of-order add     -> inserted into its chunk (full chunks are split in two)
+* lookups              -> binary search on the chunk directory, then inside one chunk, O(log n)
+
+Ranges are half-open, [from, to), like Duration.between(from, to). Duplicates are kept. The index is not thread-safe.
+
+-> Example:
+index.count(pastWeekInstant, nextWeekInstant);                       // events in the two weeks
+index.countWindows(pastWeekInstant, nextWeekInstant, Duration.ofDays(1)); // events per day */
+
+public final class LongTimeSeriesIndex {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private long[][] chunks = new long[8][];
+    private int[] chunkSizes = new int[8];
+    private long[] chunkFirst = new long[8];
+    private long[] chunkStart = new long[8];
+    private int chunkCount;
+    private long size;
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /* Adding */
+
+    public void add(Instant instant) {
+        add(PackedInstant.of(instant));
+    }
+
+    public void add(long packedInstant) {
+        if (chunkCount == 0) {
+            newChunk(0, packedInstant);
+            return;
+        }
+        int last = chunkCount - 1;
+        if (packedInstant >= lastValue()) {
+            if (chunkSizes[last] == CHUNK_SIZE) {
+                newChunk(chunkCount, packedInstant);
+            } else {
+                chunks[last][chunkSizes[last]++] = packedInstant;
+                size++;
+            }
+            return;
+        }
+        insert(packedInstant);
+    }
+
+    public void addAll(long[] packedInstants) {
+        for (long value : packedInstants) {
+            add(value);
+        }
+    }
+
+    private void insert(long value) {
+        int c = Math.max(0, chunkOf(value));
+        if (chunkSizes[c] == CHUNK_SIZE) {
+            split(c);
+            if (value >= chunkFirst[c + 1]) {
+                c++;
+            }
+        }
+        long[] chunk = chunks[c];
+        int n = chunkSizes[c];
+        int i = upperBound(chunk, n, value);
+        System.arraycopy(chunk, i, chunk, i + 1, n - i);
+        chunk[i] = value;
+        chunkSizes[c] = n + 1;
+        chunkFirst[c] = chunk[0];
+        for (int k = c + 1; k < chunkCount; k++) {
+            chunkStart[k]++;
+        }
+        size++;
+    }
+
+    private void split(int c) {
+        ensureDirectoryCapacity();
+        int half = CHUNK_SIZE / 2;
+        long[] upper = new long[CHUNK_SIZE];
+        System.arraycopy(chunks[c], half, upper, 0, CHUNK_SIZE - half);
+        shiftDirectory(c + 1);
+        chunks[c + 1] = upper;
+        chunkSizes[c + 1] = CHUNK_SIZE - half;
+        chunkFirst[c + 1] = upper[0];
+        chunkStart[c + 1] = chunkStart[c] + half;
+        chunkSizes[c] = half;
+    }
+
+    private void newChunk(int c, long value) {
+        ensureDirectoryCapacity();
+        shiftDirectory(c);
+        long[] chunk = new long[CHUNK_SIZE];
+        chunk[0] = value;
+        chunks[c] = chunk;
+        chunkSizes[c] = 1;
+        chunkFirst[c] = value;
+        chunkStart[c] = size;
+        size++;
+    }
+
+    private void shiftDirectory(int from) {
+        int moved = chunkCount - from;
+        System.arraycopy(chunks, from, chunks, from + 1, moved);
+        System.arraycopy(chunkSizes, from, chunkSizes, from + 1, moved);
+        System.arraycopy(chunkFirst, from, chunkFirst, from + 1, moved);
+        System.arraycopy(chunkStart, from, chunkStart, from + 1, moved);
+        chunkCount++;
+    }
+
+    private void ensureDirectoryCapacity() {
+        if (chunkCount == chunks.length) {
+            int capacity = chunkCount * 2;
+            chunks = Arrays.copyOf(chunks, capacity);
+            chunkSizes = Arrays.copyOf(chunkSizes, capacity);
+            chunkFirst = Arrays.copyOf(chunkFirst, capacity);
+            chunkStart = Arrays.copyOf(chunkStart, capacity);
+        }
+    }
+
+    /* Lookups */
+
+    // Value at a position of the sorted order (0 = earliest).
+    public long get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int c = chunkOfIndex(index);
+        return chunks[c][(int) (index - chunkStart[c])];
+    }
+
+    // Number of values before value (its insertion point).
+    public long rank(long packedInstant) {
+        if (packedInstant == Long.MIN_VALUE) {
+            return 0;
+        }
+        int c = chunkOf(packedInstant - 1);
+        if (c < 0) {
+            return 0;
+        }
+        return chunkStart[c] + lowerBound(chunks[c], chunkSizes[c], packedInstant);
+    }
+
+    public long first() {
+        return get(0);
+    }
+
+    public long last() {
+        return get(size - 1);
+    }
+
+    // Position of the greatest value <= packedInstant, or -1.
+    public long floorIndex(long packedInstant) {
+        return packedInstant == Long.MAX_VALUE ? size - 1 : rank(packedInstant + 1) - 1;
+    }
+
+    // Position of the smallest value >= packedInstant, or -1.
+    public long ceilingIndex(long packedInstant) {
+        long index = rank(packedInstant);
+        return index < size ? index : -1;
+    }
+
+    // Same as TreeMap.floorKey: null when every value is after instant.
+    public Instant floor(Instant instant) {
+        long index = floorIndex(PackedInstant.of(instant));
+        return index < 0 ? null : PackedInstant.toInstant(get(index));
+    }
+
+    public Instant ceiling(Instant instant) {
+        long index = ceilingIndex(PackedInstant.of(instant));
+        return index < 0 ? null : PackedInstant.toInstant(get(index));
+    }
+
+    /* Ranges, [from, to) */
+
+    public long count(Instant from, Instant to) {
+        return count(PackedInstant.of(from), PackedInstant.of(to));
+    }
+
+    public long count(long from, long to) {
+        return from >= to ? 0 : rank(to) - rank(from);
+    }
+
+    // Values in the window of the given length that ends at end (exclusive), e.g. "events in the last 7 days".
+    public long countInWindow(Instant end, Duration window) {
+        long to = PackedInstant.of(end);
+        return count(Math.subtractExact(to, window.toNanos()), to);
+    }
+
+    // Counts per consecutive window [from + i * window, from + (i + 1) * window), the last one cut at to.
+    public long[] countWindows(Instant from, Instant to, Duration window) {
+        long start = PackedInstant.of(from);
+        long end = PackedInstant.of(to);
+        long length = window.toNanos();
+        if (length <= 0) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        if (start >= end) {
+            return new long[0];
+        }
+        long[] counts = new long[Math.toIntExact((end - start - 1) / length + 1)];
+        long previous = rank(start);
+        for (int i = 0; i < counts.length; i++) {
+            long windowEnd = Math.min(end, start + (i + 1) * length);
+            long next = rank(windowEnd);
+            counts[i] = next - previous;
+            previous = next;
+        }
+        return counts;
+    }
+
+    public LongStream rangeQuery(Instant from, Instant to) {
+        return rangeQuery(PackedInstant.of(from), PackedInstant.of(to));
+    }
+
+    // Values in [from, to) in order, read lazily from the chunks (no copy, no boxing).
+    public LongStream rangeQuery(long from, long to) {
+        long start = rank(from);
+        long end = Math.max(start, rank(to));
+        if (start == end) {
+            return LongStream.empty();
+        }
+        int firstChunk = chunkOfIndex(start);
+        int lastChunk = chunkOfIndex(end - 1);
+        return IntStream.rangeClosed(firstChunk, lastChunk).mapToObj(c -> {
+            int lo = c == firstChunk ? (int) (start - chunkStart[c]) : 0;
+            int hi = c == lastChunk ? (int) (end - chunkStart[c]) : chunkSizes[c];
+            return Arrays.stream(chunks[c], lo, hi);
+        }).flatMapToLong(s -> s);
+    }
+
+    public void forEachInRange(long from, long to, LongConsumer action) {
+        long start = rank(from);
+        long end = rank(to);
+        if (start >= end) {
+            return;
+        }
+        for (int c = chunkOfIndex(start); c < chunkCount && chunkStart[c] < end; c++) {
+            long[] chunk = chunks[c];
+            int lo = (int) Math.max(0, start - chunkStart[c]);
+            int hi = (int) Math.min(chunkSizes[c], end - chunkStart[c]);
+            for (int i = lo; i < hi; i++) {
+                action.accept(chunk[i]);
+            }
+        }
+    }
+
+    /* Binary searches */
+
+    // Last chunk whose first value is <= value, or -1.
+    private int chunkOf(long value) {
+        int lo = 0;
+        int hi = chunkCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (chunkFirst[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return hi;
+    }
+
+    private int chunkOfIndex(long index) {
+        int lo = 0;
+        int hi = chunkCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (chunkStart[mid] <= index) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    private long lastValue() {
+        int last = chunkCount - 1;
+        return chunks[last][chunkSizes[last] - 1];
+    }
+
+    // First position with a[i] >= value.
+    private static int lowerBound(long[] a, int n, long value) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First position with a[i] > value.
+    private static int upperBound(long[] a, int n, long value) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+}
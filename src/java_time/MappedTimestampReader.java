@@ -0,0 +1,257 @@
+package java_time;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/* MappedTimestampReader -> Extracts the leading timestamp of every line of a (large) log file.
+The file is memory-mapped with FileChannel.map in regions of up to 256 MB, and each line is inspected straight from
+the mapped buffer: no line is decoded into a String. Only the timestamp bytes (at most 35) and the byte after them are
+copied into a small scratch array that is reused for every line and handed to FastDateTimeParser.
+
+Supported layouts (TimestampLayout):
+* DD_MM_YYYY / DD_MM_YYYY_HH_MM_SS -> "03/12/2007 04:15:30 ...", read as UTC
+* ISO -> "2007-12-03T04:15:30Z ...", with optional fraction (ignored) and an optional Z, +hh, +hhmm or +hh:mm (or
+minus) offset; without an offset the value is read as UTC
+
+A timestamp must be followed by the end of the line or whitespace: a line whose timestamp runs on ("04:15:3012",
+"04:15:30.", a malformed offset ...) is skipped rather than read as a shorter timestamp.
+
+Lines that don't start with a timestamp (stack traces, continuation lines ...) are skipped and counted. The results
+can be pulled as a LongStream of epoch seconds or pushed to a callback that also receives the line's file offset.
+A reader scans its file once and is not thread-safe. */
+
+public final class MappedTimestampReader implements Closeable {
+
+    // Receives the file offset of the line and the epoch second of its leading timestamp.
+    public interface TimestampConsumer {
+        void accept(long lineOffset, long epochSecond);
+    }
+
+    private static final int DEFAULT_REGION_SIZE = 256 * 1024 * 1024;
+    private static final int MAX_TIMESTAMP_LENGTH = 35;
+
+    private final FileChannel channel;
+    private final TimestampLayout layout;
+    private final long size;
+    private final int regionSize;
+    // The timestamp and the byte after it, which must end it.
+    private final byte[] scratch = new byte[MAX_TIMESTAMP_LENGTH + 1];
+
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long regionEnd;
+
+    private long position;
+    private long lineOffset;
+    private long skippedLines;
+    // Whether the bytes in scratch reach the end of the current line.
+    private boolean lineEnds;
+
+    MappedTimestampReader(Path file, TimestampLayout layout, int regionSize) throws IOException {
+        if (regionSize <= MAX_TIMESTAMP_LENGTH) {
+            throw new IllegalArgumentException("regionSize too small: " + regionSize);
+        }
+        this.layout = Objects.requireNonNull(layout, "layout");
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.regionSize = regionSize;
+    }
+
+    public static MappedTimestampReader open(Path file, TimestampLayout layout) throws IOException {
+        return new MappedTimestampReader(file, layout, DEFAULT_REGION_SIZE);
+    }
+
+    // Pushes every timestamp to the consumer and returns how many lines had one.
+    public long forEach(TimestampConsumer consumer) throws IOException {
+        long count = 0;
+        long epochSecond;
+        while ((epochSecond = next()) != FastDateTimeParser.NO_VALUE) {
+            consumer.accept(lineOffset, epochSecond);
+            count++;
+        }
+        return count;
+    }
+
+    // Lazy, sequential stream of the remaining timestamps. I/O errors are thrown as UncheckedIOException.
+    public LongStream epochSeconds() {
+        Spliterator.OfLong spliterator = new Spliterators.AbstractLongSpliterator(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                long epochSecond;
+                try {
+                    epochSecond = next();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (epochSecond == FastDateTimeParser.NO_VALUE) {
+                    return false;
+                }
+                action.accept(epochSecond);
+                return true;
+            }
+        };
+        return StreamSupport.longStream(spliterator, false);
+    }
+
+    // Lines read so far without a leading timestamp.
+    public long skippedLines() {
+        return skippedLines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        region = null;
+        channel.close();
+    }
+
+    /* Scanning */
+
+    // Epoch second of the next line with a timestamp, or NO_VALUE at the end of the file.
+    private long next() throws IOException {
+        while (position < size) {
+            long lineStart = position;
+            long epochSecond = timestampAt(lineStart);
+            position = nextLine(lineStart);
+            if (epochSecond != FastDateTimeParser.NO_VALUE) {
+                lineOffset = lineStart;
+                return epochSecond;
+            }
+            skippedLines++;
+        }
+        return FastDateTimeParser.NO_VALUE;
+    }
+
+    private long timestampAt(long lineStart) throws IOException {
+        int length = (int) Math.min(scratch.length, size - lineStart);
+        ensureMapped(lineStart, length);
+        int base = (int) (lineStart - regionStart);
+        lineEnds = lineStart + length == size;
+        for (int i = 0; i < length; i++) {
+            byte b = region.get(base + i);
+            if (b == '\n') {
+                length = i;
+                lineEnds = true;
+                break;
+            }
+            scratch[i] = b;
+        }
+        switch (layout) {
+            case DD_MM_YYYY:
+                return length >= 10 && endsAt(10, length)
+                        ? layout.tryParse(scratch, 0, 10) : FastDateTimeParser.NO_VALUE;
+            case DD_MM_YYYY_HH_MM_SS:
+                return length >= 19 && endsAt(19, length)
+                        ? layout.tryParse(scratch, 0, 19) : FastDateTimeParser.NO_VALUE;
+            default:
+                return iso(length);
+        }
+    }
+
+    // True when the timestamp can end before scratch[i]: end of line, or whitespace before the rest of the line.
+    // "...:3012" or "...:30." is a different (or broken) timestamp, not 04:15:30 followed by text.
+    private boolean endsAt(int i, int length) {
+        if (i == length) {
+            return lineEnds;
+        }
+        byte b = scratch[i];
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    // "yyyy-MM-ddTHH:mm:ss" [".fraction"] ["Z" | "+hh" | "+hhmm" | "+hh:mm" | "-..."], then the end of the timestamp
+    // (see endsAt). Anything else, such as a sign followed by a malformed offset, is not a timestamp (NO_VALUE), so
+    // it is never read as UTC.
+    private long iso(int length) {
+        if (length < 19) {
+            return FastDateTimeParser.NO_VALUE;
+        }
+        long epochSecond = FastDateTimeParser.tryParseIso(scratch, 0, 19);
+        if (epochSecond == FastDateTimeParser.NO_VALUE) {
+            return epochSecond;
+        }
+        int i = 19;
+        if (i < length && scratch[i] == '.') {
+            int fraction = ++i;
+            while (i < length && isDigit(i)) {
+                i++;
+            }
+            if (i == fraction || i - fraction > 9) {
+                return FastDateTimeParser.NO_VALUE;
+            }
+        }
+        if (i < length && scratch[i] == 'Z') {
+            return endsAt(i + 1, length) ? epochSecond : FastDateTimeParser.NO_VALUE;
+        }
+        if (i == length || (scratch[i] != '+' && scratch[i] != '-')) {
+            return endsAt(i, length) ? epochSecond : FastDateTimeParser.NO_VALUE;
+        }
+        int sign = i;
+        if (i + 3 > length || !isDigit(i + 1) || !isDigit(i + 2)) {
+            return FastDateTimeParser.NO_VALUE;
+        }
+        int hours = digits(i + 1);
+        int minutes = 0;
+        i += 3;
+        if (i < length && scratch[i] == ':') {
+            i++;
+            if (i + 2 > length || !isDigit(i) || !isDigit(i + 1)) {
+                return FastDateTimeParser.NO_VALUE;
+            }
+        }
+        if (i + 2 <= length && isDigit(i) && isDigit(i + 1)) {
+            minutes = digits(i);
+            i += 2;
+        }
+        if (!endsAt(i, length) || hours > 18 || minutes > 59) {
+            return FastDateTimeParser.NO_VALUE;
+        }
+        int offset = hours * 3600 + minutes * 60;
+        return scratch[sign] == '+' ? epochSecond - offset : epochSecond + offset;
+    }
+
+    private boolean isDigit(int i) {
+        return scratch[i] >= '0' && scratch[i] <= '9';
+    }
+
+    private int digits(int i) {
+        return (scratch[i] - '0') * 10 + (scratch[i + 1] - '0');
+    }
+
+    // Start of the line after the one starting at lineStart.
+    private long nextLine(long from) throws IOException {
+        long p = from;
+        while (p < size) {
+            ensureMapped(p, 1);
+            int base = (int) (p - regionStart);
+            int limit = (int) (regionEnd - regionStart);
+            for (int i = base; i < limit; i++) {
+                if (region.get(i) == '\n') {
+                    return regionStart + i + 1;
+                }
+            }
+            p = regionEnd;
+        }
+        return size;
+    }
+
+    private void ensureMapped(long from, int length) throws IOException {
+        if (region != null && from >= regionStart && from + length <= regionEnd) {
+            return;
+        }
+        regionStart = from;
+        regionEnd = Math.min(size, from + regionSize);
+        region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionEnd - regionStart);
+    }
+
+}
@@ -0,0 +1,688 @@
+package java_time;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.LongStream;
+import java.util.zip.CRC32;
+
+/* MappedTimestampStore -> A durable, append-only file of event timestamps and their zones, memory-mapped.
+Program only prints dates, so the usual way to keep them across restarts is a CSV of Instant.toString() that is read
+back with Instant.parse, one String per event. The store keeps every event as a PackedInstant (epoch nanoseconds)
+and the index of its ZoneId, in blocks of up to 1024 events, each with two columns:
+* timestamps -> the first value, then the delta of each delta as a zigzag varint (1 or 2 bytes for regular events)
+* zones      -> runs of (zone index, length) as varints
+
+The file starts with a header, the zone ids and a directory of the blocks (offset, count, min, max), then the blocks:
+* reopen     -> reads the header and the zone ids, nothing else: the directory and the blocks stay mapped, unread
+* range scan -> skips the blocks whose [min, max] misses the range from the directory, decodes the others;
+                count() does not even decode the blocks that are entirely inside the range
+
+Appends are buffered into the current block and become visible (and durable) on commit(): the blocks and the
+directory are forced to disk first, then a new header is written into the older of two header slots, with a CRC32.
+A crash leaves either the previous or the new header valid, and everything after the last valid header is ignored
+and overwritten by the next appends. close() commits.
+
+One writer per file (open takes a file lock). Any number of threads can scan while the writer appends: they read
+the last commit. openReadOnly gives read-only access to a file another process writes, refresh() picks up its
+commits. The events of a block don't need to be in time order, the scans return them in append order. The data is
+mapped in regions of 64 MB, so the file grows by 64 MB at a time (sparse where the blocks don't reach).
+
+-> Example:
+try (MappedTimestampStore store = MappedTimestampStore.open(Path.of("events.store"))) {
+    store.append(zdt7);                                   // instant and zone of the ZonedDateTime
+    store.append(instant4, ZoneId.of("America/New_York"));
+    store.commit();
+    List<ZonedDateTime> week = store.zonedDateTimes(pastWeekInstant, instant4);
+} */
+
+public final class MappedTimestampStore implements Closeable {
+
+    // Receives the epoch nanoseconds (PackedInstant) and the zone of each event.
+    public interface EventConsumer {
+        void accept(long packedInstant, ZoneId zone);
+    }
+
+    public static final int DEFAULT_MAX_BLOCKS = 1 << 20;
+    public static final int BLOCK_SIZE = 1024;
+    public static final int MAX_ZONES = 1024;
+
+    private static final int MAGIC = 0x54534353;   // "TSCS"
+    private static final int VERSION = 1;
+
+    // Two header slots, the zone table and the directory, then the data regions.
+    private static final int SLOT_SIZE = 64;
+    private static final int HEADER_SIZE = 4096;
+    private static final int ZONE_ENTRY_SIZE = 64;
+    private static final int ZONES_OFFSET = HEADER_SIZE;
+    private static final int DIRECTORY_OFFSET = ZONES_OFFSET + MAX_ZONES * ZONE_ENTRY_SIZE;
+    private static final int ENTRY_SIZE = 32;
+    private static final int REGION_SIZE = 64 * 1024 * 1024;
+    // First value, then at most 10 varint bytes per event, and the zone runs.
+    private static final int MAX_BLOCK_BYTES = 4 + 8 + 10 * BLOCK_SIZE + 10 * BLOCK_SIZE;
+
+    // Slot fields.
+    private static final int SLOT_MAGIC = 0;
+    private static final int SLOT_VERSION = 4;
+    private static final int SLOT_SEQUENCE = 8;
+    private static final int SLOT_MAX_BLOCKS = 16;
+    private static final int SLOT_ZONES = 20;
+    private static final int SLOT_BLOCKS = 24;
+    private static final int SLOT_EVENTS = 32;
+    private static final int SLOT_DATA_END = 40;
+    private static final int SLOT_CHECKSUM = 56;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final boolean writable;
+    private final int maxBlocks;
+    private final long dataStart;
+    private final MappedByteBuffer meta;
+
+    // The last commit, read by the scans without locking.
+    private volatile Commit committed;
+
+    // Writer state, beyond the last commit.
+    private final List<MappedByteBuffer> regions = new ArrayList<>();
+    private final Map<ZoneId, Integer> zoneIndexes = new HashMap<>();
+    private final List<ZoneId> zones = new ArrayList<>();
+    private final long[] pendingInstants = new long[BLOCK_SIZE];
+    private final int[] pendingZones = new int[BLOCK_SIZE];
+    private final byte[] scratch = new byte[MAX_BLOCK_BYTES];
+    private int pending;
+    private long blocksWritten;
+    private long eventsWritten;
+    private long dataWritten;
+    private boolean closed;
+
+    private MappedTimestampStore(Path file, FileChannel channel, FileLock lock, boolean writable, int maxBlocks,
+                                 MappedByteBuffer meta) {
+        this.file = file;
+        this.channel = channel;
+        this.lock = lock;
+        this.writable = writable;
+        this.maxBlocks = maxBlocks;
+        this.dataStart = dataStart(maxBlocks);
+        this.meta = meta;
+    }
+
+    /* Opening */
+
+    public static MappedTimestampStore open(Path file) throws IOException {
+        return open(file, DEFAULT_MAX_BLOCKS);
+    }
+
+    // Opens the file for appending, creating it if it is empty or missing. maxBlocks (BLOCK_SIZE events each) sizes
+    // the directory of a new file; an existing file keeps its own.
+    public static MappedTimestampStore open(Path file, int maxBlocks) throws IOException {
+        if (maxBlocks < 1) {
+            throw new IllegalArgumentException("maxBlocks must be positive: " + maxBlocks);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException(file + " is already open for appending");
+            }
+            boolean created = channel.size() == 0;
+            if (!created) {
+                maxBlocks = readMaxBlocks(file, channel);
+            }
+            MappedByteBuffer meta = channel.map(FileChannel.MapMode.READ_WRITE, 0, dataStart(maxBlocks));
+            MappedTimestampStore store = new MappedTimestampStore(file, channel, lock, true, maxBlocks, meta);
+            if (created) {
+                store.writeHeader(new Commit(0, 0, 0, store.dataStart, new ZoneId[0], new MappedByteBuffer[0]));
+                meta.force();
+            }
+            store.load();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static MappedTimestampStore openReadOnly(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            int maxBlocks = readMaxBlocks(file, channel);
+            MappedByteBuffer meta = channel.map(FileChannel.MapMode.READ_ONLY, 0, dataStart(maxBlocks));
+            MappedTimestampStore store = new MappedTimestampStore(file, channel, null, false, maxBlocks, meta);
+            store.load();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static long dataStart(int maxBlocks) {
+        long end = DIRECTORY_OFFSET + (long) maxBlocks * ENTRY_SIZE;
+        return (end + HEADER_SIZE - 1) / HEADER_SIZE * HEADER_SIZE;
+    }
+
+    private static int readMaxBlocks(Path file, FileChannel channel) throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), HEADER_SIZE));
+        int slot = latestSlot(header);
+        if (slot < 0) {
+            throw new IOException(file + " is not a timestamp store or its header is damaged");
+        }
+        return header.getInt(slot + SLOT_MAX_BLOCKS);
+    }
+
+    // Offset of the valid slot with the highest sequence, -1 if neither is valid.
+    private static int latestSlot(MappedByteBuffer header) {
+        int latest = -1;
+        long sequence = -1;
+        for (int slot = 0; slot + SLOT_SIZE <= Math.min(header.capacity(), 2 * SLOT_SIZE); slot += SLOT_SIZE) {
+            if (header.getInt(slot + SLOT_MAGIC) != MAGIC || header.getInt(slot + SLOT_VERSION) != VERSION
+                    || header.getLong(slot + SLOT_CHECKSUM) != checksum(header, slot)) {
+                continue;
+            }
+            if (header.getLong(slot + SLOT_SEQUENCE) > sequence) {
+                sequence = header.getLong(slot + SLOT_SEQUENCE);
+                latest = slot;
+            }
+        }
+        return latest;
+    }
+
+    private static long checksum(MappedByteBuffer header, int slot) {
+        byte[] bytes = new byte[SLOT_CHECKSUM];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = header.get(slot + i);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue();
+    }
+
+    // Reads the latest header and the zones it names, and maps the data up to its end.
+    private boolean load() throws IOException {
+        int slot = latestSlot(meta);
+        if (slot < 0) {
+            throw new IOException(file + " is not a timestamp store or its header is damaged");
+        }
+        long sequence = meta.getLong(slot + SLOT_SEQUENCE);
+        Commit previous = committed;
+        if (previous != null && previous.sequence == sequence) {
+            return false;
+        }
+        int zoneCount = meta.getInt(slot + SLOT_ZONES);
+        long blocks = meta.getLong(slot + SLOT_BLOCKS);
+        long events = meta.getLong(slot + SLOT_EVENTS);
+        long dataEnd = meta.getLong(slot + SLOT_DATA_END);
+        ZoneId[] zoneIds = Arrays.copyOf(previous == null ? new ZoneId[0] : previous.zones, zoneCount);
+        for (int z = previous == null ? 0 : previous.zones.length; z < zoneCount; z++) {
+            zoneIds[z] = readZone(z);
+        }
+        MappedByteBuffer[] mapped = map(dataEnd, previous == null ? new MappedByteBuffer[0] : previous.regions);
+        if (writable) {
+            for (ZoneId zone : zoneIds) {
+                zoneIndexes.put(zone, zones.size());
+                zones.add(zone);
+            }
+            regions.addAll(Arrays.asList(mapped));
+            blocksWritten = blocks;
+            eventsWritten = events;
+            dataWritten = dataEnd;
+        }
+        committed = new Commit(sequence, blocks, events, dataEnd, zoneIds, mapped);
+        return true;
+    }
+
+    // The regions holding the data up to dataEnd, reusing the ones already mapped in full.
+    private MappedByteBuffer[] map(long dataEnd, MappedByteBuffer[] mapped) throws IOException {
+        int count = (int) ((dataEnd - dataStart + REGION_SIZE - 1) / REGION_SIZE);
+        MappedByteBuffer[] result = Arrays.copyOf(mapped, Math.max(count, mapped.length));
+        for (int r = 0; r < count; r++) {
+            long start = dataStart + (long) r * REGION_SIZE;
+            long end = Math.min(dataEnd, start + REGION_SIZE);
+            if (result[r] == null || result[r].capacity() < end - start) {
+                result[r] = writable ? channel.map(FileChannel.MapMode.READ_WRITE, start, REGION_SIZE)
+                        : channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_SIZE, channel.size() - start));
+            }
+        }
+        return result;
+    }
+
+    private ZoneId readZone(int index) throws IOException {
+        int offset = ZONES_OFFSET + index * ZONE_ENTRY_SIZE;
+        int length = meta.get(offset);
+        if (length <= 0 || length >= ZONE_ENTRY_SIZE) {
+            throw new IOException(file + ": damaged zone table");
+        }
+        byte[] id = new byte[length];
+        for (int i = 0; i < length; i++) {
+            id[i] = meta.get(offset + 1 + i);
+        }
+        return DateTimeRegistry.shared().zone(new String(id, StandardCharsets.US_ASCII));
+    }
+
+    // Read-only stores: loads the writer's latest commit, returns false if there is none since the last load.
+    public boolean refresh() throws IOException {
+        checkOpen();
+        if (writable) {
+            return false;
+        }
+        return load();
+    }
+
+    /* Appending */
+
+    public void append(ZonedDateTime dateTime) {
+        append(PackedInstant.ofEpochSecond(dateTime.toEpochSecond(), dateTime.getNano()), dateTime.getZone());
+    }
+
+    public void append(Instant instant, ZoneId zone) {
+        append(PackedInstant.of(instant), zone);
+    }
+
+    public void append(long packedInstant, ZoneId zone) {
+        checkWritable();
+        int index = zoneIndex(Objects.requireNonNull(zone, "zone"));
+        pendingInstants[pending] = packedInstant;
+        pendingZones[pending] = index;
+        if (++pending == BLOCK_SIZE) {
+            writeBlock();
+        }
+    }
+
+    private int zoneIndex(ZoneId zone) {
+        Integer index = zoneIndexes.get(zone);
+        if (index != null) {
+            return index;
+        }
+        byte[] id = zone.getId().getBytes(StandardCharsets.US_ASCII);
+        if (id.length >= ZONE_ENTRY_SIZE) {
+            throw new IllegalArgumentException("Zone id too long: " + zone.getId());
+        }
+        if (zones.size() == MAX_ZONES) {
+            throw new IllegalStateException(file + " already holds " + MAX_ZONES + " zones");
+        }
+        int offset = ZONES_OFFSET + zones.size() * ZONE_ENTRY_SIZE;
+        meta.put(offset, (byte) id.length);
+        for (int i = 0; i < id.length; i++) {
+            meta.put(offset + 1 + i, id[i]);
+        }
+        zoneIndexes.put(zone, zones.size());
+        zones.add(zone);
+        return zones.size() - 1;
+    }
+
+    // Makes every appended event visible and durable.
+    public void commit() throws IOException {
+        checkWritable();
+        if (pending > 0) {
+            writeBlock();
+        }
+        Commit previous = committed;
+        if (blocksWritten == previous.blocks && zones.size() == previous.zones.length) {
+            return;
+        }
+        MappedByteBuffer[] mapped = regions.toArray(new MappedByteBuffer[0]);
+        for (int r = (int) ((previous.dataEnd - dataStart) / REGION_SIZE); r < mapped.length; r++) {
+            mapped[r].force();
+        }
+        meta.force();
+        Commit commit = new Commit(previous.sequence + 1, blocksWritten, eventsWritten, dataWritten,
+                zones.toArray(new ZoneId[0]), mapped);
+        writeHeader(commit);
+        meta.force();
+        committed = commit;
+    }
+
+    // Writes the commit into the slot that doesn't hold the latest one.
+    private void writeHeader(Commit commit) {
+        int slot = (int) (commit.sequence & 1) * SLOT_SIZE;
+        meta.putInt(slot + SLOT_MAGIC, MAGIC);
+        meta.putInt(slot + SLOT_VERSION, VERSION);
+        meta.putLong(slot + SLOT_SEQUENCE, commit.sequence);
+        meta.putInt(slot + SLOT_MAX_BLOCKS, maxBlocks);
+        meta.putInt(slot + SLOT_ZONES, commit.zones.length);
+        meta.putLong(slot + SLOT_BLOCKS, commit.blocks);
+        meta.putLong(slot + SLOT_EVENTS, commit.events);
+        meta.putLong(slot + SLOT_DATA_END, commit.dataEnd);
+        meta.putLong(slot + SLOT_CHECKSUM, checksum(meta, slot));
+    }
+
+    // Encodes the pending events as a block after the last one (not visible before the next commit).
+    private void writeBlock() {
+        if (blocksWritten == maxBlocks) {
+            throw new IllegalStateException(file + " is full: " + maxBlocks + " blocks");
+        }
+        int length = encode();
+        long position = dataWritten;
+        int region = (int) ((position - dataStart) / REGION_SIZE);
+        if ((position - dataStart) % REGION_SIZE + length > REGION_SIZE) {
+            region++;
+            position = dataStart + (long) region * REGION_SIZE;
+        }
+        ByteBuffer buffer = region(region).duplicate();
+        buffer.position((int) ((position - dataStart) % REGION_SIZE));
+        buffer.put(scratch, 0, length);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < pending; i++) {
+            min = Math.min(min, pendingInstants[i]);
+            max = Math.max(max, pendingInstants[i]);
+        }
+        int entry = (int) (DIRECTORY_OFFSET + blocksWritten * ENTRY_SIZE);
+        meta.putLong(entry, position);
+        meta.putLong(entry + 8, min);
+        meta.putLong(entry + 16, max);
+        meta.putInt(entry + 24, pending);
+        meta.putInt(entry + 28, length);
+        blocksWritten++;
+        eventsWritten += pending;
+        dataWritten = position + length;
+        pending = 0;
+    }
+
+    private MappedByteBuffer region(int index) {
+        while (regions.size() <= index) {
+            regions.add(null);
+        }
+        if (regions.get(index) == null) {
+            try {
+                regions.set(index, channel.map(FileChannel.MapMode.READ_WRITE,
+                        dataStart + (long) index * REGION_SIZE, REGION_SIZE));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return regions.get(index);
+    }
+
+    // [timestamp bytes (int)] [first value (long)] [delta of deltas] [zone runs] into scratch, returns the length.
+    private int encode() {
+        int p = 4;
+        long first = pendingInstants[0];
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            scratch[p++] = (byte) (first >>> shift);
+        }
+        long previous = first;
+        long delta = 0;
+        for (int i = 1; i < pending; i++) {
+            long next = pendingInstants[i] - previous;
+            p = putVarint(p, zigzag(next - delta));
+            delta = next;
+            previous = pendingInstants[i];
+        }
+        int timestampBytes = p - 4;
+        scratch[0] = (byte) (timestampBytes >>> 24);
+        scratch[1] = (byte) (timestampBytes >>> 16);
+        scratch[2] = (byte) (timestampBytes >>> 8);
+        scratch[3] = (byte) timestampBytes;
+        for (int i = 0; i < pending; ) {
+            int zone = pendingZones[i];
+            int run = 1;
+            while (i + run < pending && pendingZones[i + run] == zone) {
+                run++;
+            }
+            p = putVarint(p, zone);
+            p = putVarint(p, run);
+            i += run;
+        }
+        return p;
+    }
+
+    private int putVarint(int p, long value) {
+        while ((value & ~0x7FL) != 0) {
+            scratch[p++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        scratch[p++] = (byte) value;
+        return p;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /* Reading */
+
+    // Committed events.
+    public long size() {
+        return committed.events;
+    }
+
+    public long blockCount() {
+        return committed.blocks;
+    }
+
+    // Zones of the committed events, in the order of their first event.
+    public List<ZoneId> zones() {
+        return List.of(committed.zones);
+    }
+
+    // Every committed event in [from, to), in append order.
+    public void scan(Instant from, Instant to, EventConsumer consumer) {
+        scan(packed(from), packed(to), consumer);
+    }
+
+    public void scan(long from, long to, EventConsumer consumer) {
+        Commit commit = committed;
+        long[] instants = new long[BLOCK_SIZE];
+        for (long b = 0; b < commit.blocks; b++) {
+            int entry = (int) (DIRECTORY_OFFSET + b * ENTRY_SIZE);
+            if (meta.getLong(entry + 8) < to && meta.getLong(entry + 16) >= from) {
+                decode(commit, entry, from, to, instants, consumer);
+            }
+        }
+    }
+
+    public long count(Instant from, Instant to) {
+        return count(packed(from), packed(to));
+    }
+
+    // Blocks entirely inside [from, to) are counted from the directory, the ones it overlaps are decoded.
+    public long count(long from, long to) {
+        Commit commit = committed;
+        long count = 0;
+        long[] matches = new long[1];
+        long[] instants = new long[BLOCK_SIZE];
+        for (long b = 0; b < commit.blocks; b++) {
+            int entry = (int) (DIRECTORY_OFFSET + b * ENTRY_SIZE);
+            long min = meta.getLong(entry + 8);
+            long max = meta.getLong(entry + 16);
+            if (min >= from && max < to) {
+                count += meta.getInt(entry + 24);
+            } else if (min < to && max >= from) {
+                select(commit, entry, from, to, instants, null, matches);
+            }
+        }
+        return count + matches[0];
+    }
+
+    // The epoch nanoseconds of the events in [from, to), in append order.
+    public LongStream rangeQuery(Instant from, Instant to) {
+        LongStream.Builder builder = LongStream.builder();
+        Commit commit = committed;
+        long lower = packed(from);
+        long upper = packed(to);
+        long[] instants = new long[BLOCK_SIZE];
+        for (long b = 0; b < commit.blocks; b++) {
+            int entry = (int) (DIRECTORY_OFFSET + b * ENTRY_SIZE);
+            if (meta.getLong(entry + 8) < upper && meta.getLong(entry + 16) >= lower) {
+                select(commit, entry, lower, upper, instants, builder, null);
+            }
+        }
+        return builder.build();
+    }
+
+    public List<ZonedDateTime> zonedDateTimes(Instant from, Instant to) {
+        List<ZonedDateTime> result = new ArrayList<>();
+        scan(from, to, (packedInstant, zone) -> result.add(PackedInstant.toInstant(packedInstant).atZone(zone)));
+        return result;
+    }
+
+    private void decode(Commit commit, int entry, long from, long to, long[] instants, EventConsumer consumer) {
+        long position = meta.getLong(entry);
+        int count = meta.getInt(entry + 24);
+        MappedByteBuffer buffer = commit.regions[(int) ((position - dataStart) / REGION_SIZE)];
+        int p = (int) ((position - dataStart) % REGION_SIZE);
+        int timestampBytes = buffer.getInt(p);
+        decodeTimestamps(buffer, p + 4, count, instants);
+        int z = p + 4 + timestampBytes;
+        for (int i = 0; i < count; ) {
+            long zone = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(z++);
+                zone |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            long run = 0;
+            shift = 0;
+            do {
+                b = buffer.get(z++);
+                run |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            ZoneId zoneId = commit.zones[(int) zone];
+            for (long end = i + run; i < end; i++) {
+                if (instants[i] >= from && instants[i] < to) {
+                    consumer.accept(instants[i], zoneId);
+                }
+            }
+        }
+    }
+
+    // Timestamps only: adds the ones in [from, to) to the builder, or counts them in matches[0].
+    private void select(Commit commit, int entry, long from, long to, long[] instants, LongStream.Builder builder,
+                        long[] matches) {
+        long position = meta.getLong(entry);
+        int count = meta.getInt(entry + 24);
+        MappedByteBuffer buffer = commit.regions[(int) ((position - dataStart) / REGION_SIZE)];
+        int p = (int) ((position - dataStart) % REGION_SIZE);
+        decodeTimestamps(buffer, p + 4, count, instants);
+        for (int i = 0; i < count; i++) {
+            long value = instants[i];
+            if (value >= from && value < to) {
+                if (builder != null) {
+                    builder.add(value);
+                } else {
+                    matches[0]++;
+                }
+            }
+        }
+    }
+
+    private static void decodeTimestamps(MappedByteBuffer buffer, int p, int count, long[] instants) {
+        long value = buffer.getLong(p);
+        p += 8;
+        instants[0] = value;
+        long delta = 0;
+        for (int i = 1; i < count; i++) {
+            long zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(p++);
+                zigzag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            delta += (zigzag >>> 1) ^ -(zigzag & 1);
+            value += delta;
+            instants[i] = value;
+        }
+    }
+
+    // Instants outside the packed range are clamped to it.
+    private static long packed(Instant instant) {
+        try {
+            return PackedInstant.of(instant);
+        } catch (DateTimeException e) {
+            return instant.getEpochSecond() < 0 ? PackedInstant.MIN : PackedInstant.MAX;
+        }
+    }
+
+    /* Closing */
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException(file + " is closed");
+        }
+    }
+
+    private void checkWritable() {
+        checkOpen();
+        if (!writable) {
+            throw new IllegalStateException(file + " is open read-only");
+        }
+    }
+
+    // Commits (when open for appending) and releases the file.
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (writable) {
+                commit();
+            }
+        } finally {
+            closed = true;
+            if (lock != null) {
+                lock.release();
+            }
+            channel.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        Commit commit = committed;
+        return "MappedTimestampStore[" + file + ", " + commit.events + " events, " + commit.blocks + " blocks, "
+                + commit.zones.length + " zones]";
+    }
+
+    // What a commit made visible.
+    private static final class Commit {
+
+        final long sequence;
+        final long blocks;
+        final long events;
+        final long dataEnd;
+        final ZoneId[] zones;
+        final MappedByteBuffer[] regions;
+
+        Commit(long sequence, long blocks, long events, long dataEnd, ZoneId[] zones, MappedByteBuffer[] regions) {
+            this.sequence = sequence;
+            this.blocks = blocks;
+            this.events = events;
+            this.dataEnd = dataEnd;
+            this.zones = zones;
+            this.regions = regions;
+        }
+    }
+
+}
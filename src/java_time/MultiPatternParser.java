@@ -0,0 +1,673 @@
+package java_time;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/* MultiPatternParser -> Detects which of a set of layouts a text has and parses it, in one pass and without exceptions.
+Program knows which formatter goes with which text: dtf2 for "03/12/2007", dtf4 for "03/12/2007 04:15:30", the ISO
+parsers for "2007-12-03T04:15:30Z". Mixed input is usually handled by trying one DateTimeFormatter after the other
+and catching DateTimeParseException, which fills a stack trace for every wrong guess.
+
+Here the patterns are compiled into a trie keyed on the shape of the text: each run of digits is one token (its
+length), every other character is a token of its own. "03/12/2007 04:15:30" is 2 / 2 / 4 ' ' 2 : 2 : 2, and so is
+every text of the pattern "dd/MM/yyyy HH:mm:ss". Parsing walks the text once, following the trie; at the end of the
+text the node holds the patterns with that shape, and only those read their digits.
+
+Patterns with the same shape are ambiguous: "dd/MM/yyyy" and "MM/dd/yyyy" both match "03/12/2007". The values
+decide when they can ("25/12/2007" is only a valid dd/MM/yyyy), otherwise the Match is AMBIGUOUS, lists every valid
+pattern and holds the values of the first one registered. getAmbiguousPatterns() lists the shapes shared by patterns.
+
+Supported pattern letters (DateTimeFormatter meaning, fixed widths unless noted):
+* yyyy uuuu yy -> year (year of era from 1, proleptic year from 0, 2000 - 2099)
+* M d H        -> 1 or 2 digits, MM dd HH mm ss -> 2 digits
+* S...S        -> fraction of second, exactly as many digits as letters
+* XXX          -> Z, or an offset like +01:00
+* quoted text and any other non-letter -> literal
+A pattern has a complete date (year, month and day), a time (at least the hour) or both, and an offset only with a
+time. Values are checked strictly: "31/02/2007" doesn't match "dd/MM/yyyy", where the SMART resolver of
+DateTimeFormatter would read 28/02/2007.
+
+-> Example:
+MultiPatternParser parser = MultiPatternParser.of("dd/MM/yyyy", "dd/MM/yyyy HH:mm:ss", "yyyy-MM-dd'T'HH:mm:ssXXX");
+MultiPatternParser.Match match = parser.match("03/12/2007 04:15:30");
+match.getPattern();                      // "dd/MM/yyyy HH:mm:ss"
+match.toTemporal();                      // LocalDateTime 2007-12-03T04:15:30 */
+
+public final class MultiPatternParser {
+
+    public enum Status { MATCHED, AMBIGUOUS, NO_MATCH }
+
+    // Token of a run of n digits is DIGITS + n, any other character is its own char value.
+    private static final int DIGITS = 0x10000;
+
+    private static final int YEAR = 0;
+    private static final int YEAR_OF_ERA = 1;
+    private static final int REDUCED_YEAR = 2;
+    private static final int MONTH = 3;
+    private static final int DAY = 4;
+    private static final int HOUR = 5;
+    private static final int MINUTE = 6;
+    private static final int SECOND = 7;
+    private static final int FRACTION = 8;
+    private static final int OFFSET = 9;
+    private static final int LITERAL = 10;
+
+    private static final Match NO_MATCH = new Match(Status.NO_MATCH, null, List.of(), 0, -1, 0, false, false);
+
+    private final Layout[] layouts;
+
+    // Trie, node 0 is the root. Children of a node are tokens[node][i] -> children[node][i].
+    private final int[][] tokens;
+    private final int[][] children;
+    private final int[][] accepts;
+
+    private MultiPatternParser(List<String> patterns) {
+        if (patterns.isEmpty()) {
+            throw new IllegalArgumentException("No patterns");
+        }
+        this.layouts = new Layout[patterns.size()];
+        TrieBuilder trie = new TrieBuilder();
+        for (int i = 0; i < layouts.length; i++) {
+            layouts[i] = new Layout(Objects.requireNonNull(patterns.get(i), "pattern"));
+            for (int[] shape : layouts[i].shapes()) {
+                trie.add(shape, i);
+            }
+        }
+        this.tokens = trie.tokens();
+        this.children = trie.children();
+        this.accepts = trie.accepts();
+    }
+
+    // The order matters for ambiguous texts: the first valid pattern is the one a Match holds.
+    public static MultiPatternParser of(String... patterns) {
+        return new MultiPatternParser(Arrays.asList(patterns));
+    }
+
+    public static MultiPatternParser of(List<String> patterns) {
+        return new MultiPatternParser(patterns);
+    }
+
+    public List<String> getPatterns() {
+        List<String> patterns = new ArrayList<>(layouts.length);
+        for (Layout layout : layouts) {
+            patterns.add(layout.pattern);
+        }
+        return patterns;
+    }
+
+    // Groups of patterns that share at least one shape, so the values alone decide between them.
+    public List<List<String>> getAmbiguousPatterns() {
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (int[] patterns : accepts) {
+            if (patterns != null && patterns.length > 1) {
+                List<String> group = new ArrayList<>();
+                for (int pattern : patterns) {
+                    group.add(layouts[pattern].pattern);
+                }
+                groups.putIfAbsent(group.toString(), List.copyOf(group));
+            }
+        }
+        return List.copyOf(groups.values());
+    }
+
+    /* Parsing */
+
+    // Never throws: a text no pattern matches gives a Match with status NO_MATCH.
+    public Match match(CharSequence text) {
+        int length = text.length();
+        int node = 0;
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            int token;
+            if (c >= '0' && c <= '9') {
+                int start = i;
+                do {
+                    i++;
+                } while (i < length && text.charAt(i) >= '0' && text.charAt(i) <= '9');
+                // A run longer than every pattern's finds no child below and ends in NO_MATCH.
+                token = DIGITS + i - start;
+            } else {
+                token = c;
+                i++;
+            }
+            node = child(node, token);
+            if (node < 0) {
+                return NO_MATCH;
+            }
+        }
+        int[] candidates = accepts[node];
+        return candidates == null ? NO_MATCH : resolve(text, candidates);
+    }
+
+    // The parsed LocalDate, LocalTime, LocalDateTime, OffsetTime or OffsetDateTime. Throws DateTimeParseException
+    // when no pattern matches or the text is ambiguous.
+    public TemporalAccessor parse(CharSequence text) {
+        Match match = match(text);
+        if (match.status != Status.MATCHED) {
+            String reason = match.status == Status.AMBIGUOUS ? "matches " + match.candidates : "matches no pattern";
+            throw new DateTimeParseException("Text '" + text + "' " + reason, text, 0);
+        }
+        return match.toTemporal();
+    }
+
+    private int child(int node, int token) {
+        int[] nodeTokens = tokens[node];
+        for (int i = 0; i < nodeTokens.length; i++) {
+            if (nodeTokens[i] == token) {
+                return children[node][i];
+            }
+        }
+        return -1;
+    }
+
+    private Match resolve(CharSequence text, int[] candidates) {
+        Match first = null;
+        List<String> valid = null;
+        for (int candidate : candidates) {
+            Match match = layouts[candidate].read(text);
+            if (match == null) {
+                continue;
+            }
+            if (first == null) {
+                first = match;
+            } else {
+                if (valid == null) {
+                    valid = new ArrayList<>();
+                    valid.add(first.pattern);
+                }
+                valid.add(match.pattern);
+            }
+        }
+        if (first == null) {
+            return NO_MATCH;
+        }
+        return valid == null ? first : first.ambiguous(List.copyOf(valid));
+    }
+
+    @Override
+    public String toString() {
+        return "MultiPatternParser" + getPatterns();
+    }
+
+    /* Match */
+
+    public static final class Match {
+
+        private final Status status;
+        private final String pattern;
+        private final List<String> candidates;
+        private final long epochDay;
+        private final long nanoOfDay;
+        private final int offsetSeconds;
+        private final boolean hasDate;
+        private final boolean hasOffset;
+
+        Match(Status status, String pattern, List<String> candidates, long epochDay, long nanoOfDay, int offsetSeconds,
+              boolean hasDate, boolean hasOffset) {
+            this.status = status;
+            this.pattern = pattern;
+            this.candidates = candidates;
+            this.epochDay = epochDay;
+            this.nanoOfDay = nanoOfDay;
+            this.offsetSeconds = offsetSeconds;
+            this.hasDate = hasDate;
+            this.hasOffset = hasOffset;
+        }
+
+        Match ambiguous(List<String> valid) {
+            return new Match(Status.AMBIGUOUS, pattern, valid, epochDay, nanoOfDay, offsetSeconds, hasDate, hasOffset);
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public boolean isMatched() {
+            return status == Status.MATCHED;
+        }
+
+        public boolean isAmbiguous() {
+            return status == Status.AMBIGUOUS;
+        }
+
+        // The pattern the values come from, null for NO_MATCH.
+        public String getPattern() {
+            return pattern;
+        }
+
+        // Every pattern the text is valid for: one when MATCHED, several when AMBIGUOUS, none for NO_MATCH.
+        public List<String> getCandidates() {
+            return candidates;
+        }
+
+        public boolean hasDate() {
+            return hasDate;
+        }
+
+        public boolean hasTime() {
+            return nanoOfDay >= 0;
+        }
+
+        public boolean hasOffset() {
+            return hasOffset;
+        }
+
+        public long getEpochDay() {
+            return epochDay;
+        }
+
+        // -1 without a time.
+        public long getNanoOfDay() {
+            return nanoOfDay;
+        }
+
+        public int getOffsetSeconds() {
+            return offsetSeconds;
+        }
+
+        // Epoch second of a date (at 00:00) or date-time, at its own offset or else at defaultOffset.
+        public long toEpochSecond(ZoneOffset defaultOffset) {
+            if (!hasDate) {
+                throw new IllegalStateException("No date in " + this);
+            }
+            int offset = hasOffset ? offsetSeconds : defaultOffset.getTotalSeconds();
+            long secondOfDay = hasTime() ? nanoOfDay / PackedInstant.NANOS_PER_SECOND : 0;
+            return epochDay * EpochDays.SECONDS_PER_DAY + secondOfDay - offset;
+        }
+
+        public TemporalAccessor toTemporal() {
+            if (status == Status.NO_MATCH) {
+                throw new IllegalStateException("No match");
+            }
+            LocalTime time = hasTime() ? LocalTime.ofNanoOfDay(nanoOfDay) : null;
+            if (!hasDate) {
+                return hasOffset ? OffsetTime.of(time, ZoneOffset.ofTotalSeconds(offsetSeconds)) : time;
+            }
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            if (time == null) {
+                return date;
+            }
+            LocalDateTime dateTime = LocalDateTime.of(date, time);
+            return hasOffset ? OffsetDateTime.of(dateTime, ZoneOffset.ofTotalSeconds(offsetSeconds)) : dateTime;
+        }
+
+        @Override
+        public String toString() {
+            return status == Status.NO_MATCH ? "Match[NO_MATCH]" : "Match[" + status + " " + pattern + " " + toTemporal() + "]";
+        }
+    }
+
+    /* Layouts */
+
+    // A compiled pattern: its elements, and the shapes (token sequences) of the texts it can match.
+    private static final class Layout {
+
+        final String pattern;
+        final List<String> candidates;
+        final int[] kinds;
+        final int[] widths;
+        final char[] literals;
+        final boolean hasDate;
+        final boolean hasTime;
+        final boolean hasOffset;
+
+        Layout(String pattern) {
+            this.pattern = pattern;
+            this.candidates = List.of(pattern);
+            List<int[]> elements = new ArrayList<>();
+            int length = pattern.length();
+            int i = 0;
+            while (i < length) {
+                char c = pattern.charAt(i);
+                if (c == '\'') {
+                    i = quoted(pattern, i, elements);
+                    continue;
+                }
+                if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')) {
+                    elements.add(new int[] {LITERAL, 1, c});
+                    i++;
+                    continue;
+                }
+                int count = 1;
+                while (i + count < length && pattern.charAt(i + count) == c) {
+                    count++;
+                }
+                elements.add(letter(c, count));
+                i += count;
+            }
+            this.kinds = new int[elements.size()];
+            this.widths = new int[elements.size()];
+            this.literals = new char[elements.size()];
+            boolean[] seen = new boolean[LITERAL];
+            for (int e = 0; e < kinds.length; e++) {
+                int[] element = elements.get(e);
+                kinds[e] = element[0];
+                widths[e] = element[1];
+                if (element[0] == LITERAL) {
+                    literals[e] = (char) element[2];
+                } else if (seen[element[0]]) {
+                    throw new IllegalArgumentException("Field repeated in pattern: " + pattern);
+                } else {
+                    seen[element[0]] = true;
+                }
+                // A 1 or 2 digit field needs a non-digit on both sides to find its end.
+                if (isDigits(elements, e) && widths[e] == 0 && (isDigits(elements, e - 1) || isDigits(elements, e + 1))) {
+                    throw new IllegalArgumentException("Variable width field next to digits in pattern: " + pattern);
+                }
+            }
+            boolean year = seen[YEAR] || seen[YEAR_OF_ERA] || seen[REDUCED_YEAR];
+            this.hasDate = year || seen[MONTH] || seen[DAY];
+            this.hasTime = seen[HOUR] || seen[MINUTE] || seen[SECOND] || seen[FRACTION];
+            this.hasOffset = seen[OFFSET];
+            if (hasDate && !(year && seen[MONTH] && seen[DAY]) || hasTime && !seen[HOUR] || !hasDate && !hasTime) {
+                throw new IllegalArgumentException("Pattern needs year, month and day, or an hour: " + pattern);
+            }
+            if (hasOffset && !hasTime) {
+                throw new IllegalArgumentException("Offset without a time in pattern: " + pattern);
+            }
+        }
+
+        private static boolean isDigits(List<int[]> elements, int e) {
+            return e >= 0 && e < elements.size() && elements.get(e)[0] != LITERAL && elements.get(e)[0] != OFFSET;
+        }
+
+        // {kind, width (0 for 1 or 2 digits), literal}
+        private static int[] letter(char c, int count) {
+            switch (c) {
+                case 'y':
+                    if (count == 2) {
+                        return new int[] {REDUCED_YEAR, 2, 0};
+                    }
+                    return fixed(YEAR_OF_ERA, count, 4, c);
+                case 'u':
+                    return fixed(YEAR, count, 4, c);
+                case 'M':
+                    return variable(MONTH, count, c);
+                case 'd':
+                    return variable(DAY, count, c);
+                case 'H':
+                    return variable(HOUR, count, c);
+                case 'm':
+                    return fixed(MINUTE, count, 2, c);
+                case 's':
+                    return fixed(SECOND, count, 2, c);
+                case 'S':
+                    if (count > 9) {
+                        throw new IllegalArgumentException("Too many pattern letters: S" + count);
+                    }
+                    return new int[] {FRACTION, count, 0};
+                case 'X':
+                    return fixed(OFFSET, count, 3, c);
+                default:
+                    throw new IllegalArgumentException("Unsupported pattern letter: " + c);
+            }
+        }
+
+        private static int[] fixed(int kind, int count, int expected, char c) {
+            if (count != expected) {
+                throw new IllegalArgumentException("Unsupported pattern: " + String.valueOf(c).repeat(count));
+            }
+            return new int[] {kind, kind == OFFSET ? 0 : count, 0};
+        }
+
+        private static int[] variable(int kind, int count, char c) {
+            if (count > 2) {
+                throw new IllegalArgumentException("Unsupported pattern: " + String.valueOf(c).repeat(count));
+            }
+            return new int[] {kind, count == 1 ? 0 : 2, 0};
+        }
+
+        private static int quoted(String pattern, int start, List<int[]> elements) {
+            int length = pattern.length();
+            if (start + 1 < length && pattern.charAt(start + 1) == '\'') {
+                elements.add(new int[] {LITERAL, 1, '\''});
+                return start + 2;
+            }
+            int i = start + 1;
+            while (i < length) {
+                char c = pattern.charAt(i);
+                if (c == '\'') {
+                    if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+                        elements.add(new int[] {LITERAL, 1, '\''});
+                        i += 2;
+                        continue;
+                    }
+                    return i + 1;
+                }
+                if (c >= '0' && c <= '9') {
+                    throw new IllegalArgumentException("Digits in quoted text: " + pattern);
+                }
+                elements.add(new int[] {LITERAL, 1, c});
+                i++;
+            }
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+
+        // Every token sequence of the pattern: 1 and 2 digits for each variable field, Z, +hh:mm and -hh:mm for XXX.
+        List<int[]> shapes() {
+            List<int[]> shapes = new ArrayList<>();
+            expand(0, new int[kinds.length * 4], 0, 0, shapes);
+            return shapes;
+        }
+
+        private void expand(int e, int[] shape, int size, int digits, List<int[]> shapes) {
+            if (e == kinds.length) {
+                if (digits > 0) {
+                    shape[size++] = DIGITS + digits;
+                }
+                shapes.add(Arrays.copyOf(shape, size));
+                return;
+            }
+            int kind = kinds[e];
+            if (kind != LITERAL && kind != OFFSET) {
+                if (widths[e] > 0) {
+                    expand(e + 1, shape, size, digits + widths[e], shapes);
+                } else {
+                    for (int width = 1; width <= 2; width++) {
+                        expand(e + 1, shape, size, width, shapes);
+                    }
+                }
+                return;
+            }
+            if (digits > 0) {
+                shape[size++] = DIGITS + digits;
+            }
+            if (kind == LITERAL) {
+                shape[size] = literals[e];
+                expand(e + 1, shape, size + 1, 0, shapes);
+                return;
+            }
+            shape[size] = 'Z';
+            expand(e + 1, shape, size + 1, 0, shapes);
+            for (char sign : new char[] {'+', '-'}) {
+                shape[size] = sign;
+                shape[size + 1] = DIGITS + 2;
+                shape[size + 2] = ':';
+                shape[size + 3] = DIGITS + 2;
+                expand(e + 1, shape, size + 4, 0, shapes);
+            }
+        }
+
+        // Reads the fields of a text of one of this layout's shapes, null when a value is out of range.
+        Match read(CharSequence text) {
+            int year = 0;
+            int month = 0;
+            int day = 0;
+            int hour = 0;
+            int minute = 0;
+            int second = 0;
+            int nano = 0;
+            int offset = 0;
+            int i = 0;
+            for (int e = 0; e < kinds.length; e++) {
+                int kind = kinds[e];
+                if (kind == LITERAL) {
+                    i++;
+                    continue;
+                }
+                if (kind == OFFSET) {
+                    char sign = text.charAt(i);
+                    if (sign == 'Z') {
+                        i++;
+                        continue;
+                    }
+                    int hours = digits(text, i + 1, 2);
+                    int minutes = digits(text, i + 4, 2);
+                    if (hours > 18 || minutes > 59 || hours == 18 && minutes > 0) {
+                        return null;
+                    }
+                    offset = (hours * 3600 + minutes * 60) * (sign == '-' ? -1 : 1);
+                    i += 6;
+                    continue;
+                }
+                int width = widths[e];
+                if (width == 0) {
+                    width = i + 1 < text.length() && isDigit(text.charAt(i + 1)) ? 2 : 1;
+                }
+                int value = digits(text, i, width);
+                i += width;
+                switch (kind) {
+                    case YEAR:
+                    case YEAR_OF_ERA:
+                        year = value;
+                        break;
+                    case REDUCED_YEAR:
+                        year = 2000 + value;
+                        break;
+                    case MONTH:
+                        month = value;
+                        break;
+                    case DAY:
+                        day = value;
+                        break;
+                    case HOUR:
+                        hour = value;
+                        break;
+                    case MINUTE:
+                        minute = value;
+                        break;
+                    case SECOND:
+                        second = value;
+                        break;
+                    default:
+                        nano = value;
+                        for (int w = width; w < 9; w++) {
+                            nano *= 10;
+                        }
+                }
+            }
+            long epochDay = 0;
+            if (hasDate) {
+                int minYear = kinds[yearIndex()] == YEAR ? 0 : 1;
+                if (year < minYear || month < 1 || month > 12 || day < 1 || day > EpochDays.lengthOfMonth(year, month)) {
+                    return null;
+                }
+                epochDay = EpochDays.of(year, month, day);
+            }
+            long nanoOfDay = -1;
+            if (hasTime) {
+                if (hour > 23 || minute > 59 || second > 59) {
+                    return null;
+                }
+                nanoOfDay = (hour * 3600L + minute * 60 + second) * PackedInstant.NANOS_PER_SECOND + nano;
+            }
+            return new Match(Status.MATCHED, pattern, candidates, epochDay, nanoOfDay, offset, hasDate, hasOffset);
+        }
+
+        private int yearIndex() {
+            for (int e = 0; ; e++) {
+                if (kinds[e] == YEAR || kinds[e] == YEAR_OF_ERA || kinds[e] == REDUCED_YEAR) {
+                    return e;
+                }
+            }
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        // The shape was matched, so these are all digits.
+        private static int digits(CharSequence text, int from, int width) {
+            int value = 0;
+            for (int i = from; i < from + width; i++) {
+                value = value * 10 + text.charAt(i) - '0';
+            }
+            return value;
+        }
+    }
+
+    private static final class TrieBuilder {
+
+        private final List<List<Integer>> nodeTokens = new ArrayList<>();
+        private final List<List<Integer>> nodeChildren = new ArrayList<>();
+        private final List<int[]> nodeAccepts = new ArrayList<>();
+
+        TrieBuilder() {
+            newNode();
+        }
+
+        private int newNode() {
+            nodeTokens.add(new ArrayList<>());
+            nodeChildren.add(new ArrayList<>());
+            nodeAccepts.add(null);
+            return nodeTokens.size() - 1;
+        }
+
+        void add(int[] shape, int layout) {
+            int node = 0;
+            for (int token : shape) {
+                int index = nodeTokens.get(node).indexOf(token);
+                if (index < 0) {
+                    int child = newNode();
+                    nodeTokens.get(node).add(token);
+                    nodeChildren.get(node).add(child);
+                    node = child;
+                } else {
+                    node = nodeChildren.get(node).get(index);
+                }
+            }
+            int[] accepted = nodeAccepts.get(node);
+            if (accepted == null) {
+                nodeAccepts.set(node, new int[] {layout});
+            } else if (accepted[accepted.length - 1] != layout) {
+                int[] more = Arrays.copyOf(accepted, accepted.length + 1);
+                more[accepted.length] = layout;
+                nodeAccepts.set(node, more);
+            }
+        }
+
+        int[][] tokens() {
+            return toArrays(nodeTokens);
+        }
+
+        int[][] children() {
+            return toArrays(nodeChildren);
+        }
+
+        int[][] accepts() {
+            return nodeAccepts.toArray(new int[0][]);
+        }
+
+        private static int[][] toArrays(List<List<Integer>> lists) {
+            int[][] arrays = new int[lists.size()][];
+            for (int i = 0; i < arrays.length; i++) {
+                arrays[i] = lists.get(i).stream().mapToInt(Integer::intValue).toArray();
+            }
+            return arrays;
+        }
+    }
+
+}
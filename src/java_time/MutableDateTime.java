@@ -0,0 +1,458 @@
+package java_time;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Objects;
+
+/* MutableDateTime -> A lightweight, mutable date-time with lazy field computation, for set/add/get loops.
+Calendar keeps int[] fields, set flags and the time in millis: every add() or get() after a set() recomputes the time
+and then all seventeen fields again. This class keeps only primitives and computes a representation when it is read:
+* fields  -> year, month (1 - 12), day, hour, minute, second and nano, the values that were set or last read
+* local   -> epoch-day + nano-of-day, for day-of-week, day-of-year and day adds
+* instant -> epoch second + nano, for elapsed-time adds and getEpochSecond/getEpochMilli
+
+Sets are deferred and lenient like Calendar: they only store the value, and all pending fields are resolved together
+on the next read, so setHour(34) followed by setDayOfMonth(18) gives the 19th at 10:00. Month and year adds pin the
+day to the end of the month, day adds keep the wall-clock time, and hour/minute/second adds are elapsed time on the
+instant time-line. Zone offsets are cached until the next transition.
+
+Resolution follows GregorianCalendar: a wall-clock time in a DST gap uses the offset before the gap (so it moves
+forward), a time in an overlap uses the offset after it (the later instant), and day adds that land on a transition
+are adjusted from the previous offset the way GregorianCalendar.add does. Dates use the proleptic ISO calendar, so
+values before the 1582 Gregorian cut-over (and before the first transition of the zone, where java.time uses the local
+mean time) differ from GregorianCalendar. The class is not thread-safe. */
+
+public final class MutableDateTime {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long NANOS_PER_MINUTE = 60L * NANOS_PER_SECOND;
+    private static final long NANOS_PER_HOUR = 60L * NANOS_PER_MINUTE;
+    private static final long NANOS_PER_DAY = 24L * NANOS_PER_HOUR;
+
+    // Local dates more than 2 days away from a transition can't be ambiguous.
+    private static final long SAFE_DISTANCE = 2L * EpochDays.SECONDS_PER_DAY;
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final ZoneOffset fixedOffset;
+
+    // Fields. When pending is true they were set (maybe out of range) and nothing else is valid yet.
+    private boolean pending;
+    private boolean fieldsValid;
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private int minute;
+    private int second;
+    private long nanoOfSecond;
+    private int halfDay;
+
+    // Local date-time.
+    private boolean localValid;
+    private long epochDay;
+    private long nanoOfDay;
+
+    // Instant.
+    private boolean instantValid;
+    private long epochSecond;
+    private int nano;
+
+    // Offset in force for epoch seconds [offsetFrom, offsetUntil), and the period used before it, so that arithmetic
+    // going back and forth over one transition doesn't look the rules up again.
+    private int offsetSeconds;
+    private long offsetFrom = 1;
+    private long offsetUntil = 0;
+    private int previousOffsetSeconds;
+    private long previousFrom = 1;
+    private long previousUntil = 0;
+
+    public MutableDateTime(ZoneId zone) {
+        this.zone = Objects.requireNonNull(zone, "zone");
+        this.rules = zone.getRules();
+        this.fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+        setEpochSecond(0, 0);
+    }
+
+    public static MutableDateTime of(Instant instant, ZoneId zone) {
+        MutableDateTime dateTime = new MutableDateTime(zone);
+        dateTime.setEpochSecond(instant.getEpochSecond(), instant.getNano());
+        return dateTime;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /* Instant */
+
+    public MutableDateTime setEpochSecond(long epochSecond, int nanoOfSecond) {
+        this.epochSecond = epochSecond;
+        this.nano = nanoOfSecond;
+        instantValid = true;
+        localValid = false;
+        fieldsValid = false;
+        pending = false;
+        return this;
+    }
+
+    public MutableDateTime setEpochMilli(long epochMilli) {
+        return setEpochSecond(Math.floorDiv(epochMilli, 1000L), (int) Math.floorMod(epochMilli, 1000L) * 1_000_000);
+    }
+
+    public long getEpochSecond() {
+        instant();
+        return epochSecond;
+    }
+
+    public long getEpochMilli() {
+        instant();
+        return Math.addExact(Math.multiplyExact(epochSecond, 1000L), nano / 1_000_000);
+    }
+
+    public Instant toInstant() {
+        instant();
+        return Instant.ofEpochSecond(epochSecond, nano);
+    }
+
+    public LocalDateTime toLocalDateTime() {
+        local();
+        return LocalDateTime.ofEpochSecond(epochDay * EpochDays.SECONDS_PER_DAY + nanoOfDay / NANOS_PER_SECOND,
+                (int) (nanoOfDay % NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+    public ZonedDateTime toZonedDateTime() {
+        return toInstant().atZone(zone);
+    }
+
+    /* Getters */
+
+    public int getYear() {
+        fields();
+        return year;
+    }
+
+    // 1 (January) - 12 (December).
+    public int getMonthValue() {
+        fields();
+        return month;
+    }
+
+    public int getDayOfMonth() {
+        fields();
+        return day;
+    }
+
+    // 1 (Monday) - 7 (Sunday).
+    public int getDayOfWeek() {
+        local();
+        return EpochDays.toDayOfWeek(epochDay);
+    }
+
+    public int getDayOfYear() {
+        fields();
+        return (int) (epochDay - EpochDays.of(year, 1, 1)) + 1;
+    }
+
+    public int getHour() {
+        fields();
+        return hour;
+    }
+
+    public int getMinute() {
+        fields();
+        return minute;
+    }
+
+    public int getSecond() {
+        fields();
+        return second;
+    }
+
+    public int getNano() {
+        fields();
+        return (int) nanoOfSecond;
+    }
+
+    /* Setters (deferred and lenient, out of range values roll into the neighbouring fields) */
+
+    public MutableDateTime setYear(int year) {
+        beginSet();
+        this.year = year;
+        return this;
+    }
+
+    // 1 (January) - 12 (December).
+    public MutableDateTime setMonth(int month) {
+        beginSet();
+        this.month = month;
+        return this;
+    }
+
+    public MutableDateTime setDayOfMonth(int dayOfMonth) {
+        beginSet();
+        this.day = dayOfMonth;
+        return this;
+    }
+
+    public MutableDateTime setDate(int year, int month, int dayOfMonth) {
+        beginSet();
+        this.year = year;
+        this.month = month;
+        this.day = dayOfMonth;
+        return this;
+    }
+
+    public MutableDateTime setHour(int hour) {
+        beginSet();
+        this.hour = hour;
+        return this;
+    }
+
+    // Hour within the AM or PM of the last resolved time, like Calendar.HOUR: setHourOfAmPm(3) at 14:00 gives 15:00.
+    public MutableDateTime setHourOfAmPm(int hourOfAmPm) {
+        beginSet();
+        this.hour = halfDay * 12 + hourOfAmPm;
+        return this;
+    }
+
+    public MutableDateTime setMinute(int minute) {
+        beginSet();
+        this.minute = minute;
+        return this;
+    }
+
+    public MutableDateTime setSecond(int second) {
+        beginSet();
+        this.second = second;
+        return this;
+    }
+
+    public MutableDateTime setNano(long nanoOfSecond) {
+        beginSet();
+        this.nanoOfSecond = nanoOfSecond;
+        return this;
+    }
+
+    public MutableDateTime setNanoOfDay(long nanoOfDay) {
+        beginSet();
+        hour = Math.toIntExact(Math.floorDiv(nanoOfDay, NANOS_PER_HOUR));
+        long rest = Math.floorMod(nanoOfDay, NANOS_PER_HOUR);
+        minute = (int) (rest / NANOS_PER_MINUTE);
+        second = (int) (rest / NANOS_PER_SECOND % 60);
+        nanoOfSecond = rest % NANOS_PER_SECOND;
+        return this;
+    }
+
+    /* Date arithmetic (local time-line, wall-clock time kept) */
+
+    public MutableDateTime plusYears(long years) {
+        return plusMonths(Math.multiplyExact(years, 12L));
+    }
+
+    // The day is pinned to the last day of the resulting month.
+    public MutableDateTime plusMonths(long months) {
+        fields();
+        long total = Math.addExact(year * 12L + (month - 1), months);
+        int y = Math.toIntExact(Math.floorDiv(total, 12L));
+        int m = (int) Math.floorMod(total, 12L) + 1;
+        return setDate(y, m, Math.min(day, EpochDays.lengthOfMonth(y, m)));
+    }
+
+    public MutableDateTime plusWeeks(long weeks) {
+        return plusDays(Math.multiplyExact(weeks, 7L));
+    }
+
+    // Same steps as GregorianCalendar.add(DAY_OF_MONTH): the wall-clock time is read with the current offset, and
+    // moved by the offset change when that keeps the expected date.
+    public MutableDateTime plusDays(long days) {
+        local();
+        instant();
+        int offset = offsetAt(epochSecond);
+        long targetDay = Math.addExact(epochDay, days);
+        long target = Math.addExact(Math.multiplyExact(targetDay, EpochDays.SECONDS_PER_DAY),
+                nanoOfDay / NANOS_PER_SECOND - offset);
+        int change = offset - offsetAt(target);
+        if (change != 0 && Math.floorDiv(target + change + offsetAt(target + change), EpochDays.SECONDS_PER_DAY) == targetDay) {
+            target += change;
+        }
+        return setEpochSecond(target, nano);
+    }
+
+    /* Time arithmetic (instant time-line, elapsed time) */
+
+    public MutableDateTime plusHours(long hours) {
+        return plusNanos(Math.multiplyExact(hours, NANOS_PER_HOUR));
+    }
+
+    public MutableDateTime plusMinutes(long minutes) {
+        return plusNanos(Math.multiplyExact(minutes, NANOS_PER_MINUTE));
+    }
+
+    public MutableDateTime plusSeconds(long seconds) {
+        return plusNanos(Math.multiplyExact(seconds, NANOS_PER_SECOND));
+    }
+
+    public MutableDateTime plusMillis(long millis) {
+        return plusNanos(Math.multiplyExact(millis, NANOS_PER_MILLI));
+    }
+
+    public MutableDateTime plusNanos(long nanos) {
+        instant();
+        long total = nano + Math.floorMod(nanos, NANOS_PER_SECOND);
+        return setEpochSecond(Math.addExact(epochSecond, Math.floorDiv(nanos, NANOS_PER_SECOND) + total / NANOS_PER_SECOND),
+                (int) (total % NANOS_PER_SECOND));
+    }
+
+    @Override
+    public String toString() {
+        return toZonedDateTime().toString();
+    }
+
+    /* Lazy state */
+
+    private void beginSet() {
+        if (!pending) {
+            fields();
+            halfDay = hour / 12;
+            pending = true;
+            localValid = false;
+            instantValid = false;
+        }
+    }
+
+    private void fields() {
+        if (fieldsValid && !pending) {
+            return;
+        }
+        local();
+        if (!fieldsValid) {
+            year = EpochDays.toYear(epochDay);
+            month = EpochDays.toMonth(epochDay);
+            day = EpochDays.toDayOfMonth(epochDay);
+            hour = (int) (nanoOfDay / NANOS_PER_HOUR);
+            minute = (int) (nanoOfDay / NANOS_PER_MINUTE % 60);
+            second = (int) (nanoOfDay / NANOS_PER_SECOND % 60);
+            nanoOfSecond = nanoOfDay % NANOS_PER_SECOND;
+            fieldsValid = true;
+        }
+    }
+
+    private void local() {
+        if (localValid) {
+            return;
+        }
+        if (pending) {
+            resolve();
+            return;
+        }
+        long localSecond = Math.addExact(epochSecond, offsetAt(epochSecond));
+        epochDay = Math.floorDiv(localSecond, EpochDays.SECONDS_PER_DAY);
+        nanoOfDay = Math.floorMod(localSecond, EpochDays.SECONDS_PER_DAY) * NANOS_PER_SECOND + nano;
+        localValid = true;
+    }
+
+    private void instant() {
+        if (!instantValid) {
+            resolve();
+        }
+    }
+
+    // Normalizes the pending fields (month 14, hour 34 ...) into the local date-time and the instant together,
+    // like Calendar.computeTime. The fields stay valid when they were already in range and not in a gap.
+    private void resolve() {
+        long months = year * 12L + (month - 1);
+        int y = Math.toIntExact(Math.floorDiv(months, 12L));
+        int m = (int) Math.floorMod(months, 12L) + 1;
+        long time = Math.addExact(Math.addExact(Math.multiplyExact(hour, NANOS_PER_HOUR), Math.multiplyExact(minute, NANOS_PER_MINUTE)),
+                Math.addExact(second * NANOS_PER_SECOND, nanoOfSecond));
+        epochDay = Math.addExact(EpochDays.of(y, m, 1) + (day - 1L), Math.floorDiv(time, NANOS_PER_DAY));
+        nanoOfDay = Math.floorMod(time, NANOS_PER_DAY);
+        localValid = true;
+        fieldsValid = y == year && m == month && day >= 1 && day <= EpochDays.lengthOfMonth(y, m)
+                && time >= 0 && time < NANOS_PER_DAY && nanoOfSecond >= 0 && nanoOfSecond < NANOS_PER_SECOND
+                && hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60;
+        pending = false;
+
+        long localSecond = Math.addExact(Math.multiplyExact(epochDay, EpochDays.SECONDS_PER_DAY), nanoOfDay / NANOS_PER_SECOND);
+        int offset = offsetForLocal(localSecond);
+        epochSecond = localSecond - offset;
+        nano = (int) (nanoOfDay % NANOS_PER_SECOND);
+        instantValid = true;
+        if (offsetAt(epochSecond) != offset) {
+            // Gap: the wall-clock time does not exist and moves forward, like GregorianCalendar.
+            localValid = false;
+            fieldsValid = false;
+            local();
+        }
+    }
+
+    private int offsetAt(long epochSecond) {
+        if (fixedOffset != null) {
+            return fixedOffset.getTotalSeconds();
+        }
+        if (epochSecond >= offsetFrom && epochSecond < offsetUntil) {
+            return offsetSeconds;
+        }
+        swapPeriods();
+        if (epochSecond < offsetFrom || epochSecond >= offsetUntil) {
+            Instant instant = Instant.ofEpochSecond(epochSecond);
+            ZoneOffsetTransition previous = rules.previousTransition(Instant.ofEpochSecond(epochSecond + 1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            offsetSeconds = rules.getOffset(instant).getTotalSeconds();
+            offsetFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+            offsetUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+        }
+        return offsetSeconds;
+    }
+
+    private void swapPeriods() {
+        int seconds = offsetSeconds;
+        long from = offsetFrom;
+        long until = offsetUntil;
+        offsetSeconds = previousOffsetSeconds;
+        offsetFrom = previousFrom;
+        offsetUntil = previousUntil;
+        previousOffsetSeconds = seconds;
+        previousFrom = from;
+        previousUntil = until;
+    }
+
+    private boolean isSafe(long localSecond, int offset, long from, long until) {
+        long candidate = localSecond - offset;
+        return from <= until && candidate - SAFE_DISTANCE >= from && candidate + SAFE_DISTANCE < until;
+    }
+
+    // Gap -> offset before (the time moves forward), overlap -> offset after (the later instant).
+    private int offsetForLocal(long localSecond) {
+        if (fixedOffset != null) {
+            return fixedOffset.getTotalSeconds();
+        }
+        if (isSafe(localSecond, offsetSeconds, offsetFrom, offsetUntil)) {
+            return offsetSeconds;
+        }
+        if (isSafe(localSecond, previousOffsetSeconds, previousFrom, previousUntil)) {
+            swapPeriods();
+            return offsetSeconds;
+        }
+        LocalDateTime local = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+        ZoneOffsetTransition transition = rules.getTransition(local);
+        int offset;
+        if (transition == null) {
+            offset = rules.getOffset(local).getTotalSeconds();
+        } else if (transition.isGap()) {
+            offset = transition.getOffsetBefore().getTotalSeconds();
+        } else {
+            offset = transition.getOffsetAfter().getTotalSeconds();
+        }
+        offsetAt(localSecond - offset);
+        return offset;
+    }
+
+}
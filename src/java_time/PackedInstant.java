@@ -0,0 +1,168 @@
+package java_time;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+/* PackedInstant -> An Instant stored as a long: nanoseconds since 1970-01-01T00:00:00Z.
+An Instant object holds a long epoch-second and an int nano behind an object header. A single long of nanoseconds
+holds the same value in 8 bytes, sorts in time order with a plain long comparison and can be stored in a long[] or
+off-heap.
+
+A long of nanoseconds covers 1677-09-21T00:12:43.145224192Z to 2262-04-11T23:47:16.854775807Z. Converting an Instant
+outside that range throws DateTimeException, and arithmetic that overflows throws ArithmeticException, like
+Instant.toEpochMilli().
+
+-> Example:
+long instant = PackedInstant.of(Instant.parse("2007-12-03T04:15:30Z"));
+long pastWeek = PackedInstant.minusDays(instant, 7);        // same as instant.minus(7, ChronoUnit.DAYS)
+Duration d = PackedInstant.between(pastWeek, instant);      // same as Duration.between(pastWeekInstant, instant) */
+
+public final class PackedInstant {
+
+    static final long NANOS_PER_SECOND = 1_000_000_000L;
+    static final long NANOS_PER_MILLI = 1_000_000L;
+    static final long NANOS_PER_MINUTE = 60L * NANOS_PER_SECOND;
+    static final long NANOS_PER_HOUR = 60L * NANOS_PER_MINUTE;
+    static final long NANOS_PER_DAY = 24L * NANOS_PER_HOUR;
+
+    public static final long MIN = Long.MIN_VALUE;
+    public static final long MAX = Long.MAX_VALUE;
+
+    private PackedInstant() {
+    }
+
+    /* Conversion */
+
+    public static long of(Instant instant) {
+        return ofEpochSecond(instant.getEpochSecond(), instant.getNano());
+    }
+
+    public static long ofEpochSecond(long epochSecond, long nanoAdjustment) {
+        try {
+            return Math.addExact(Math.multiplyExact(epochSecond, NANOS_PER_SECOND), nanoAdjustment);
+        } catch (ArithmeticException e) {
+            throw new DateTimeException("Instant exceeds the packed range: " + epochSecond + "s " + nanoAdjustment + "ns");
+        }
+    }
+
+    public static long ofEpochMilli(long epochMilli) {
+        return Math.multiplyExact(epochMilli, NANOS_PER_MILLI);
+    }
+
+    public static Instant toInstant(long packed) {
+        return Instant.ofEpochSecond(getEpochSecond(packed), getNano(packed));
+    }
+
+    /* Fields */
+
+    public static long getEpochSecond(long packed) {
+        return Math.floorDiv(packed, NANOS_PER_SECOND);
+    }
+
+    public static int getNano(long packed) {
+        return (int) Math.floorMod(packed, NANOS_PER_SECOND);
+    }
+
+    public static long toEpochMilli(long packed) {
+        return Math.floorDiv(packed, NANOS_PER_MILLI);
+    }
+
+    // The same instant on the local time-line of the offset, as a PackedLocalDateTime.
+    public static long toLocalDateTime(long packed, ZoneOffset offset) {
+        return Math.addExact(packed, offset.getTotalSeconds() * NANOS_PER_SECOND);
+    }
+
+    // Like toLocalDateTime(packed, offset), with the offset looked up in a ZoneOffsetIndex.
+    public static long toLocalDateTime(long packed, ZoneOffsetIndex zone) {
+        return Math.addExact(packed, zone.getOffsetSeconds(getEpochSecond(packed)) * NANOS_PER_SECOND);
+    }
+
+    /* Arithmetic */
+
+    public static long plusNanos(long packed, long nanos) {
+        return Math.addExact(packed, nanos);
+    }
+
+    public static long plusMillis(long packed, long millis) {
+        return Math.addExact(packed, Math.multiplyExact(millis, NANOS_PER_MILLI));
+    }
+
+    public static long plusSeconds(long packed, long seconds) {
+        return Math.addExact(packed, Math.multiplyExact(seconds, NANOS_PER_SECOND));
+    }
+
+    public static long plusMinutes(long packed, long minutes) {
+        return Math.addExact(packed, Math.multiplyExact(minutes, NANOS_PER_MINUTE));
+    }
+
+    public static long plusHours(long packed, long hours) {
+        return Math.addExact(packed, Math.multiplyExact(hours, NANOS_PER_HOUR));
+    }
+
+    // A day is always 86400 seconds on the instant time-line (Instant.plus(1, ChronoUnit.DAYS)).
+    public static long plusDays(long packed, long days) {
+        return Math.addExact(packed, Math.multiplyExact(days, NANOS_PER_DAY));
+    }
+
+    public static long plusWeeks(long packed, long weeks) {
+        return plusDays(packed, Math.multiplyExact(weeks, 7L));
+    }
+
+    public static long minusNanos(long packed, long nanos) {
+        return Math.subtractExact(packed, nanos);
+    }
+
+    public static long minusMillis(long packed, long millis) {
+        return Math.subtractExact(packed, Math.multiplyExact(millis, NANOS_PER_MILLI));
+    }
+
+    public static long minusSeconds(long packed, long seconds) {
+        return Math.subtractExact(packed, Math.multiplyExact(seconds, NANOS_PER_SECOND));
+    }
+
+    public static long minusMinutes(long packed, long minutes) {
+        return Math.subtractExact(packed, Math.multiplyExact(minutes, NANOS_PER_MINUTE));
+    }
+
+    public static long minusHours(long packed, long hours) {
+        return Math.subtractExact(packed, Math.multiplyExact(hours, NANOS_PER_HOUR));
+    }
+
+    public static long minusDays(long packed, long days) {
+        return Math.subtractExact(packed, Math.multiplyExact(days, NANOS_PER_DAY));
+    }
+
+    public static long minusWeeks(long packed, long weeks) {
+        return minusDays(packed, Math.multiplyExact(weeks, 7L));
+    }
+
+    // Same as Duration.between(start, end), in nanoseconds.
+    public static long nanosBetween(long start, long end) {
+        return Math.subtractExact(end, start);
+    }
+
+    public static Duration between(long start, long end) {
+        return Duration.ofNanos(nanosBetween(start, end));
+    }
+
+    /* Comparison */
+
+    public static int compare(long a, long b) {
+        return Long.compare(a, b);
+    }
+
+    public static boolean isBefore(long packed, long other) {
+        return packed < other;
+    }
+
+    public static boolean isAfter(long packed, long other) {
+        return packed > other;
+    }
+
+    public static String toString(long packed) {
+        return toInstant(packed).toString();
+    }
+
+}
@@ -0,0 +1,133 @@
+package java_time;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoField;
+
+/* PackedLocalDate -> A LocalDate stored as an int: the epoch-day (days since 1970-01-01).
+Every LocalDate is a heap object (header + year/month/day fields + a reference to it). An int epoch-day holds the
+same value in 4 bytes, can live in an int[] or off-heap, and sorts in date order with a plain int comparison.
+
+All methods are static and work on the packed int. The range is the full int range of epoch-days, which covers
+every year between about -5,800,000 and +5,800,000. Arithmetic that leaves that range throws ArithmeticException.
+
+-> Example:
+int ld = PackedLocalDate.of(2007, 12, 3);           // same as LocalDate.of(2007, 12, 3)
+int next = PackedLocalDate.plusWeeks(ld, 1);        // same as ld.plusWeeks(1)
+LocalDate date = PackedLocalDate.toLocalDate(next); // 2007-12-10 */
+
+public final class PackedLocalDate {
+
+    private PackedLocalDate() {
+    }
+
+    /* Conversion */
+
+    public static int of(int year, int month, int dayOfMonth) {
+        ChronoField.YEAR.checkValidValue(year);
+        ChronoField.MONTH_OF_YEAR.checkValidValue(month);
+        if (dayOfMonth < 1 || dayOfMonth > EpochDays.lengthOfMonth(year, month)) {
+            throw new DateTimeException("Invalid date: " + year + "-" + month + "-" + dayOfMonth);
+        }
+        return Math.toIntExact(EpochDays.of(year, month, dayOfMonth));
+    }
+
+    public static int of(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    public static int ofEpochDay(long epochDay) {
+        return Math.toIntExact(epochDay);
+    }
+
+    public static LocalDate toLocalDate(int packed) {
+        return LocalDate.ofEpochDay(packed);
+    }
+
+    /* Fields */
+
+    public static int getYear(int packed) {
+        return EpochDays.toYear(packed);
+    }
+
+    public static int getMonthValue(int packed) {
+        return EpochDays.toMonth(packed);
+    }
+
+    public static int getDayOfMonth(int packed) {
+        return EpochDays.toDayOfMonth(packed);
+    }
+
+    public static DayOfWeek getDayOfWeek(int packed) {
+        return DayOfWeek.of(EpochDays.toDayOfWeek(packed));
+    }
+
+    public static int getDayOfYear(int packed) {
+        return packed - Math.toIntExact(EpochDays.of(getYear(packed), 1, 1)) + 1;
+    }
+
+    /* Arithmetic */
+
+    public static int plusDays(int packed, long days) {
+        return Math.toIntExact(Math.addExact(packed, days));
+    }
+
+    public static int minusDays(int packed, long days) {
+        return Math.toIntExact(Math.subtractExact((long) packed, days));
+    }
+
+    public static int plusWeeks(int packed, long weeks) {
+        return plusDays(packed, Math.multiplyExact(weeks, 7L));
+    }
+
+    public static int minusWeeks(int packed, long weeks) {
+        return minusDays(packed, Math.multiplyExact(weeks, 7L));
+    }
+
+    // Same as LocalDate.plusMonths: the day is clamped to the last valid day of the resulting month.
+    public static int plusMonths(int packed, long months) {
+        int year = getYear(packed);
+        long monthCount = year * 12L + (getMonthValue(packed) - 1) + months;
+        long newYear = Math.floorDiv(monthCount, 12L);
+        int newMonth = (int) Math.floorMod(monthCount, 12L) + 1;
+        int day = Math.min(getDayOfMonth(packed), EpochDays.lengthOfMonth(newYear, newMonth));
+        return Math.toIntExact(EpochDays.of(Math.toIntExact(newYear), newMonth, day));
+    }
+
+    public static int minusMonths(int packed, long months) {
+        return plusMonths(packed, Math.negateExact(months));
+    }
+
+    public static int plusYears(int packed, long years) {
+        return plusMonths(packed, Math.multiplyExact(years, 12L));
+    }
+
+    public static int minusYears(int packed, long years) {
+        return plusMonths(packed, Math.multiplyExact(years, -12L));
+    }
+
+    // Same as ChronoUnit.DAYS.between(start, end).
+    public static long daysBetween(int start, int end) {
+        return (long) end - start;
+    }
+
+    /* Comparison */
+
+    public static int compare(int a, int b) {
+        return Integer.compare(a, b);
+    }
+
+    public static boolean isBefore(int packed, int other) {
+        return packed < other;
+    }
+
+    public static boolean isAfter(int packed, int other) {
+        return packed > other;
+    }
+
+    public static String toString(int packed) {
+        return toLocalDate(packed).toString();
+    }
+
+}
@@ -0,0 +1,186 @@
+package java_time;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/* PackedLocalDateTime -> A LocalDateTime stored as a long: nanoseconds since 1970-01-01T00:00 on the local time-line.
+A LocalDateTime is three heap objects (the LocalDateTime and its LocalDate and LocalTime). The packed long holds the
+same value in 8 bytes and sorts in date-time order with a plain long comparison.
+
+The encoding is the same as PackedInstant, but without a zone: the value is "wall clock" time. Converting between the
+two needs an offset (toInstant / PackedInstant.toLocalDateTime). The range is 1677-09-21T00:12:43.145224192 to
+2262-04-11T23:47:16.854775807; converting a LocalDateTime outside of it throws DateTimeException and arithmetic that
+overflows throws ArithmeticException.
+
+-> Example:
+long ldt = PackedLocalDateTime.of(2007, 12, 3, 4, 15, 30);  // same as LocalDateTime.of(2007, 12, 3, 4, 15, 30)
+long earlier = PackedLocalDateTime.minusHours(ldt, 5);      // same as ldt.minusHours(5)
+int day = PackedLocalDateTime.getDayOfMonth(earlier);       // 2 */
+
+public final class PackedLocalDateTime {
+
+    private PackedLocalDateTime() {
+    }
+
+    /* Conversion */
+
+    public static long of(int year, int month, int dayOfMonth, int hour, int minute, int second) {
+        return of(year, month, dayOfMonth, hour, minute, second, 0);
+    }
+
+    public static long of(int year, int month, int dayOfMonth, int hour, int minute, int second, int nanoOfSecond) {
+        return of(LocalDateTime.of(year, month, dayOfMonth, hour, minute, second, nanoOfSecond));
+    }
+
+    public static long of(LocalDateTime dateTime) {
+        return PackedInstant.ofEpochSecond(dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano());
+    }
+
+    // Date at the start of the day (00:00).
+    public static long ofDate(int packedDate) {
+        try {
+            return Math.multiplyExact((long) packedDate, PackedInstant.NANOS_PER_DAY);
+        } catch (ArithmeticException e) {
+            throw new DateTimeException("Date exceeds the packed range: " + PackedLocalDate.toString(packedDate));
+        }
+    }
+
+    public static LocalDateTime toLocalDateTime(long packed) {
+        return LocalDateTime.ofEpochSecond(PackedInstant.getEpochSecond(packed), PackedInstant.getNano(packed), ZoneOffset.UTC);
+    }
+
+    public static long toInstant(long packed, ZoneOffset offset) {
+        return Math.subtractExact(packed, offset.getTotalSeconds() * PackedInstant.NANOS_PER_SECOND);
+    }
+
+    // The date part as a PackedLocalDate.
+    public static int toLocalDate(long packed) {
+        return (int) Math.floorDiv(packed, PackedInstant.NANOS_PER_DAY);
+    }
+
+    public static long toNanoOfDay(long packed) {
+        return Math.floorMod(packed, PackedInstant.NANOS_PER_DAY);
+    }
+
+    /* Fields */
+
+    public static int getYear(long packed) {
+        return EpochDays.toYear(toLocalDate(packed));
+    }
+
+    public static int getMonthValue(long packed) {
+        return EpochDays.toMonth(toLocalDate(packed));
+    }
+
+    public static int getDayOfMonth(long packed) {
+        return EpochDays.toDayOfMonth(toLocalDate(packed));
+    }
+
+    public static DayOfWeek getDayOfWeek(long packed) {
+        return DayOfWeek.of(EpochDays.toDayOfWeek(toLocalDate(packed)));
+    }
+
+    public static int getHour(long packed) {
+        return (int) (toNanoOfDay(packed) / PackedInstant.NANOS_PER_HOUR);
+    }
+
+    public static int getMinute(long packed) {
+        return (int) (toNanoOfDay(packed) / PackedInstant.NANOS_PER_MINUTE % 60);
+    }
+
+    public static int getSecond(long packed) {
+        return (int) (toNanoOfDay(packed) / PackedInstant.NANOS_PER_SECOND % 60);
+    }
+
+    public static int getNano(long packed) {
+        return PackedInstant.getNano(packed);
+    }
+
+    /* Arithmetic. Time units are exact durations on the local time-line, date units follow LocalDateTime. */
+
+    public static long plusNanos(long packed, long nanos) {
+        return PackedInstant.plusNanos(packed, nanos);
+    }
+
+    public static long plusSeconds(long packed, long seconds) {
+        return PackedInstant.plusSeconds(packed, seconds);
+    }
+
+    public static long plusMinutes(long packed, long minutes) {
+        return PackedInstant.plusMinutes(packed, minutes);
+    }
+
+    public static long plusHours(long packed, long hours) {
+        return PackedInstant.plusHours(packed, hours);
+    }
+
+    public static long plusDays(long packed, long days) {
+        return PackedInstant.plusDays(packed, days);
+    }
+
+    public static long plusWeeks(long packed, long weeks) {
+        return PackedInstant.plusWeeks(packed, weeks);
+    }
+
+    public static long plusMonths(long packed, long months) {
+        int date = PackedLocalDate.plusMonths(toLocalDate(packed), months);
+        return Math.addExact(ofDate(date), toNanoOfDay(packed));
+    }
+
+    public static long plusYears(long packed, long years) {
+        return plusMonths(packed, Math.multiplyExact(years, 12L));
+    }
+
+    public static long minusNanos(long packed, long nanos) {
+        return PackedInstant.minusNanos(packed, nanos);
+    }
+
+    public static long minusSeconds(long packed, long seconds) {
+        return PackedInstant.minusSeconds(packed, seconds);
+    }
+
+    public static long minusMinutes(long packed, long minutes) {
+        return PackedInstant.minusMinutes(packed, minutes);
+    }
+
+    public static long minusHours(long packed, long hours) {
+        return PackedInstant.minusHours(packed, hours);
+    }
+
+    public static long minusDays(long packed, long days) {
+        return PackedInstant.minusDays(packed, days);
+    }
+
+    public static long minusWeeks(long packed, long weeks) {
+        return PackedInstant.minusWeeks(packed, weeks);
+    }
+
+    public static long minusMonths(long packed, long months) {
+        return plusMonths(packed, Math.negateExact(months));
+    }
+
+    public static long minusYears(long packed, long years) {
+        return plusMonths(packed, Math.multiplyExact(years, -12L));
+    }
+
+    /* Comparison */
+
+    public static int compare(long a, long b) {
+        return Long.compare(a, b);
+    }
+
+    public static boolean isBefore(long packed, long other) {
+        return packed < other;
+    }
+
+    public static boolean isAfter(long packed, long other) {
+        return packed > other;
+    }
+
+    public static String toString(long packed) {
+        return toLocalDateTime(packed).toString();
+    }
+
+}
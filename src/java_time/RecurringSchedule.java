@@ -0,0 +1,282 @@
+package java_time;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/* RecurringSchedule -> Occurrences of a rule like "every Monday 09:00 America/New_York" as a lazy LongStream of
+epoch seconds.
+Program finds next week with plusWeeks (nextWeekZonedDateTime). Expanding a schedule that way creates a
+ZonedDateTime per occurrence and resolves the zone rules for each one, and the result in a DST gap or overlap depends
+on whether LocalDateTime or ZonedDateTime does the stepping.
+
+Here the occurrences are computed on the local time-line: the week is a fixed cycle of local second offsets (day of
+week and time of day), so the next occurrence is an addition. The local time is turned into an epoch second with
+the offset of the current stretch between two transitions, and the ZoneRules are only asked again when an
+occurrence crosses the next transition. Every occurrence resolves like LocalDateTime.atZone(zone):
+* in a gap (02:30 on a spring-forward day) it moves forward by the length of the gap (03:30)
+* in an overlap (01:30 on a fall-back day) it takes the earlier offset
+The stream is in local time order, which is also time order except when a time in a gap is moved past a later time
+of the same day. Its Spliterator splits the range by occurrence number, so .parallel() expands on every core.
+
+-> Example:
+RecurringSchedule mondays = RecurringSchedule.weekly(ZoneId.of("America/New_York"), LocalTime.of(9, 0), MONDAY);
+long[] epochSeconds = mondays.epochSeconds(from, until).toArray();
+long count = mondays.everyWeeks(2, LocalDate.of(2024, 1, 1)).epochSeconds(from, until).parallel().count(); */
+
+public final class RecurringSchedule {
+
+    private static final long SECONDS_PER_WEEK = 7 * EpochDays.SECONDS_PER_DAY;
+    // 1970-01-05, the first Monday after the epoch.
+    private static final long FIRST_MONDAY = 4;
+    private static final int SPLIT_THRESHOLD = 1 << 12;
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    // Local second offsets of the occurrences in one cycle, sorted, and the cycle's length and first local second.
+    private final long[] offsets;
+    private final long cycleSeconds;
+    private final long origin;
+
+    private RecurringSchedule(ZoneId zone, long[] offsets, long cycleSeconds, long origin) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.offsets = offsets;
+        this.cycleSeconds = cycleSeconds;
+        this.origin = origin;
+    }
+
+    // On each of the days at the time, every week.
+    public static RecurringSchedule weekly(ZoneId zone, LocalTime time, DayOfWeek... days) {
+        Objects.requireNonNull(zone, "zone");
+        if (days.length == 0) {
+            throw new IllegalArgumentException("No day of week");
+        }
+        long secondOfDay = secondOfDay(time);
+        long[] offsets = new long[days.length];
+        for (int i = 0; i < days.length; i++) {
+            offsets[i] = (days[i].getValue() - 1) * EpochDays.SECONDS_PER_DAY + secondOfDay;
+        }
+        return new RecurringSchedule(zone, distinct(offsets), SECONDS_PER_WEEK, FIRST_MONDAY * EpochDays.SECONDS_PER_DAY);
+    }
+
+    // Every day at each of the times.
+    public static RecurringSchedule daily(ZoneId zone, LocalTime... times) {
+        Objects.requireNonNull(zone, "zone");
+        if (times.length == 0) {
+            throw new IllegalArgumentException("No time of day");
+        }
+        long[] offsets = new long[times.length];
+        for (int i = 0; i < times.length; i++) {
+            offsets[i] = secondOfDay(times[i]);
+        }
+        return new RecurringSchedule(zone, distinct(offsets), EpochDays.SECONDS_PER_DAY, 0);
+    }
+
+    private static long secondOfDay(LocalTime time) {
+        if (time.getNano() != 0) {
+            throw new IllegalArgumentException("Occurrences are whole seconds: " + time);
+        }
+        return time.toSecondOfDay();
+    }
+
+    private static long[] distinct(long[] offsets) {
+        return Arrays.stream(offsets).sorted().distinct().toArray();
+    }
+
+    // Same days and times, but only in every n-th week (Monday to Sunday), counted from the week of anchor.
+    public RecurringSchedule everyWeeks(int weeks, LocalDate anchor) {
+        if (weeks < 1) {
+            throw new IllegalArgumentException("weeks must be positive: " + weeks);
+        }
+        long[] weekOffsets = offsets;
+        if (cycleSeconds == EpochDays.SECONDS_PER_DAY) {
+            weekOffsets = new long[offsets.length * 7];
+            for (int day = 0; day < 7; day++) {
+                for (int i = 0; i < offsets.length; i++) {
+                    weekOffsets[day * offsets.length + i] = day * EpochDays.SECONDS_PER_DAY + offsets[i];
+                }
+            }
+        } else if (cycleSeconds != SECONDS_PER_WEEK) {
+            throw new IllegalStateException("Already restricted to every " + cycleSeconds / SECONDS_PER_WEEK + " weeks");
+        }
+        long anchorDay = anchor.toEpochDay();
+        long monday = anchorDay - Math.floorMod(anchorDay - FIRST_MONDAY, 7);
+        return new RecurringSchedule(zone, weekOffsets, weeks * SECONDS_PER_WEEK, monday * EpochDays.SECONDS_PER_DAY);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /* Expansion */
+
+    // Epoch seconds of the occurrences in [from, until).
+    public LongStream epochSeconds(Instant from, Instant until) {
+        long fromEpochSecond = from.getEpochSecond() + (from.getNano() > 0 ? 1 : 0);
+        long untilEpochSecond = until.getEpochSecond() + (until.getNano() > 0 ? 1 : 0);
+        return epochSeconds(fromEpochSecond, untilEpochSecond);
+    }
+
+    public LongStream epochSeconds(long fromEpochSecond, long untilEpochSecond) {
+        return StreamSupport.longStream(spliterator(fromEpochSecond, untilEpochSecond), false);
+    }
+
+    public Spliterator.OfLong spliterator(long fromEpochSecond, long untilEpochSecond) {
+        if (untilEpochSecond <= fromEpochSecond) {
+            return new Occurrences(fromEpochSecond, untilEpochSecond, 0, 0);
+        }
+        // Every local time of the range is within a day of the range's epoch seconds.
+        long localFrom = fromEpochSecond - EpochDays.SECONDS_PER_DAY;
+        long localUntil = untilEpochSecond + EpochDays.SECONDS_PER_DAY;
+        return new Occurrences(fromEpochSecond, untilEpochSecond, position(localFrom), position(localUntil));
+    }
+
+    // First occurrence after the epoch second. Every cycle has one, so looking one cycle (and a margin) ahead is enough.
+    public long next(long epochSecond) {
+        long from = Math.addExact(epochSecond, 1);
+        Spliterator.OfLong occurrences = spliterator(from, from + cycleSeconds + 2 * EpochDays.SECONDS_PER_DAY);
+        long[] next = {Long.MIN_VALUE};
+        occurrences.tryAdvance((long value) -> next[0] = value);
+        return next[0];
+    }
+
+    // Number of the first occurrence at or after the local epoch second. Occurrence p is offsets[p % n] in cycle p / n.
+    private long position(long local) {
+        long cycle = Math.floorDiv(local - origin, cycleSeconds);
+        long inCycle = local - origin - cycle * cycleSeconds;
+        int k = Arrays.binarySearch(offsets, inCycle);
+        return cycle * offsets.length + (k >= 0 ? k : -k - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "RecurringSchedule[" + zone + ", " + offsets.length + " time(s) every " + Duration.ofSeconds(cycleSeconds) + "]";
+    }
+
+    /* Occurrences */
+
+    // Occurrences number [position, end) whose epoch second is in [from, until).
+    private final class Occurrences implements Spliterator.OfLong {
+
+        private final long from;
+        private final long until;
+        private long position;
+        private final long end;
+
+        // Local seconds in [segmentStart, segmentEnd) are epoch second + offset; the segment is located lazily.
+        private long segmentStart = Long.MAX_VALUE;
+        private long segmentEnd = Long.MIN_VALUE;
+        private long offset;
+
+        Occurrences(long from, long until, long position, long end) {
+            this.from = from;
+            this.until = until;
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            while (position < end) {
+                long cycle = Math.floorDiv(position, offsets.length);
+                long local = origin + cycle * cycleSeconds + offsets[(int) (position - cycle * offsets.length)];
+                position++;
+                long epochSecond = toEpochSecond(local);
+                if (epochSecond >= from && epochSecond < until) {
+                    action.accept(epochSecond);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            if (position >= end) {
+                return;
+            }
+            int n = offsets.length;
+            long cycle = Math.floorDiv(position, n);
+            int k = (int) (position - cycle * n);
+            long cycleStart = origin + cycle * cycleSeconds;
+            for (long p = position; p < end; p++) {
+                long local = cycleStart + offsets[k];
+                long epochSecond = local >= segmentStart && local < segmentEnd ? local - offset : toEpochSecond(local);
+                if (epochSecond >= from && epochSecond < until) {
+                    action.accept(epochSecond);
+                }
+                if (++k == n) {
+                    k = 0;
+                    cycleStart += cycleSeconds;
+                }
+            }
+            position = end;
+        }
+
+        private long toEpochSecond(long local) {
+            if (local < segmentStart || local >= segmentEnd) {
+                locate(local);
+            }
+            return local - offset;
+        }
+
+        // The stretch of local time starting at local that has a single offset, up to the next gap or overlap.
+        private void locate(long local) {
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC);
+            ZoneOffsetTransition transition = rules.getTransition(dateTime);
+            if (transition != null) {
+                // In a gap or overlap: like atZone, the offset before the transition.
+                segmentStart = Math.min(localOf(transition.getDateTimeBefore()), localOf(transition.getDateTimeAfter()));
+                segmentEnd = Math.max(localOf(transition.getDateTimeBefore()), localOf(transition.getDateTimeAfter()));
+                offset = transition.getOffsetBefore().getTotalSeconds();
+                return;
+            }
+            offset = rules.getOffset(dateTime).getTotalSeconds();
+            segmentStart = local;
+            ZoneOffsetTransition next = rules.nextTransition(Instant.ofEpochSecond(local - offset));
+            segmentEnd = next == null ? Long.MAX_VALUE
+                    : Math.min(localOf(next.getDateTimeBefore()), localOf(next.getDateTimeAfter()));
+        }
+
+        private long localOf(LocalDateTime dateTime) {
+            return dateTime.toEpochSecond(ZoneOffset.UTC);
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            long size = end - position;
+            if (size < SPLIT_THRESHOLD) {
+                return null;
+            }
+            long middle = position + size / 2;
+            Occurrences prefix = new Occurrences(from, until, position, middle);
+            position = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Math.max(end - position, 0);
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+}
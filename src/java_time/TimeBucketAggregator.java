@@ -0,0 +1,421 @@
+package java_time;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/* TimeBucketAggregator -> Streaming count/sum/min/max per local-time bucket, emitted as tumbling or sliding windows.
+Program moves single values around with plusWeeks, minus(7, DAYS) and Duration.between. A metrics pipeline does the
+same for millions of events per second: every event goes to the hour (or day, week, month) it falls in, in a zone.
+
+Buckets are local-time periods of the zone, so in America/New_York the DST days are 23h and 25h buckets and the hour
+of 01:00 on the fall-back day is two hours long. Each bucket keeps count, sum, min and max in primitive arrays:
+* Partial            -> per-thread aggregate, no locking and no allocation on add (offsets from a ZoneOffsetIndex)
+* flush()            -> publishes a partial's buckets to the aggregator through a lock-free queue
+* advanceWatermark() -> merges the published partials and emits every window that ended at or before the watermark
+
+A tumbling window is one bucket. A sliding window is a run of consecutive buckets, e.g. 24 hours every hour, and is
+emitted when its last bucket closes if any of its buckets has data. Values published for buckets that were already
+closed by the watermark are dropped and counted as late events. advanceWatermark must be called by a single thread.
+
+-> Example:
+TimeBucketAggregator hourly = TimeBucketAggregator.tumbling(ChronoUnit.HOURS, ZoneId.of("America/New_York"));
+TimeBucketAggregator.Partial partial = hourly.newPartial();              // one per producer thread
+partial.add(epochSecond, latencyMicros);
+partial.flush();
+hourly.advanceWatermark(watermarkEpochSecond, (start, end, count, sum, min, max) -> ...); */
+
+public final class TimeBucketAggregator {
+
+    // Receives one window: [startEpochSecond, endEpochSecond) and the aggregate of the values in it.
+    @FunctionalInterface
+    public interface WindowListener {
+        void window(long startEpochSecond, long endEpochSecond, long count, long sum, long min, long max);
+    }
+
+    private static final long SECONDS_PER_WEEK = 7 * EpochDays.SECONDS_PER_DAY;
+    // 1970-01-01 is a Thursday, weeks start on Monday.
+    private static final long WEEK_SHIFT = 3 * EpochDays.SECONDS_PER_DAY;
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final ZoneOffsetIndex offsets;
+    private final boolean months;
+    private final long bucketSeconds;
+    private final long bucketShift;
+    private final int windowBuckets;
+
+    private final Queue<Chunk> published = new ConcurrentLinkedQueue<>();
+    private final LongAdder lateEvents = new LongAdder();
+
+    // Merged buckets, only used by the thread calling advanceWatermark. Buckets before closedBefore are closed.
+    private BucketTable merged = new BucketTable();
+    private long closedBefore = Long.MIN_VALUE;
+
+    private TimeBucketAggregator(ZoneId zone, boolean months, long bucketSeconds, long bucketShift, int windowBuckets) {
+        this.zone = Objects.requireNonNull(zone, "zone");
+        this.rules = zone.getRules();
+        this.offsets = ZoneOffsetIndex.of(zone, 1900, 2100);
+        this.months = months;
+        this.bucketSeconds = bucketSeconds;
+        this.bucketShift = bucketShift;
+        this.windowBuckets = windowBuckets;
+    }
+
+    // Fixed-size local buckets. The size must divide a day (1 minute, 15 minutes, 1 hour ...) or be whole days.
+    public static TimeBucketAggregator tumbling(Duration bucket, ZoneId zone) {
+        return new TimeBucketAggregator(zone, false, bucketSeconds(bucket), 0, 1);
+    }
+
+    // SECONDS, MINUTES, HOURS, HALF_DAYS, DAYS, WEEKS (Monday to Monday) or MONTHS.
+    public static TimeBucketAggregator tumbling(ChronoUnit unit, ZoneId zone) {
+        switch (unit) {
+            case WEEKS:
+                return new TimeBucketAggregator(zone, false, SECONDS_PER_WEEK, WEEK_SHIFT, 1);
+            case MONTHS:
+                return new TimeBucketAggregator(zone, true, 0, 0, 1);
+            case SECONDS:
+            case MINUTES:
+            case HOURS:
+            case HALF_DAYS:
+            case DAYS:
+                return tumbling(unit.getDuration(), zone);
+            default:
+                throw new IllegalArgumentException("Unsupported bucket unit: " + unit);
+        }
+    }
+
+    // Windows of the given length, starting every slide, e.g. sliding(ofHours(24), ofHours(1), zone) emits the last
+    // 24 local hours every hour. The window must be a multiple of the slide.
+    public static TimeBucketAggregator sliding(Duration window, Duration slide, ZoneId zone) {
+        long slideSeconds = bucketSeconds(slide);
+        long windowSeconds = window.getSeconds();
+        if (window.getNano() != 0 || windowSeconds <= 0 || windowSeconds % slideSeconds != 0) {
+            throw new IllegalArgumentException("Window " + window + " is not a multiple of the slide " + slide);
+        }
+        return new TimeBucketAggregator(zone, false, slideSeconds, 0, Math.toIntExact(windowSeconds / slideSeconds));
+    }
+
+    private static long bucketSeconds(Duration bucket) {
+        long seconds = bucket.getSeconds();
+        if (bucket.getNano() != 0 || seconds <= 0
+                || EpochDays.SECONDS_PER_DAY % seconds != 0 && seconds % EpochDays.SECONDS_PER_DAY != 0) {
+            throw new IllegalArgumentException("Bucket must divide a day or be whole days: " + bucket);
+        }
+        return seconds;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public Partial newPartial() {
+        return new Partial();
+    }
+
+    // Values dropped because their bucket was already closed when they were merged.
+    public long lateEvents() {
+        return lateEvents.sum();
+    }
+
+    /* Buckets */
+
+    // Bucket number of an epoch second, in local time.
+    public long bucketOf(long epochSecond) {
+        long local = epochSecond + offsets.getOffsetSeconds(epochSecond);
+        if (months) {
+            long epochDay = Math.floorDiv(local, EpochDays.SECONDS_PER_DAY);
+            return EpochDays.toYear(epochDay) * 12L + EpochDays.toMonth(epochDay) - 1;
+        }
+        return Math.floorDiv(local + bucketShift, bucketSeconds);
+    }
+
+    // First epoch second of a bucket. A start in a DST gap is the end of the gap, in an overlap the first occurrence.
+    public long bucketStart(long bucket) {
+        long local;
+        if (months) {
+            local = EpochDays.of(Math.toIntExact(Math.floorDiv(bucket, 12L)), (int) Math.floorMod(bucket, 12L) + 1, 1)
+                    * EpochDays.SECONDS_PER_DAY;
+        } else {
+            local = bucket * bucketSeconds - bucketShift;
+        }
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC);
+        ZoneOffsetTransition transition = rules.getTransition(dateTime);
+        int offset = transition != null ? transition.getOffsetBefore().getTotalSeconds() : rules.getOffset(dateTime).getTotalSeconds();
+        return local - offset;
+    }
+
+    /* Watermark */
+
+    // Merges the flushed partials, then emits, in time order, the windows ending at or before the watermark.
+    public void advanceWatermark(long epochSecond, WindowListener listener) {
+        for (Chunk chunk = published.poll(); chunk != null; chunk = published.poll()) {
+            for (int i = 0; i < chunk.buckets.length; i++) {
+                if (chunk.buckets[i] < closedBefore) {
+                    lateEvents.add(chunk.counts[i]);
+                } else {
+                    merged.add(chunk.buckets[i], chunk.counts[i], chunk.sums[i], chunk.mins[i], chunk.maxs[i]);
+                }
+            }
+        }
+        long open = bucketOf(epochSecond);
+        if (open <= closedBefore) {
+            return;
+        }
+        long[] dataBuckets = merged.sortedBuckets();
+        long nextEnd = closedBefore;
+        for (long bucket : dataBuckets) {
+            long last = Math.min(bucket + windowBuckets - 1, open - 1);
+            for (long end = Math.max(bucket, nextEnd); end <= last; end++) {
+                emit(end, listener);
+                nextEnd = end + 1;
+            }
+        }
+        closedBefore = open;
+        evict(dataBuckets, open - windowBuckets + 1);
+    }
+
+    public void advanceWatermark(Instant watermark, WindowListener listener) {
+        advanceWatermark(watermark.getEpochSecond(), listener);
+    }
+
+    private void emit(long end, WindowListener listener) {
+        long count = 0;
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long bucket = end - windowBuckets + 1; bucket <= end; bucket++) {
+            int slot = merged.find(bucket);
+            if (slot >= 0) {
+                count += merged.counts[slot];
+                sum += merged.sums[slot];
+                min = Math.min(min, merged.mins[slot]);
+                max = Math.max(max, merged.maxs[slot]);
+            }
+        }
+        listener.window(bucketStart(end - windowBuckets + 1), bucketStart(end + 1), count, sum, min, max);
+    }
+
+    // Keeps the buckets that are still part of a window to come.
+    private void evict(long[] dataBuckets, long keepFrom) {
+        if (dataBuckets.length == 0 || dataBuckets[0] >= keepFrom) {
+            return;
+        }
+        BucketTable kept = new BucketTable();
+        for (long bucket : dataBuckets) {
+            if (bucket >= keepFrom) {
+                int slot = merged.find(bucket);
+                kept.add(bucket, merged.counts[slot], merged.sums[slot], merged.mins[slot], merged.maxs[slot]);
+            }
+        }
+        merged = kept;
+    }
+
+    @Override
+    public String toString() {
+        String size = months ? "P1M" : Duration.ofSeconds(bucketSeconds).toString();
+        return "TimeBucketAggregator[" + zone + ", bucket " + size + ", window " + windowBuckets + " bucket(s)]";
+    }
+
+    /* Partial */
+
+    // Aggregate owned by one producer thread. Not thread-safe; flush() hands its buckets over to the aggregator.
+    public final class Partial {
+
+        private final BucketTable table = new BucketTable();
+        private long lastBucket = Long.MIN_VALUE;
+        private int lastSlot;
+
+        private Partial() {
+        }
+
+        // Counts one event, with value 0.
+        public void add(long epochSecond) {
+            add(epochSecond, 0);
+        }
+
+        public void add(long epochSecond, long value) {
+            long bucket = bucketOf(epochSecond);
+            if (bucket != lastBucket) {
+                lastSlot = table.slot(bucket);
+                lastBucket = bucket;
+            }
+            table.add(lastSlot, 1, value, value, value);
+        }
+
+        public void add(Instant instant, long value) {
+            add(instant.getEpochSecond(), value);
+        }
+
+        public void addEpochMilli(long epochMilli, long value) {
+            add(Math.floorDiv(epochMilli, 1000L), value);
+        }
+
+        public int bucketCount() {
+            return table.size;
+        }
+
+        // Publishes the buckets collected so far and starts again empty. Lock-free.
+        public void flush() {
+            if (table.size > 0) {
+                published.offer(table.drain());
+                lastBucket = Long.MIN_VALUE;
+            }
+        }
+    }
+
+    /* Storage */
+
+    private static final class Chunk {
+
+        final long[] buckets;
+        final long[] counts;
+        final long[] sums;
+        final long[] mins;
+        final long[] maxs;
+
+        Chunk(int size) {
+            this.buckets = new long[size];
+            this.counts = new long[size];
+            this.sums = new long[size];
+            this.mins = new long[size];
+            this.maxs = new long[size];
+        }
+    }
+
+    // Open addressing hash table from bucket number to count/sum/min/max, in parallel arrays.
+    private static final class BucketTable {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        long[] buckets;
+        long[] counts;
+        long[] sums;
+        long[] mins;
+        long[] maxs;
+        int size;
+
+        BucketTable() {
+            allocate(16);
+        }
+
+        private void allocate(int capacity) {
+            buckets = new long[capacity];
+            Arrays.fill(buckets, EMPTY);
+            counts = new long[capacity];
+            sums = new long[capacity];
+            mins = new long[capacity];
+            maxs = new long[capacity];
+        }
+
+        void add(long bucket, long count, long sum, long min, long max) {
+            add(slot(bucket), count, sum, min, max);
+        }
+
+        void add(int slot, long count, long sum, long min, long max) {
+            counts[slot] += count;
+            sums[slot] += sum;
+            if (min < mins[slot]) {
+                mins[slot] = min;
+            }
+            if (max > maxs[slot]) {
+                maxs[slot] = max;
+            }
+        }
+
+        // Slot of the bucket, inserted empty if missing.
+        int slot(long bucket) {
+            if (size * 2 >= buckets.length) {
+                grow();
+            }
+            int mask = buckets.length - 1;
+            int i = hash(bucket) & mask;
+            while (buckets[i] != EMPTY) {
+                if (buckets[i] == bucket) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            buckets[i] = bucket;
+            mins[i] = Long.MAX_VALUE;
+            maxs[i] = Long.MIN_VALUE;
+            size++;
+            return i;
+        }
+
+        int find(long bucket) {
+            int mask = buckets.length - 1;
+            int i = hash(bucket) & mask;
+            while (buckets[i] != EMPTY) {
+                if (buckets[i] == bucket) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        long[] sortedBuckets() {
+            long[] sorted = new long[size];
+            int n = 0;
+            for (long bucket : buckets) {
+                if (bucket != EMPTY) {
+                    sorted[n++] = bucket;
+                }
+            }
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        // Copies the buckets into a chunk and clears the table.
+        Chunk drain() {
+            Chunk chunk = new Chunk(size);
+            int n = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] != EMPTY) {
+                    chunk.buckets[n] = buckets[i];
+                    chunk.counts[n] = counts[i];
+                    chunk.sums[n] = sums[i];
+                    chunk.mins[n] = mins[i];
+                    chunk.maxs[n++] = maxs[i];
+                    buckets[i] = EMPTY;
+                    counts[i] = 0;
+                    sums[i] = 0;
+                }
+            }
+            size = 0;
+            return chunk;
+        }
+
+        private void grow() {
+            long[] oldBuckets = buckets;
+            long[] oldCounts = counts;
+            long[] oldSums = sums;
+            long[] oldMins = mins;
+            long[] oldMaxs = maxs;
+            allocate(oldBuckets.length * 2);
+            size = 0;
+            for (int i = 0; i < oldBuckets.length; i++) {
+                if (oldBuckets[i] != EMPTY) {
+                    add(oldBuckets[i], oldCounts[i], oldSums[i], oldMins[i], oldMaxs[i]);
+                }
+            }
+        }
+
+        private static int hash(long bucket) {
+            long h = bucket * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package java_time;
+
+/* TimestampLayout -> The timestamp layouts demonstrated in Program, parsed to an epoch second (UTC).
+* DD_MM_YYYY          -> dtf2, "03/12/2007", midnight of the date
+* DD_MM_YYYY_HH_MM_SS -> dtf4, "03/12/2007 04:15:30"
+* ISO                 -> Instant.parse / LocalDateTime.parse, "2007-12-03T04:15:30Z" or "2007-12-03T04:15:30"
+
+Local values are read as UTC, like the dtf3/dtf5 formatters. The parsing is done by FastDateTimeParser, so it is
+stateless and throws the same DateTimeParseException as the standard formatter on malformed input. tryParse never
+throws: it returns FastDateTimeParser.NO_VALUE for anything outside the fast path. */
+
+public enum TimestampLayout {
+
+    DD_MM_YYYY {
+        @Override
+        public long parse(CharSequence text) {
+            return FastDateTimeParser.parseLocalDate(text) * EpochDays.SECONDS_PER_DAY;
+        }
+
+        @Override
+        public long parse(byte[] bytes, int offset, int length) {
+            return FastDateTimeParser.parseLocalDate(bytes, offset, length) * EpochDays.SECONDS_PER_DAY;
+        }
+
+        @Override
+        public long tryParse(CharSequence text) {
+            return startOfDay(FastDateTimeParser.tryParseLocalDate(text));
+        }
+
+        @Override
+        public long tryParse(byte[] bytes, int offset, int length) {
+            return startOfDay(FastDateTimeParser.tryParseLocalDate(bytes, offset, length));
+        }
+
+        private long startOfDay(long epochDay) {
+            return epochDay == FastDateTimeParser.NO_VALUE ? epochDay : epochDay * EpochDays.SECONDS_PER_DAY;
+        }
+    },
+
+    DD_MM_YYYY_HH_MM_SS {
+        @Override
+        public long parse(CharSequence text) {
+            return FastDateTimeParser.parseLocal(text);
+        }
+
+        @Override
+        public long parse(byte[] bytes, int offset, int length) {
+            return FastDateTimeParser.parseLocal(bytes, offset, length);
+        }
+
+        @Override
+        public long tryParse(CharSequence text) {
+            return FastDateTimeParser.tryParseLocal(text);
+        }
+
+        @Override
+        public long tryParse(byte[] bytes, int offset, int length) {
+            return FastDateTimeParser.tryParseLocal(bytes, offset, length);
+        }
+    },
+
+    ISO {
+        @Override
+        public long parse(CharSequence text) {
+            return FastDateTimeParser.parseIso(text);
+        }
+
+        @Override
+        public long parse(byte[] bytes, int offset, int length) {
+            return FastDateTimeParser.parseIso(bytes, offset, length);
+        }
+
+        @Override
+        public long tryParse(CharSequence text) {
+            return FastDateTimeParser.tryParseIso(text);
+        }
+
+        @Override
+        public long tryParse(byte[] bytes, int offset, int length) {
+            return FastDateTimeParser.tryParseIso(bytes, offset, length);
+        }
+    };
+
+    public abstract long parse(CharSequence text);
+
+    // Reads length ASCII bytes starting at offset.
+    public abstract long parse(byte[] bytes, int offset, int length);
+
+    public abstract long tryParse(CharSequence text);
+
+    public abstract long tryParse(byte[] bytes, int offset, int length);
+
+}
@@ -0,0 +1,470 @@
+package java_time;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.chrono.ChronoZonedDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.ToLongFunction;
+
+/* TimestampSort -> Sorts large timestamp collections by a long key with a parallel LSD radix sort, and merges sorted
+partitions.
+list.sort(null) on a List<Instant> or List<ZonedDateTime> makes n log n compareTo calls, each following two pointers
+and, for ZonedDateTime in different zones (zdt1 - zdt7 in Program), converting both sides to an instant. This class
+extracts one long per element instead (epoch nanoseconds, see PackedInstant), sorts the longs together with their
+positions, then moves every element once:
+* sort(long[])                -> the keys alone
+* sortWithOrder(long[])       -> the keys, returning where each came from, to reorder other columns the same way
+* sort(List, key)             -> any elements by a long key; sortInstants and sortZonedDateTimes use epoch nanoseconds
+* merge(long[]...), merge(..) -> a k-way merge of already sorted partitions, on a heap of their heads
+
+The radix sort makes one pass per byte of the key, skipping bytes that are the same in every key (timestamps of a
+few days differ in only 6 of their 8 bytes). Each pass counts digits per chunk of the array, then every chunk
+scatters its keys to its own offsets, so the chunks run in parallel on a ForkJoinPool and the sort is stable. It
+needs a second array the size of the keys (and of the positions), i.e. 24 bytes per element for sort(List, key).
+
+The sorts are stable: ZonedDateTimes at the same instant keep their input order, where compareTo would order them by
+local time and zone. An Instant or ZonedDateTime outside the PackedInstant range (1677 - 2262) can't be a key, the
+list is then sorted with a comparator instead.
+
+-> Example:
+TimestampSort sorter = new TimestampSort();
+sorter.sortZonedDateTimes(events);                                      // same order as events.sort(timeLineOrder())
+Iterator<Event> all = TimestampSort.merge(feedIterators, Event::epochNanos); */
+
+public final class TimestampSort {
+
+    private static final int DEFAULT_THRESHOLD = 1 << 16;
+    // Sizes up to this are sorted by insertion.
+    private static final int INSERTION_SORT_SIZE = 48;
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int PASSES = Long.SIZE / DIGIT_BITS;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public TimestampSort() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public TimestampSort(ForkJoinPool pool) {
+        this(pool, DEFAULT_THRESHOLD);
+    }
+
+    // threshold -> number of elements below which a chunk is not split further (one chunk sorts on the calling thread).
+    public TimestampSort(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        }
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.threshold = threshold;
+    }
+
+    /* Keys */
+
+    public void sort(long[] keys) {
+        radixSort(keys, null);
+    }
+
+    // Sorts the keys and returns order, where order[i] is the index the key now at i had before the sort.
+    // column[order[i]] for every i is then another column in the same order.
+    public int[] sortWithOrder(long[] keys) {
+        int[] order = new int[keys.length];
+        forEachChunk(keys.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                order[i] = i;
+            }
+        });
+        radixSort(keys, order);
+        return order;
+    }
+
+    /* Elements */
+
+    // Sorts the list by the key of each element, in place. Elements with the same key keep their order.
+    public <T> void sort(List<T> list, ToLongFunction<? super T> key) {
+        Object[] elements = list.toArray();
+        long[] keys = new long[elements.length];
+        forEachChunk(elements.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                @SuppressWarnings("unchecked")
+                T element = (T) elements[i];
+                keys[i] = key.applyAsLong(element);
+            }
+        });
+        int[] order = sortWithOrder(keys);
+        ListIterator<T> iterator = list.listIterator();
+        for (int index : order) {
+            iterator.next();
+            @SuppressWarnings("unchecked")
+            T element = (T) elements[index];
+            iterator.set(element);
+        }
+    }
+
+    // Same order as list.sort(null).
+    public void sortInstants(List<Instant> list) {
+        try {
+            sort(list, PackedInstant::of);
+        } catch (DateTimeException e) {
+            list.sort(Comparator.naturalOrder());
+        }
+    }
+
+    // Same order as list.sort(ChronoZonedDateTime.timeLineOrder()), i.e. by instant whatever the zones.
+    public void sortZonedDateTimes(List<ZonedDateTime> list) {
+        try {
+            sort(list, zdt -> PackedInstant.ofEpochSecond(zdt.toEpochSecond(), zdt.getNano()));
+        } catch (DateTimeException e) {
+            list.sort(ChronoZonedDateTime.timeLineOrder());
+        }
+    }
+
+    /* Radix sort */
+
+    private void radixSort(long[] keys, int[] order) {
+        int n = keys.length;
+        if (n <= INSERTION_SORT_SIZE) {
+            insertionSort(keys, order);
+            return;
+        }
+        long changing = changingBits(keys);
+        long[] keySource = keys;
+        long[] keyTarget = new long[n];
+        int[] orderSource = order;
+        int[] orderTarget = order == null ? null : new int[n];
+        int chunks = chunks(n);
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] offsets = new int[chunks][RADIX];
+        for (int pass = 0; pass < PASSES; pass++) {
+            int shift = pass * DIGIT_BITS;
+            if (((changing >>> shift) & (RADIX - 1)) == 0) {
+                continue;
+            }
+            // The top byte holds the sign: flipping its high bit puts negative keys first.
+            int flip = pass == PASSES - 1 ? RADIX >>> 1 : 0;
+            long[] ks = keySource;
+            long[] kt = keyTarget;
+            int[] os = orderSource;
+            int[] ot = orderTarget;
+            forEachChunk(chunks, chunkSize, n, (chunk, from, to) -> {
+                int[] count = offsets[chunk];
+                Arrays.fill(count, 0);
+                for (int i = from; i < to; i++) {
+                    count[((int) (ks[i] >>> shift) & (RADIX - 1)) ^ flip]++;
+                }
+            });
+            // Chunk c's keys of digit d go after all smaller digits and after the keys of digit d in chunks before c.
+            int offset = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    int count = offsets[chunk][digit];
+                    offsets[chunk][digit] = offset;
+                    offset += count;
+                }
+            }
+            forEachChunk(chunks, chunkSize, n, (chunk, from, to) -> {
+                int[] next = offsets[chunk];
+                for (int i = from; i < to; i++) {
+                    long k = ks[i];
+                    int position = next[((int) (k >>> shift) & (RADIX - 1)) ^ flip]++;
+                    kt[position] = k;
+                    if (ot != null) {
+                        ot[position] = os[i];
+                    }
+                }
+            });
+            keySource = kt;
+            keyTarget = ks;
+            orderSource = ot;
+            orderTarget = os;
+        }
+        if (keySource != keys) {
+            long[] sorted = keySource;
+            int[] sortedOrder = orderSource;
+            forEachChunk(n, (from, to) -> {
+                System.arraycopy(sorted, from, keys, from, to - from);
+                if (order != null) {
+                    System.arraycopy(sortedOrder, from, order, from, to - from);
+                }
+            });
+        }
+    }
+
+    // Bits that differ between the keys: a digit of the keys with no changing bit needs no pass.
+    private long changingBits(long[] keys) {
+        long first = keys[0];
+        int chunks = chunks(keys.length);
+        long[] changing = new long[chunks];
+        forEachChunk(chunks, (keys.length + chunks - 1) / chunks, keys.length, (chunk, from, to) -> {
+            long bits = 0;
+            for (int i = from; i < to; i++) {
+                bits |= keys[i] ^ first;
+            }
+            changing[chunk] = bits;
+        });
+        long bits = 0;
+        for (long chunkBits : changing) {
+            bits |= chunkBits;
+        }
+        return bits;
+    }
+
+    private static void insertionSort(long[] keys, int[] order) {
+        for (int i = 1; i < keys.length; i++) {
+            long k = keys[i];
+            int o = order == null ? 0 : order[i];
+            int j = i - 1;
+            for (; j >= 0 && keys[j] > k; j--) {
+                keys[j + 1] = keys[j];
+                if (order != null) {
+                    order[j + 1] = order[j];
+                }
+            }
+            keys[j + 1] = k;
+            if (order != null) {
+                order[j + 1] = o;
+            }
+        }
+    }
+
+    /* Chunks */
+
+    private int chunks(int n) {
+        int chunks = (int) Math.min((n + (long) threshold - 1) / threshold, pool.getParallelism() * 4L);
+        return Math.max(chunks, 1);
+    }
+
+    private interface ChunkAction {
+        void run(int chunk, int from, int to);
+    }
+
+    private interface RangeAction {
+        void run(int from, int to);
+    }
+
+    private void forEachChunk(int n, RangeAction action) {
+        int chunks = chunks(n);
+        forEachChunk(chunks, (n + chunks - 1) / chunks, n, (chunk, from, to) -> action.run(from, to));
+    }
+
+    // Runs the action for every chunk [chunk * chunkSize, min(n, (chunk + 1) * chunkSize)), on the pool if there
+    // is more than one.
+    private void forEachChunk(int chunks, int chunkSize, int n, ChunkAction action) {
+        IntConsumer chunk = c -> action.run(c, Math.min(n, c * chunkSize), Math.min(n, (c + 1) * chunkSize));
+        if (chunks == 1) {
+            chunk.accept(0);
+        } else {
+            pool.invoke(new ChunkTask(chunk, 0, chunks));
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final IntConsumer chunk;
+        private final int from;
+        private final int to;
+
+        ChunkTask(IntConsumer chunk, int from, int to) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                chunk.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(chunk, from, middle), new ChunkTask(chunk, middle, to));
+        }
+    }
+
+    /* Merge */
+
+    // One sorted array of all the keys of the sorted partitions. Throws IllegalArgumentException if a partition
+    // turns out not to be sorted.
+    public static long[] merge(long[]... partitions) {
+        long total = 0;
+        for (long[] partition : partitions) {
+            total += partition.length;
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many keys to merge into one array: " + total);
+        }
+        long[] merged = new long[(int) total];
+        int[] positions = new int[partitions.length];
+        Heads heads = new Heads(partitions.length);
+        for (int p = 0; p < partitions.length; p++) {
+            if (partitions[p].length > 0) {
+                heads.add(p, partitions[p][0]);
+            }
+        }
+        for (int i = 0; i < merged.length; i++) {
+            int p = heads.first();
+            long[] partition = partitions[p];
+            long key = partition[positions[p]++];
+            merged[i] = key;
+            if (positions[p] < partition.length) {
+                heads.replaceFirst(checkSorted(key, partition[positions[p]], p));
+            } else {
+                heads.removeFirst();
+            }
+        }
+        return merged;
+    }
+
+    // A lazy merge of partitions sorted by the key, e.g. one per feed. Elements with the same key come from the
+    // partitions in list order. next() throws IllegalArgumentException if a partition turns out not to be sorted.
+    public static <T> Iterator<T> merge(List<? extends Iterator<? extends T>> partitions,
+                                        ToLongFunction<? super T> key) {
+        Objects.requireNonNull(key, "key");
+        return new MergeIterator<>(partitions, key);
+    }
+
+    private static long checkSorted(long previous, long next, int partition) {
+        if (next < previous) {
+            throw new IllegalArgumentException("Partition " + partition + " is not sorted: " + next
+                    + " follows " + previous);
+        }
+        return next;
+    }
+
+    private static final class MergeIterator<T> implements Iterator<T> {
+
+        private final Iterator<? extends T>[] partitions;
+        private final Object[] elements;
+        private final Heads heads;
+        private final ToLongFunction<? super T> key;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        MergeIterator(List<? extends Iterator<? extends T>> partitions, ToLongFunction<? super T> key) {
+            this.partitions = partitions.toArray(new Iterator[0]);
+            this.elements = new Object[this.partitions.length];
+            this.heads = new Heads(this.partitions.length);
+            this.key = key;
+            for (int p = 0; p < this.partitions.length; p++) {
+                if (this.partitions[p].hasNext()) {
+                    T element = this.partitions[p].next();
+                    elements[p] = element;
+                    heads.add(p, key.applyAsLong(element));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return heads.size() > 0;
+        }
+
+        @Override
+        public T next() {
+            if (heads.size() == 0) {
+                throw new NoSuchElementException();
+            }
+            int p = heads.first();
+            @SuppressWarnings("unchecked")
+            T element = (T) elements[p];
+            if (partitions[p].hasNext()) {
+                T following = partitions[p].next();
+                elements[p] = following;
+                heads.replaceFirst(checkSorted(heads.firstKey(), key.applyAsLong(following), p));
+            } else {
+                elements[p] = null;
+                heads.removeFirst();
+            }
+            return element;
+        }
+    }
+
+    // A binary min-heap of partitions by their head key, then by partition index so equal keys merge stably.
+    private static final class Heads {
+
+        private final int[] partitions;
+        private final long[] keys;
+        private int size;
+
+        Heads(int capacity) {
+            this.partitions = new int[capacity];
+            this.keys = new long[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int first() {
+            return partitions[0];
+        }
+
+        long firstKey() {
+            return keys[0];
+        }
+
+        void add(int partition, long key) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(key, partition, keys[parent], partitions[parent])) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                partitions[i] = partitions[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            partitions[i] = partition;
+        }
+
+        // The first partition has a new head key.
+        void replaceFirst(long key) {
+            siftDown(partitions[0], key);
+        }
+
+        void removeFirst() {
+            size--;
+            if (size > 0) {
+                siftDown(partitions[size], keys[size]);
+            }
+        }
+
+        private void siftDown(int partition, long key) {
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && less(keys[right], partitions[right], keys[child], partitions[child])) {
+                    child = right;
+                }
+                if (!less(keys[child], partitions[child], key, partition)) {
+                    break;
+                }
+                keys[i] = keys[child];
+                partitions[i] = partitions[child];
+                i = child;
+            }
+            keys[i] = key;
+            partitions[i] = partition;
+        }
+
+        private static boolean less(long key, int partition, long otherKey, int otherPartition) {
+            return key < otherKey || (key == otherKey && partition < otherPartition);
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+package java_time;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Objects;
+
+/* ZoneOffsetIndex -> Precomputed, primitive lookup of the zone offset for an epoch second.
+LocalDateTime.ofInstant(instant, zone3), LocalDate.ofInstant(...) and instant.atZone(zone) all ask ZoneRules.getOffset,
+which for region zones like America/New_York searches the transition list (and for future years builds the transitions
+from the transition rules).
+
+The index copies the transitions of a year range into two primitive arrays once:
+* transitions[i] -> epoch second of the i-th transition
+* offsets[i]     -> offset in seconds in force before transitions[i] (offsets[n] is the offset after the last one)
+
+The range is also split in buckets of 2^19 seconds (about 6 days), and each bucket stores the first transition that
+can apply to it. Transitions are months apart, so a lookup is one shift, one array read and at most a step or two.
+Epoch seconds outside the range are answered by ZoneRules, so the result is always the same as ZoneRules.getOffset. */
+
+public final class ZoneOffsetIndex {
+
+    private static final int BUCKET_SHIFT = 19;
+    // ZoneOffset.MAX: every instant of a local time is within this many seconds of it.
+    private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final int fromYear;
+    private final int toYear;
+    private final long start;
+    private final long end;
+
+    private final long[] transitions;
+    private final int[] offsets;
+    private final ZoneOffset[] zoneOffsets;
+    private final int[] buckets;
+
+    private ZoneOffsetIndex(ZoneId zone, int fromYear, int toYear) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.start = EpochDays.of(fromYear, 1, 1) * EpochDays.SECONDS_PER_DAY;
+        this.end = EpochDays.of(toYear + 1, 1, 1) * EpochDays.SECONDS_PER_DAY;
+
+        long[] times = new long[16];
+        ZoneOffset[] before = new ZoneOffset[17];
+        int n = 0;
+        ZoneOffset current = rules.getOffset(Instant.ofEpochSecond(start));
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(start));
+        while (transition != null && transition.toEpochSecond() < end) {
+            if (n == times.length) {
+                times = Arrays.copyOf(times, n * 2);
+                before = Arrays.copyOf(before, n * 2 + 1);
+            }
+            times[n] = transition.toEpochSecond();
+            before[n++] = current;
+            current = transition.getOffsetAfter();
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        before[n] = current;
+
+        this.transitions = Arrays.copyOf(times, n);
+        this.zoneOffsets = Arrays.copyOf(before, n + 1);
+        this.offsets = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            offsets[i] = zoneOffsets[i].getTotalSeconds();
+        }
+
+        this.buckets = new int[(int) ((end - start - 1) >>> BUCKET_SHIFT) + 1];
+        int t = 0;
+        for (int b = 0; b < buckets.length; b++) {
+            long bucketStart = start + ((long) b << BUCKET_SHIFT);
+            while (t < n && transitions[t] <= bucketStart) {
+                t++;
+            }
+            buckets[b] = t;
+        }
+    }
+
+    // Index of the years fromYear to toYear (inclusive), measured in UTC.
+    public static ZoneOffsetIndex of(ZoneId zone, int fromYear, int toYear) {
+        Objects.requireNonNull(zone, "zone");
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("fromYear " + fromYear + " is after toYear " + toYear);
+        }
+        if (fromYear < 1 || toYear > 9999) {
+            throw new IllegalArgumentException("Year range must be within 1 - 9999: " + fromYear + " - " + toYear);
+        }
+        return new ZoneOffsetIndex(zone, fromYear, toYear);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    public int getToYear() {
+        return toYear;
+    }
+
+    public boolean isIndexed(long epochSecond) {
+        return epochSecond >= start && epochSecond < end;
+    }
+
+    public int getOffsetSeconds(long epochSecond) {
+        if (epochSecond < start || epochSecond >= end) {
+            return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        }
+        return offsets[indexOf(epochSecond)];
+    }
+
+    public ZoneOffset getOffset(long epochSecond) {
+        if (epochSecond < start || epochSecond >= end) {
+            return rules.getOffset(Instant.ofEpochSecond(epochSecond));
+        }
+        return zoneOffsets[indexOf(epochSecond)];
+    }
+
+    public int getOffsetSecondsOfEpochMilli(long epochMilli) {
+        return getOffsetSeconds(Math.floorDiv(epochMilli, 1000L));
+    }
+
+    // Seconds since 1970-01-01T00:00 on the local time-line, same as LocalDateTime.ofInstant(...).toEpochSecond(UTC).
+    public long toLocalEpochSecond(long epochSecond) {
+        return epochSecond + getOffsetSeconds(epochSecond);
+    }
+
+    // Inverse of toLocalEpochSecond, resolved like LocalDateTime.atZone: a local time in a gap or an overlap takes the
+    // offset before the transition (moved forward by the gap, or the earlier of the two instants).
+    public long toEpochSecond(long localEpochSecond) {
+        long earliest = localEpochSecond - MAX_OFFSET_SECONDS;
+        if (earliest < start || localEpochSecond + MAX_OFFSET_SECONDS >= end) {
+            LocalDateTime local = LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC);
+            return local.atZone(zone).toEpochSecond();
+        }
+        // First transition whose local gap or overlap ends after the local time; its offset before applies.
+        int i = indexOf(earliest);
+        while (i < transitions.length && transitions[i] + Math.max(offsets[i], offsets[i + 1]) <= localEpochSecond) {
+            i++;
+        }
+        return localEpochSecond - offsets[i];
+    }
+
+    public long toEpochSecond(LocalDateTime local) {
+        return toEpochSecond(local.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    public LocalDateTime toLocalDateTime(long epochSecond, int nanoOfSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, nanoOfSecond, getOffset(epochSecond));
+    }
+
+    public LocalDateTime toLocalDateTime(Instant instant) {
+        return toLocalDateTime(instant.getEpochSecond(), instant.getNano());
+    }
+
+    private int indexOf(long epochSecond) {
+        int i = buckets[(int) ((epochSecond - start) >>> BUCKET_SHIFT)];
+        while (i < transitions.length && transitions[i] <= epochSecond) {
+            i++;
+        }
+        return i;
+    }
+
+    @Override
+    public String toString() {
+        return "ZoneOffsetIndex[" + zone + ", " + fromYear + " - " + toYear + ", " + transitions.length + " transitions]";
+    }
+
+}
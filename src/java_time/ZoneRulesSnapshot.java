@@ -0,0 +1,336 @@
+package java_time;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneOffsetTransitionRule;
+import java.time.zone.ZoneRules;
+import java.time.zone.ZoneRulesException;
+import java.time.zone.ZoneRulesProvider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/* ZoneRulesSnapshot -> A ZoneRulesProvider serving a precompiled snapshot of a few zones from a small file.
+The first ZoneId.of("America/New_York") (or ZoneId.systemDefault()) in Program initializes the JDK's provider, which
+reads the whole tzdb.dat (some 600 regions) into memory before building the one ZoneRules asked for. In a short-lived
+process that is part of the latency of the first request.
+
+The snapshot is written at build time from the JDK's own rules, for the configured zones only. Each zone is stored
+in the compact form tzdb.dat uses (the documented serialized form of ZoneRules, 3 bytes per transition), so the file
+is a few KB. The provider loads the file in one read, parses the zone index and decodes a zone's rules on first use with
+ZoneRules.of. When it is written, every zone is decoded again and compared with equals(), so the rules served are
+exactly the JDK's (same transitions, same transition rules, same tzdb version).
+
+The provider replaces the JDK's, so every zone the process uses must be in the snapshot, including the system
+default; other ids throw ZoneRulesException like unknown ids. UTC, GMT, UT and offsets don't need a provider.
+java.util.TimeZone reads tzdb.dat on its own and is not affected. The provider holds no state besides the file's
+bytes, so its classes can go in an AppCDS archive (-XX:ArchiveClassesAtExit) from a warm-up run.
+
+-> Write a snapshot (no zone ids: every zone):
+java -cp target/benchmarks.jar java_time.ZoneRulesSnapshot target/zones.snapshot America/New_York Europe/London Etc/UTC
+
+-> Use it:
+java -Djava.time.zone.DefaultZoneRulesProvider=java_time.ZoneRulesSnapshot
+-Djava_time.ZoneRulesSnapshot.file=target/zones.snapshot ... */
+
+public final class ZoneRulesSnapshot extends ZoneRulesProvider {
+
+    // Path of the snapshot the provider loads.
+    public static final String FILE_PROPERTY = "java_time.ZoneRulesSnapshot.file";
+
+    private static final int MAGIC = 0x5A525331;
+    private static final int ZONE_RULES = 1;
+    // Ser.readEpochSec: 3 bytes of quarter hours from 1825, or 255 and the epoch second as a long.
+    private static final long EPOCH_SEC_BASE = 4_575_744_000L;
+
+    private final String version;
+    private final ByteBuffer data;
+    private final Map<String, Integer> indexes;
+    private final int[] offsets;
+    private final ConcurrentMap<String, ZoneRules> rules = new ConcurrentHashMap<>();
+
+    // Called by ZoneRulesProvider when java.time.zone.DefaultZoneRulesProvider names this class.
+    public ZoneRulesSnapshot() {
+        this(Paths.get(requireProperty()));
+    }
+
+    public ZoneRulesSnapshot(Path file) {
+        // Read in one call rather than mapped: the file is a few KB, and FileChannel.map loads some 40 classes that
+        // are not in the default CDS archive, which costs more than the copy on a cold start.
+        try (RandomAccessFile in = new RandomAccessFile(file.toFile(), "r")) {
+            byte[] bytes = new byte[(int) in.length()];
+            in.readFully(bytes);
+            this.data = ByteBuffer.wrap(bytes);
+        } catch (IOException e) {
+            throw new ZoneRulesException("Could not read the zone rules snapshot " + file, e);
+        }
+        if (data.getInt() != MAGIC) {
+            throw new ZoneRulesException("Not a zone rules snapshot: " + file);
+        }
+        this.version = ascii(data);
+        int count = data.getInt();
+        this.indexes = new HashMap<>(count * 4 / 3 + 1);
+        this.offsets = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes.put(ascii(data), i);
+            offsets[i] = data.getInt();
+        }
+    }
+
+    private static String requireProperty() {
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file == null) {
+            throw new ZoneRulesException("No zone rules snapshot, set -D" + FILE_PROPERTY);
+        }
+        return file;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    protected Set<String> provideZoneIds() {
+        return new TreeSet<>(indexes.keySet());
+    }
+
+    @Override
+    protected ZoneRules provideRules(String zoneId, boolean forCaching) {
+        ZoneRules zoneRules = rules.get(zoneId);
+        if (zoneRules == null) {
+            Integer index = indexes.get(zoneId);
+            if (index == null) {
+                throw new ZoneRulesException("Unknown time-zone ID: " + zoneId + " (not in the snapshot)");
+            }
+            // putIfAbsent rather than a computeIfAbsent lambda, whose bootstrap would add to the first conversion.
+            zoneRules = read(data.duplicate().position(offsets[index]));
+            ZoneRules existing = rules.putIfAbsent(zoneId, zoneRules);
+            if (existing != null) {
+                zoneRules = existing;
+            }
+        }
+        return zoneRules;
+    }
+
+    @Override
+    protected NavigableMap<String, ZoneRules> provideVersions(String zoneId) {
+        NavigableMap<String, ZoneRules> versions = new TreeMap<>();
+        versions.put(version, provideRules(zoneId, false));
+        return versions;
+    }
+
+    @Override
+    public String toString() {
+        return "ZoneRulesSnapshot[" + version + ", " + indexes.size() + " zones]";
+    }
+
+    /* Writing */
+
+    // Writes the JDK's rules of the zones (region ids like America/New_York) and checks that they read back equal.
+    public static void write(Path file, Collection<String> zoneIds) throws IOException {
+        String version = null;
+        List<String> ids = new ArrayList<>(new TreeSet<>(zoneIds));
+        List<byte[]> forms = new ArrayList<>();
+        for (String id : ids) {
+            NavigableMap<String, ZoneRules> versions = ZoneRulesProvider.getVersions(id);
+            if (version != null && !version.equals(versions.lastKey())) {
+                throw new IllegalStateException("Zones of different tzdb versions: " + version + ", " + versions.lastKey());
+            }
+            version = versions.lastKey();
+            ZoneRules zoneRules = ZoneId.of(id).getRules();
+            byte[] form = externalForm(zoneRules);
+            if (!zoneRules.equals(read(ByteBuffer.wrap(form)))) {
+                throw new IllegalStateException("Rules of " + id + " don't read back equal");
+            }
+            forms.add(form);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int headerLength = 4 + 2 + (version == null ? 0 : version.length()) + 4;
+        for (String id : ids) {
+            headerLength += 2 + id.length() + 4;
+        }
+        out.writeInt(MAGIC);
+        writeAscii(out, version == null ? "" : version);
+        out.writeInt(ids.size());
+        int offset = headerLength;
+        for (int i = 0; i < ids.size(); i++) {
+            writeAscii(out, ids.get(i));
+            out.writeInt(offset);
+            offset += forms.get(i).length;
+        }
+        for (byte[] form : forms) {
+            out.write(form);
+        }
+        out.flush();
+        Files.write(file, bytes.toByteArray());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ZoneRulesSnapshot <file> [zone id ...]");
+            System.exit(2);
+        }
+        Collection<String> ids = args.length > 1 ? Arrays.asList(args).subList(1, args.length)
+                : ZoneRulesProvider.getAvailableZoneIds();
+        Path file = Paths.get(args[0]);
+        write(file, ids);
+        System.out.println("Wrote " + ids.size() + " zones to " + file + " (" + file.toFile().length() + " bytes)");
+    }
+
+    // The bytes ZoneRules writes in its serialized form, i.e. its tzdb.dat entry, without the serialization stream.
+    private static byte[] externalForm(ZoneRules zoneRules) throws IOException {
+        try (ExternalForm out = new ExternalForm()) {
+            out.writeObject(zoneRules);
+            out.data.flush();
+            return out.bytes.toByteArray();
+        }
+    }
+
+    private static void writeAscii(DataOutputStream out, String text) throws IOException {
+        out.writeShort(text.length());
+        out.writeBytes(text);
+    }
+
+    private static String ascii(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    // ZoneRules serializes through java.time.zone.Ser, which calls these methods for its data. The stream framing
+    // goes to the null stream, and the class descriptor is not written at all.
+    private static final class ExternalForm extends ObjectOutputStream {
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream data = new DataOutputStream(bytes);
+
+        ExternalForm() throws IOException {
+            super(OutputStream.nullOutputStream());
+        }
+
+        @Override
+        protected void writeClassDescriptor(ObjectStreamClass descriptor) {
+        }
+
+        @Override
+        public void writeByte(int value) throws IOException {
+            data.writeByte(value);
+        }
+
+        @Override
+        public void writeInt(int value) throws IOException {
+            data.writeInt(value);
+        }
+
+        @Override
+        public void writeLong(long value) throws IOException {
+            data.writeLong(value);
+        }
+    }
+
+    /* Reading, as in Ser.read, ZoneRules.readExternal and ZoneOffsetTransitionRule.readExternal */
+
+    static ZoneRules read(ByteBuffer in) {
+        if (in.get() != ZONE_RULES) {
+            throw new ZoneRulesException("Corrupt zone rules snapshot at " + (in.position() - 1));
+        }
+        long[] standardTransitions = new long[in.getInt()];
+        for (int i = 0; i < standardTransitions.length; i++) {
+            standardTransitions[i] = readEpochSec(in);
+        }
+        ZoneOffset[] standardOffsets = new ZoneOffset[standardTransitions.length + 1];
+        for (int i = 0; i < standardOffsets.length; i++) {
+            standardOffsets[i] = readOffset(in);
+        }
+        long[] savingsTransitions = new long[in.getInt()];
+        for (int i = 0; i < savingsTransitions.length; i++) {
+            savingsTransitions[i] = readEpochSec(in);
+        }
+        ZoneOffset[] wallOffsets = new ZoneOffset[savingsTransitions.length + 1];
+        for (int i = 0; i < wallOffsets.length; i++) {
+            wallOffsets[i] = readOffset(in);
+        }
+        List<ZoneOffsetTransitionRule> lastRules = new ArrayList<>();
+        for (int i = in.get(); i > 0; i--) {
+            lastRules.add(readRule(in));
+        }
+        return ZoneRules.of(standardOffsets[0], wallOffsets[0], transitions(standardTransitions, standardOffsets),
+                transitions(savingsTransitions, wallOffsets), lastRules);
+    }
+
+    private static List<ZoneOffsetTransition> transitions(long[] epochSeconds, ZoneOffset[] offsets) {
+        List<ZoneOffsetTransition> transitions = new ArrayList<>(epochSeconds.length);
+        for (int i = 0; i < epochSeconds.length; i++) {
+            LocalDateTime before = LocalDateTime.ofEpochSecond(epochSeconds[i], 0, offsets[i]);
+            transitions.add(ZoneOffsetTransition.of(before, offsets[i], offsets[i + 1]));
+        }
+        return transitions;
+    }
+
+    private static long readEpochSec(ByteBuffer in) {
+        int high = in.get() & 0xFF;
+        if (high == 255) {
+            return in.getLong();
+        }
+        int quarterHours = (high << 16) + ((in.get() & 0xFF) << 8) + (in.get() & 0xFF);
+        return quarterHours * 900L - EPOCH_SEC_BASE;
+    }
+
+    private static ZoneOffset readOffset(ByteBuffer in) {
+        int quarterHours = in.get();
+        return quarterHours == 127 ? ZoneOffset.ofTotalSeconds(in.getInt()) : ZoneOffset.ofTotalSeconds(quarterHours * 900);
+    }
+
+    // One int: month 4 bits, day of month + 32 6 bits, day of week 3, hour (31: seconds follow) 5, time definition 2,
+    // standard offset in quarter hours + 128 (255: seconds follow) 8, offsets before and after in half hours above the
+    // standard offset (3: seconds follow) 2 + 2.
+    private static ZoneOffsetTransitionRule readRule(ByteBuffer in) {
+        int packed = in.getInt();
+        Month month = Month.of(packed >>> 28);
+        int dayOfMonth = ((packed >>> 22) & 63) - 32;
+        int dayOfWeek = (packed >>> 19) & 7;
+        int hour = (packed >>> 14) & 31;
+        ZoneOffsetTransitionRule.TimeDefinition definition =
+                ZoneOffsetTransitionRule.TimeDefinition.values()[(packed >>> 12) & 3];
+        int standardByte = (packed >>> 4) & 255;
+        int beforeByte = (packed >>> 2) & 3;
+        int afterByte = packed & 3;
+        LocalTime time = hour == 31 ? LocalTime.ofSecondOfDay(in.getInt()) : LocalTime.of(hour % 24, 0);
+        ZoneOffset standard = ZoneOffset.ofTotalSeconds(standardByte == 255 ? in.getInt() : (standardByte - 128) * 900);
+        ZoneOffset before = ZoneOffset.ofTotalSeconds(
+                beforeByte == 3 ? in.getInt() : standard.getTotalSeconds() + beforeByte * 1800);
+        ZoneOffset after = ZoneOffset.ofTotalSeconds(
+                afterByte == 3 ? in.getInt() : standard.getTotalSeconds() + afterByte * 1800);
+        return ZoneOffsetTransitionRule.of(month, dayOfMonth, dayOfWeek == 0 ? null : DayOfWeek.of(dayOfWeek), time,
+                hour == 24, definition, standard, before, after);
+    }
+
+}
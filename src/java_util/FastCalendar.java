@@ -0,0 +1,189 @@
+package java_util;
+
+import java_time.MutableDateTime;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+/* FastCalendar -> A Calendar-compatible front end for MutableDateTime.
+The Calendar section of Program does setTime, set(Calendar.MONTH, 11), add(Calendar.DAY_OF_MONTH, 4) and then reads
+the fields back. With Calendar.getInstance() every step allocates or recomputes a whole GregorianCalendar. FastCalendar
+takes the same calls, with the same Calendar field constants and the same 0-based MONTH (January = 0 ... December = 11)
+and Calendar.DAY_OF_WEEK values (SUNDAY = 1 ... SATURDAY = 7), and runs them on the primitive, lazily computed
+MutableDateTime.
+
+Supported fields:
+* set / add / get -> YEAR, MONTH, DAY_OF_MONTH (DATE), HOUR_OF_DAY, HOUR, MINUTE, SECOND, MILLISECOND
+* add / get       -> DAY_OF_YEAR, WEEK_OF_YEAR (add only), AM_PM (get only), DAY_OF_WEEK (get only)
+Other fields throw IllegalArgumentException.
+
+Like GregorianCalendar, sets are lenient, add(MONTH)/add(YEAR) pin the day to the end of the month and
+add(HOUR)/add(MINUTE)... add elapsed time. Dates before the 1582 Gregorian cut-over follow the proleptic ISO calendar
+instead of the Julian calendar. Not thread-safe, just like Calendar. */
+
+public final class FastCalendar {
+
+    private final TimeZone timeZone;
+    private final MutableDateTime dateTime;
+
+    private FastCalendar(TimeZone timeZone, long epochMilli) {
+        this.timeZone = timeZone;
+        this.dateTime = new MutableDateTime(timeZone.toZoneId());
+        dateTime.setEpochMilli(epochMilli);
+    }
+
+    // Like Calendar.getInstance(): the current time in the default time zone.
+    public static FastCalendar getInstance() {
+        return new FastCalendar(TimeZone.getDefault(), System.currentTimeMillis());
+    }
+
+    public static FastCalendar getInstance(TimeZone timeZone) {
+        return new FastCalendar(timeZone, System.currentTimeMillis());
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTime(Date date) {
+        dateTime.setEpochMilli(date.getTime());
+    }
+
+    public Date getTime() {
+        return new Date(dateTime.getEpochMilli());
+    }
+
+    public void setTimeInMillis(long millis) {
+        dateTime.setEpochMilli(millis);
+    }
+
+    public long getTimeInMillis() {
+        return dateTime.getEpochMilli();
+    }
+
+    // The underlying java.time style view (1-based months), sharing the same state.
+    public MutableDateTime toMutableDateTime() {
+        return dateTime;
+    }
+
+    /* Calendar fields */
+
+    public int get(int field) {
+        switch (field) {
+            case Calendar.YEAR:
+                return dateTime.getYear();
+            case Calendar.MONTH:
+                return dateTime.getMonthValue() - 1;
+            case Calendar.DAY_OF_MONTH:
+                return dateTime.getDayOfMonth();
+            case Calendar.DAY_OF_YEAR:
+                return dateTime.getDayOfYear();
+            case Calendar.DAY_OF_WEEK:
+                return dateTime.getDayOfWeek() % 7 + 1;
+            case Calendar.HOUR_OF_DAY:
+                return dateTime.getHour();
+            case Calendar.HOUR:
+                return dateTime.getHour() % 12;
+            case Calendar.AM_PM:
+                return dateTime.getHour() < 12 ? Calendar.AM : Calendar.PM;
+            case Calendar.MINUTE:
+                return dateTime.getMinute();
+            case Calendar.SECOND:
+                return dateTime.getSecond();
+            case Calendar.MILLISECOND:
+                return dateTime.getNano() / 1_000_000;
+            default:
+                throw unsupported(field);
+        }
+    }
+
+    public void set(int field, int value) {
+        switch (field) {
+            case Calendar.YEAR:
+                dateTime.setYear(value);
+                break;
+            case Calendar.MONTH:
+                dateTime.setMonth(value + 1);
+                break;
+            case Calendar.DAY_OF_MONTH:
+                dateTime.setDayOfMonth(value);
+                break;
+            case Calendar.HOUR_OF_DAY:
+                dateTime.setHour(value);
+                break;
+            case Calendar.HOUR:
+                dateTime.setHourOfAmPm(value);
+                break;
+            case Calendar.MINUTE:
+                dateTime.setMinute(value);
+                break;
+            case Calendar.SECOND:
+                dateTime.setSecond(value);
+                break;
+            case Calendar.MILLISECOND:
+                dateTime.setNano(value * 1_000_000L);
+                break;
+            default:
+                throw unsupported(field);
+        }
+    }
+
+    // Same as Calendar.set(year, month, date): month is 0-based, the time of day is kept.
+    public void set(int year, int month, int date) {
+        dateTime.setDate(year, month + 1, date);
+    }
+
+    public void set(int year, int month, int date, int hourOfDay, int minute, int second) {
+        dateTime.setDate(year, month + 1, date);
+        dateTime.setHour(hourOfDay);
+        dateTime.setMinute(minute);
+        dateTime.setSecond(second);
+    }
+
+    public void add(int field, int amount) {
+        if (amount == 0) {
+            return; // Like Calendar: pending sets are not resolved by an empty add.
+        }
+        switch (field) {
+            case Calendar.YEAR:
+                dateTime.plusYears(amount);
+                break;
+            case Calendar.MONTH:
+                dateTime.plusMonths(amount);
+                break;
+            case Calendar.DAY_OF_MONTH:
+            case Calendar.DAY_OF_YEAR:
+                dateTime.plusDays(amount);
+                break;
+            case Calendar.WEEK_OF_YEAR:
+                dateTime.plusWeeks(amount);
+                break;
+            case Calendar.HOUR_OF_DAY:
+            case Calendar.HOUR:
+                dateTime.plusHours(amount);
+                break;
+            case Calendar.MINUTE:
+                dateTime.plusMinutes(amount);
+                break;
+            case Calendar.SECOND:
+                dateTime.plusSeconds(amount);
+                break;
+            case Calendar.MILLISECOND:
+                dateTime.plusMillis(amount);
+                break;
+            default:
+                throw unsupported(field);
+        }
+    }
+
+    private static IllegalArgumentException unsupported(int field) {
+        return new IllegalArgumentException("Unsupported Calendar field: " + field);
+    }
+
+    @Override
+    public String toString() {
+        return "FastCalendar[" + dateTime + "]";
+    }
+
+}
@@ -0,0 +1,165 @@
+package java_util;
+
+import java_time.DateTimeMetrics;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Objects;
+
+/* InstrumentedCalendar -> A Calendar whose recomputations are recorded in DateTimeMetrics (CALENDAR_COMPUTE).
+Calendar.set only stores a field; the next get or add recomputes the time in millis and every field from the time
+zone (getTime only the time), which is where Program's Calendar examples spend their time. The wrapper tracks pending changes and
+records each get / getTime / getTimeInMillis that has to recompute them, and every add, setTime and setTimeInMillis
+(which always recompute the fields), under the Calendar's time zone id. Reads with nothing to recompute are not
+recorded, and only IllegalArgumentException (a field out of range in a non-lenient Calendar) counts as a failure.
+
+The wrapped Calendar is used as is, so results are those of the Calendar. Nothing is measured while DateTimeMetrics
+is disabled. Like Calendar, an InstrumentedCalendar is not thread-safe. */
+
+public final class InstrumentedCalendar {
+
+    private final Calendar calendar;
+    private final DateTimeMetrics.Recorder computes;
+    // set(...) leaves the time and the fields to compute; computing the time alone (getTimeInMillis) leaves the fields.
+    private boolean timePending;
+    private boolean fieldsPending;
+
+    private InstrumentedCalendar(Calendar calendar) {
+        this.calendar = Objects.requireNonNull(calendar, "calendar");
+        this.computes = DateTimeMetrics.recorder(DateTimeMetrics.Operation.CALENDAR_COMPUTE,
+                calendar.getTimeZone().getID());
+    }
+
+    public static InstrumentedCalendar of(Calendar calendar) {
+        return new InstrumentedCalendar(calendar);
+    }
+
+    public static InstrumentedCalendar getInstance() {
+        return new InstrumentedCalendar(Calendar.getInstance());
+    }
+
+    public int get(int field) {
+        if (!fieldsPending || !DateTimeMetrics.isEnabled()) {
+            computed();
+            return calendar.get(field);
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            int value = calendar.get(field);
+            computed();
+            return value;
+        } catch (IllegalArgumentException e) {
+            failed = true;
+            throw e;
+        } finally {
+            computes.record(start, allocated, failed);
+        }
+    }
+
+    // Only computes the time: the fields are recomputed by the next get.
+    public long getTimeInMillis() {
+        if (!timePending || !DateTimeMetrics.isEnabled()) {
+            timePending = false;
+            return calendar.getTimeInMillis();
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            long millis = calendar.getTimeInMillis();
+            timePending = false;
+            return millis;
+        } catch (IllegalArgumentException e) {
+            failed = true;
+            throw e;
+        } finally {
+            computes.record(start, allocated, failed);
+        }
+    }
+
+    public Date getTime() {
+        return new Date(getTimeInMillis());
+    }
+
+    public void add(int field, int amount) {
+        if (!DateTimeMetrics.isEnabled()) {
+            calendar.add(field, amount);
+            computed();
+            return;
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            calendar.add(field, amount);
+            computed();
+        } catch (IllegalArgumentException e) {
+            failed = true;
+            throw e;
+        } finally {
+            computes.record(start, allocated, failed);
+        }
+    }
+
+    public void set(int field, int value) {
+        calendar.set(field, value);
+        timePending = true;
+        fieldsPending = true;
+    }
+
+    public void set(int year, int month, int date) {
+        calendar.set(year, month, date);
+        timePending = true;
+        fieldsPending = true;
+    }
+
+    public void set(int year, int month, int date, int hourOfDay, int minute, int second) {
+        calendar.set(year, month, date, hourOfDay, minute, second);
+        timePending = true;
+        fieldsPending = true;
+    }
+
+    public void setTime(Date date) {
+        setTimeInMillis(date.getTime());
+    }
+
+    // Calendar recomputes every field right away here, so this is the recorded call, not the next get.
+    public void setTimeInMillis(long millis) {
+        if (!DateTimeMetrics.isEnabled()) {
+            calendar.setTimeInMillis(millis);
+            computed();
+            return;
+        }
+        long allocated = DateTimeMetrics.allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            calendar.setTimeInMillis(millis);
+            computed();
+        } catch (IllegalArgumentException e) {
+            failed = true;
+            throw e;
+        } finally {
+            computes.record(start, allocated, failed);
+        }
+    }
+
+    // Calendar has computed the time and all fields.
+    private void computed() {
+        timePending = false;
+        fieldsPending = false;
+    }
+
+    // The wrapped Calendar. Changes made through it directly are not tracked.
+    public Calendar getCalendar() {
+        return calendar;
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedCalendar[" + calendar.getTimeZone().getID() + "]";
+    }
+
+}
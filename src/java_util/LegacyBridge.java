@@ -0,0 +1,166 @@
+package java_util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/* LegacyBridge -> Conversions between Date / Calendar / TimeZone and Instant / ZonedDateTime / ZoneId.
+Old JDBC and RPC layers still hand out java.util.Date (and java.sql.Date / java.sql.Timestamp, which extend it) and
+Calendar. The JDK conversions are spread over several classes and have a few traps:
+* java.sql.Date.toInstant() and java.sql.Time.toInstant() throw UnsupportedOperationException
+* TimeZone.getTimeZone(...) returns a new clone every time, and TimeZone.toZoneId() resolves the id again for every clone
+* there is no bulk conversion, so Date[] columns are converted one object at a time
+
+Here every Date conversion goes through getTime(), which every subclass supports, registered TimeZone ids are mapped to
+ZoneIds once and cached (same result as TimeZone.toZoneId(), including the old mapping of "EST", "MST" and "HST"), and
+Date[] columns convert to and from long[] epoch millis in one call. A null Date maps to NULL_MILLIS and back.
+
+For formatting the same patterns through java.time see LegacyDateFormat. */
+
+public final class LegacyBridge {
+
+    // Epoch milli of a null Date in the bulk conversions (new Date(Long.MIN_VALUE) can't be told apart from null).
+    public static final long NULL_MILLIS = Long.MIN_VALUE;
+
+    private static final ConcurrentMap<String, ZoneId> ZONE_IDS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, TimeZone> TIME_ZONES = new ConcurrentHashMap<>();
+    // TimeZone.getTimeZone(id) per id of TimeZone.getAvailableIDs(), to tell the registered zones from custom ones with
+    // the same id. Other ids are user-controlled and unbounded, so they are resolved on every call instead.
+    private static final ConcurrentMap<String, TimeZone> REGISTERED = new ConcurrentHashMap<>();
+
+    private LegacyBridge() {
+    }
+
+    /* Date <-> Instant */
+
+    public static Instant toInstant(Date date) {
+        return Instant.ofEpochMilli(date.getTime());
+    }
+
+    // Same as Date.from(instant), including the IllegalArgumentException for instants out of the Date range.
+    public static Date toDate(Instant instant) {
+        return Date.from(instant);
+    }
+
+    // Reuses a mutable Date (or Timestamp) instead of creating one.
+    public static Date setDate(Date target, Instant instant) {
+        target.setTime(instant.toEpochMilli());
+        return target;
+    }
+
+    public static ZonedDateTime toZonedDateTime(Date date, ZoneId zone) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(zone);
+    }
+
+    public static Date toDate(ZonedDateTime dateTime) {
+        return Date.from(dateTime.toInstant());
+    }
+
+    /* Calendar <-> ZonedDateTime */
+
+    // Same instant and zone as GregorianCalendar.toZonedDateTime(), for any Calendar.
+    public static ZonedDateTime toZonedDateTime(Calendar calendar) {
+        return Instant.ofEpochMilli(calendar.getTimeInMillis()).atZone(toZoneId(calendar.getTimeZone()));
+    }
+
+    // Same as GregorianCalendar.from(dateTime): ISO week rules and a proleptic Gregorian calendar.
+    public static GregorianCalendar toCalendar(ZonedDateTime dateTime) {
+        GregorianCalendar calendar = new GregorianCalendar(toTimeZone(dateTime.getZone()));
+        calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+        calendar.setFirstDayOfWeek(Calendar.MONDAY);
+        calendar.setMinimalDaysInFirstWeek(4);
+        try {
+            calendar.setTimeInMillis(dateTime.toInstant().toEpochMilli());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return calendar;
+    }
+
+    // Moves an existing Calendar to the instant and zone of dateTime. The zone is only replaced when it changes.
+    public static Calendar setCalendar(Calendar target, ZonedDateTime dateTime) {
+        if (!toZoneId(target.getTimeZone()).equals(dateTime.getZone())) {
+            target.setTimeZone(toTimeZone(dateTime.getZone()));
+        }
+        target.setTimeInMillis(dateTime.toInstant().toEpochMilli());
+        return target;
+    }
+
+    /* TimeZone <-> ZoneId */
+
+    // Only registered zones are cached by id: a custom TimeZone can reuse the id of another zone with other rules.
+    public static ZoneId toZoneId(TimeZone timeZone) {
+        if (!isRegistered(timeZone)) {
+            return timeZone.toZoneId();
+        }
+        ZoneId zone = ZONE_IDS.get(timeZone.getID());
+        if (zone == null) {
+            zone = timeZone.toZoneId();
+            ZONE_IDS.putIfAbsent(timeZone.getID(), zone);
+        }
+        return zone;
+    }
+
+    // True when timeZone has the id and rules of TimeZone.getTimeZone(id), false for a SimpleTimeZone or a modified
+    // clone with rules of its own, and for ids TimeZone doesn't know (getTimeZone falls back to "GMT" for those).
+    static boolean isRegistered(TimeZone timeZone) {
+        String id = timeZone.getID();
+        TimeZone registered = REGISTERED.get(id);
+        if (registered == null) {
+            registered = AvailableIds.IDS.contains(id)
+                    ? REGISTERED.computeIfAbsent(id, TimeZone::getTimeZone) : TimeZone.getTimeZone(id);
+        }
+        return registered.getID().equals(id) && registered.hasSameRules(timeZone);
+    }
+
+    // Loaded on the first lookup of an id that isn't cached yet.
+    private static final class AvailableIds {
+        static final Set<String> IDS = new HashSet<>(Arrays.asList(TimeZone.getAvailableIDs()));
+    }
+
+    // Same as TimeZone.getTimeZone(zone). TimeZone is mutable, so each call still returns its own copy.
+    public static TimeZone toTimeZone(ZoneId zone) {
+        TimeZone prototype = TIME_ZONES.get(zone.getId());
+        if (prototype == null) {
+            prototype = TIME_ZONES.computeIfAbsent(zone.getId(), id -> TimeZone.getTimeZone(zone));
+        }
+        return (TimeZone) prototype.clone();
+    }
+
+    /* Bulk */
+
+    public static long[] toEpochMillis(Date[] dates) {
+        long[] epochMillis = new long[dates.length];
+        toEpochMillis(dates, 0, dates.length, epochMillis, 0);
+        return epochMillis;
+    }
+
+    public static void toEpochMillis(Date[] dates, int from, int length, long[] target, int offset) {
+        Objects.checkFromIndexSize(from, length, dates.length);
+        Objects.checkFromIndexSize(offset, length, target.length);
+        for (int i = 0; i < length; i++) {
+            Date date = dates[from + i];
+            target[offset + i] = date == null ? NULL_MILLIS : date.getTime();
+        }
+    }
+
+    public static Date[] toDates(long[] epochMillis) {
+        Date[] dates = new Date[epochMillis.length];
+        for (int i = 0; i < epochMillis.length; i++) {
+            long millis = epochMillis[i];
+            dates[i] = millis == NULL_MILLIS ? null : new Date(millis);
+        }
+        return dates;
+    }
+
+}
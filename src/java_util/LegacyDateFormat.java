@@ -0,0 +1,476 @@
+package java_util;
+
+import java.text.DateFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DecimalStyle;
+import java.time.format.SignStyle;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalField;
+import java.time.temporal.WeekFields;
+import java.time.zone.ZoneRules;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/* LegacyDateFormat -> SimpleDateFormat patterns ("dd/MM/yyyy HH:mm:ss" ...) formatted through DateTimeFormatter.
+The pattern letters of the two APIs look alike but don't mean the same thing: S is milliseconds in SimpleDateFormat and
+fraction-of-second in DateTimeFormatter, u is the ISO day-of-week number in one and the proleptic year in the other,
+y and Y pad differently, and SimpleDateFormat's Z/X rules differ in the details. So DateTimeFormatter.ofPattern(p) is
+not a drop-in replacement for new SimpleDateFormat(p).
+
+LegacyDateFormat translates each SimpleDateFormat letter to the DateTimeFormatter field with the same output, builds
+the formatter once per (pattern, TimeZone, Locale) and keeps it in a cache. The result is immutable and thread-safe,
+and produces the same text as the SimpleDateFormat, e.g. LegacyDateFormat.of("dd/MM/yyyy HH:mm:ss",
+TimeZone.getTimeZone("America/New_York")).format(date) equals sdf4.format(date) in Program.
+
+Supported letters: G y Y M L w W D d F E u a H k K h m s S z Z X and quoted text. Texts (months, days, eras, AM/PM)
+come from the same DateFormatSymbols as SimpleDateFormat. Where TimeZone and java.time disagree, the instant is
+formatted by a per-thread SimpleDateFormat instead:
+* before 1900 (TimeZone has no local mean time, and Date switches to the Julian calendar before 1582)
+* from 2036 on, for zones whose last TimeZone rule differs from the java.time rules (e.g. Africa/Windhoek)
+* 'z' with alias ids like "VST" or "HST", which have TimeZone names of their own
+* 'X' for offsets under one hour, like -00:25 (SimpleDateFormat prints "-00", java.time "Z")
+* every instant, for custom TimeZones (a SimpleTimeZone, or an id with rules of its own), which are also not cached
+* every instant, for locales whose Calendar isn't Gregorian (th_TH prints Buddhist years, ja_JP_JP Japanese eras)
+Only formatting is covered: lenient SimpleDateFormat parsing has no java.time equivalent. */
+
+public final class LegacyDateFormat {
+
+    // 1900-01-01T00:00:00Z, where the TimeZone transition tables start.
+    private static final long TABLE_START = -2_208_988_800_000L;
+    // 2036-01-01T00:00:00Z. The tables end in 2037, and some zones disagree from there on, so 2036 - 2039 is compared.
+    private static final long TABLE_END = 2_082_758_400_000L;
+
+    private static final ConcurrentMap<Key, LegacyDateFormat> CACHE = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Boolean> SAME_RULES_AFTER_TABLE = new ConcurrentHashMap<>();
+
+    private final String pattern;
+    private final TimeZone timeZone;
+    private final Locale locale;
+    private final ZoneRules rules;
+    private final DateTimeFormatter formatter;
+
+    // Instants in [exactFrom, exactUntil) are formatted by the DateTimeFormatter, all others by a SimpleDateFormat.
+    private final long exactFrom;
+    private final long exactUntil;
+    private final boolean hourOnlyOffset;
+    private final ThreadLocal<SimpleDateFormat> legacyFormats;
+
+    private LegacyDateFormat(String pattern, TimeZone timeZone, Locale locale, boolean registered) {
+        // A custom TimeZone has no java.time rules; its formatter only has the raw offset.
+        ZoneId zone = registered ? LegacyBridge.toZoneId(timeZone)
+                : ZoneOffset.ofTotalSeconds(timeZone.getRawOffset() / 1000);
+        Symbols symbols = new Symbols(locale);
+        this.pattern = pattern;
+        this.timeZone = (TimeZone) timeZone.clone();
+        this.locale = locale;
+        this.rules = zone.getRules();
+        this.formatter = toDateTimeFormatter(pattern, symbols).withZone(zone);
+        // Aliases ("VST", "HST" ...) have their own TimeZone names.
+        boolean exact = registered && symbols.gregorian
+                && !(symbols.zoneName && !timeZone.getID().equals(zone.getId()));
+        this.exactFrom = exact ? TABLE_START : Long.MAX_VALUE;
+        this.exactUntil = exact ? (SAME_RULES_AFTER_TABLE.computeIfAbsent(timeZone.getID(),
+                id -> sameRulesAfterTable(timeZone, rules)) ? Long.MAX_VALUE : TABLE_END) : Long.MIN_VALUE;
+        this.hourOnlyOffset = symbols.hourOnlyOffset;
+        this.legacyFormats = ThreadLocal.withInitial(() -> {
+            SimpleDateFormat format = new SimpleDateFormat(pattern, locale);
+            format.setTimeZone(this.timeZone);
+            return format;
+        });
+    }
+
+    // Uses the default time zone and locale, like new SimpleDateFormat(pattern).
+    public static LegacyDateFormat of(String pattern) {
+        return of(pattern, TimeZone.getDefault(), Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    public static LegacyDateFormat of(String pattern, TimeZone timeZone) {
+        return of(pattern, timeZone, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    public static LegacyDateFormat of(String pattern, TimeZone timeZone, Locale locale) {
+        Objects.requireNonNull(pattern, "pattern");
+        Objects.requireNonNull(timeZone, "timeZone");
+        Objects.requireNonNull(locale, "locale");
+        if (!LegacyBridge.isRegistered(timeZone)) {
+            // Custom zones can share an id with other rules, so they aren't cached by id.
+            return new LegacyDateFormat(pattern, timeZone, locale, false);
+        }
+        Key key = new Key(pattern, timeZone.getID(), locale);
+        LegacyDateFormat format = CACHE.get(key);
+        if (format == null) {
+            format = CACHE.computeIfAbsent(key, k -> new LegacyDateFormat(pattern, timeZone, locale, true));
+        }
+        return format;
+    }
+
+    public String format(Date date) {
+        return format(date.getTime());
+    }
+
+    public String format(long epochMilli) {
+        if (isLegacy(epochMilli)) {
+            return legacyFormats.get().format(new Date(epochMilli));
+        }
+        return formatter.format(Instant.ofEpochMilli(epochMilli));
+    }
+
+    public void formatTo(long epochMilli, StringBuilder target) {
+        if (isLegacy(epochMilli)) {
+            target.append(legacyFormats.get().format(new Date(epochMilli)));
+        } else {
+            formatter.formatTo(Instant.ofEpochMilli(epochMilli), target);
+        }
+    }
+
+    // The translated formatter, with the zone of this format. Matches SimpleDateFormat from 1900 to 2035 at least,
+    // except for custom TimeZones, where it only has their raw offset, and for non-Gregorian locales.
+    public DateTimeFormatter getFormatter() {
+        return formatter;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public TimeZone getTimeZone() {
+        return (TimeZone) timeZone.clone();
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public String toString() {
+        return "LegacyDateFormat[" + pattern + ", " + timeZone.getID() + ", " + locale + "]";
+    }
+
+    private boolean isLegacy(long epochMilli) {
+        if (epochMilli < exactFrom || epochMilli >= exactUntil) {
+            return true;
+        }
+        if (hourOnlyOffset) {
+            // "X" prints "-00" for offsets like -00:25, where "+HH" prints "Z".
+            int offset = rules.getOffset(Instant.ofEpochMilli(epochMilli)).getTotalSeconds();
+            return offset != 0 && offset > -3600 && offset < 3600;
+        }
+        return false;
+    }
+
+    // At the end of its table TimeZone repeats its last rule, which java.time may not (e.g. Africa/Windhoek).
+    private static boolean sameRulesAfterTable(TimeZone timeZone, ZoneRules rules) {
+        for (long millis = TABLE_END; millis < TABLE_END + 4 * 366 * 86_400_000L; millis += 3_600_000L) {
+            if (timeZone.getOffset(millis) != rules.getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds() * 1000) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* Translation */
+
+    // DateTimeFormatter (without a zone) printing the same text as new SimpleDateFormat(pattern, locale).
+    // Throws IllegalArgumentException for letters SimpleDateFormat doesn't support either, and for locales whose
+    // Calendar isn't Gregorian (SimpleDateFormat prints their years and eras).
+    public static DateTimeFormatter toDateTimeFormatter(String pattern, Locale locale) {
+        Symbols symbols = new Symbols(locale);
+        if (!symbols.gregorian) {
+            throw new IllegalArgumentException("Calendar of " + locale + " is not Gregorian");
+        }
+        return toDateTimeFormatter(pattern, symbols);
+    }
+
+    private static DateTimeFormatter toDateTimeFormatter(String pattern, Symbols symbols) {
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
+        symbols.standaloneMonth = onlyMonthField(pattern);
+        int length = pattern.length();
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                i = quoted(pattern, i, builder);
+                continue;
+            }
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')) {
+                builder.appendLiteral(c);
+                i++;
+                continue;
+            }
+            int count = 1;
+            while (i + count < length && pattern.charAt(i + count) == c) {
+                count++;
+            }
+            letter(builder, symbols, c, count);
+            i += count;
+        }
+        return builder.toFormatter(symbols.locale).withDecimalStyle(DecimalStyle.of(symbols.locale));
+    }
+
+    private static void letter(DateTimeFormatterBuilder builder, Symbols symbols, char c, int count) {
+        switch (c) {
+            case 'G':
+                builder.appendText(ChronoField.ERA, symbols.eras);
+                break;
+            case 'y':
+                year(builder, ChronoField.YEAR_OF_ERA, count);
+                break;
+            case 'Y':
+                year(builder, symbols.weekFields.weekBasedYear(), count);
+                break;
+            case 'M':
+                if (symbols.standaloneMonth) {
+                    month(builder, count, symbols.standaloneMonths, symbols.shortStandaloneMonths);
+                } else {
+                    month(builder, count, symbols.months, symbols.shortMonths);
+                }
+                break;
+            case 'L':
+                month(builder, count, symbols.standaloneMonths, symbols.shortStandaloneMonths);
+                break;
+            case 'w':
+                number(builder, symbols.weekFields.weekOfWeekBasedYear(), count);
+                break;
+            case 'W':
+                number(builder, symbols.weekFields.weekOfMonth(), count);
+                break;
+            case 'D':
+                number(builder, ChronoField.DAY_OF_YEAR, count);
+                break;
+            case 'd':
+                number(builder, ChronoField.DAY_OF_MONTH, count);
+                break;
+            case 'F':
+                number(builder, ChronoField.ALIGNED_WEEK_OF_MONTH, count);
+                break;
+            case 'E':
+                builder.appendText(ChronoField.DAY_OF_WEEK, count >= 4 ? symbols.weekdays : symbols.shortWeekdays);
+                break;
+            case 'u':
+                number(builder, ChronoField.DAY_OF_WEEK, count);
+                break;
+            case 'a':
+                builder.appendText(ChronoField.AMPM_OF_DAY, symbols.amPm);
+                break;
+            case 'H':
+                number(builder, ChronoField.HOUR_OF_DAY, count);
+                break;
+            case 'k':
+                number(builder, ChronoField.CLOCK_HOUR_OF_DAY, count);
+                break;
+            case 'K':
+                number(builder, ChronoField.HOUR_OF_AMPM, count);
+                break;
+            case 'h':
+                number(builder, ChronoField.CLOCK_HOUR_OF_AMPM, count);
+                break;
+            case 'm':
+                number(builder, ChronoField.MINUTE_OF_HOUR, count);
+                break;
+            case 's':
+                number(builder, ChronoField.SECOND_OF_MINUTE, count);
+                break;
+            case 'S':
+                number(builder, ChronoField.MILLI_OF_SECOND, count);
+                break;
+            case 'z':
+                builder.appendZoneText(count >= 4 ? TextStyle.FULL : TextStyle.SHORT);
+                symbols.zoneName = true;
+                break;
+            case 'Z':
+                builder.appendOffset("+HHMM", "+0000");
+                break;
+            case 'X':
+                if (count > 3) {
+                    throw new IllegalArgumentException("invalid ISO 8601 format: length=" + count);
+                }
+                builder.appendOffset(count == 1 ? "+HH" : count == 2 ? "+HHMM" : "+HH:MM", "Z");
+                symbols.hourOnlyOffset |= count == 1;
+                break;
+            default:
+                throw new IllegalArgumentException("Illegal pattern character '" + c + "'");
+        }
+    }
+
+    // "yy" is the last two digits, any other count is the full year padded to count digits.
+    private static void year(DateTimeFormatterBuilder builder, TemporalField field, int count) {
+        if (count == 2) {
+            builder.appendValueReduced(field, 2, 2, 2000);
+        } else {
+            number(builder, field, count);
+        }
+    }
+
+    private static void month(DateTimeFormatterBuilder builder, int count, Map<Long, String> full, Map<Long, String> shortNames) {
+        if (count >= 4) {
+            builder.appendText(ChronoField.MONTH_OF_YEAR, full);
+        } else if (count == 3) {
+            builder.appendText(ChronoField.MONTH_OF_YEAR, shortNames);
+        } else {
+            number(builder, ChronoField.MONTH_OF_YEAR, count);
+        }
+    }
+
+    // Zero padded to count digits, never truncated.
+    private static void number(DateTimeFormatterBuilder builder, TemporalField field, int count) {
+        if (count > 19) {
+            throw new IllegalArgumentException("Too many pattern letters for " + field + ": " + count);
+        }
+        builder.appendValue(field, count, 19, SignStyle.NORMAL);
+    }
+
+    // True when the only field of the pattern is one run of M ("MMMM", "'Month:' MMM" ...): SimpleDateFormat then
+    // prints the standalone month names, like L (e.g. "wrzesień" rather than "września" in pl_PL).
+    private static boolean onlyMonthField(String pattern) {
+        int fields = 0;
+        char field = 0;
+        char run = 0;
+        boolean inQuote = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                inQuote = !inQuote;
+                run = 0;
+            } else if (inQuote || !(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')) {
+                run = 0;
+            } else if (c != run) {
+                fields++;
+                field = c;
+                run = c;
+            }
+        }
+        return fields == 1 && field == 'M';
+    }
+
+    // Copies 'text' (with '' as an escaped quote) as a literal and returns the index after it.
+    private static int quoted(String pattern, int start, DateTimeFormatterBuilder builder) {
+        int length = pattern.length();
+        if (start + 1 < length && pattern.charAt(start + 1) == '\'') {
+            builder.appendLiteral('\'');
+            return start + 2;
+        }
+        StringBuilder text = new StringBuilder();
+        int i = start + 1;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+                    text.append('\'');
+                    i += 2;
+                    continue;
+                }
+                builder.appendLiteral(text.toString());
+                return i + 1;
+            }
+            text.append(c);
+            i++;
+        }
+        throw new IllegalArgumentException("Unterminated quote");
+    }
+
+    // The texts SimpleDateFormat prints, from DateFormatSymbols and Calendar display names, keyed by java.time value,
+    // and the letters of the pattern that need a SimpleDateFormat for some zones or instants.
+    private static final class Symbols {
+
+        final Locale locale;
+        final WeekFields weekFields;
+        final Map<Long, String> eras;
+        final Map<Long, String> months;
+        final Map<Long, String> shortMonths;
+        final Map<Long, String> standaloneMonths;
+        final Map<Long, String> shortStandaloneMonths;
+        final Map<Long, String> weekdays;
+        final Map<Long, String> shortWeekdays;
+        final Map<Long, String> amPm;
+        // SimpleDateFormat uses Calendar.getInstance(locale), e.g. a BuddhistCalendar for th_TH.
+        final boolean gregorian;
+        boolean zoneName;
+        boolean hourOnlyOffset;
+        boolean standaloneMonth;
+
+        Symbols(Locale locale) {
+            DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+            this.locale = locale;
+            this.weekFields = WeekFields.of(locale);
+            this.eras = texts(symbols.getEras(), 0, 0);
+            this.months = texts(symbols.getMonths(), 0, 1);
+            this.shortMonths = texts(symbols.getShortMonths(), 0, 1);
+            this.standaloneMonths = standalone(Calendar.LONG_STANDALONE, locale);
+            this.shortStandaloneMonths = standalone(Calendar.SHORT_STANDALONE, locale);
+            this.weekdays = weekdays(symbols.getWeekdays());
+            this.shortWeekdays = weekdays(symbols.getShortWeekdays());
+            this.amPm = texts(symbols.getAmPmStrings(), 0, 0);
+            this.gregorian = "gregory".equals(Calendar.getInstance(locale).getCalendarType());
+        }
+
+        // texts[from + i] is the text of value i + firstValue, e.g. months[0] is MONTH_OF_YEAR 1.
+        private static Map<Long, String> texts(String[] texts, int from, int firstValue) {
+            Map<Long, String> map = new HashMap<>();
+            for (int i = from; i < texts.length; i++) {
+                if (!texts[i].isEmpty()) {
+                    map.put((long) (i - from + firstValue), texts[i]);
+                }
+            }
+            return map;
+        }
+
+        // Calendar weekdays are SUNDAY (1) ... SATURDAY (7), ISO ones MONDAY (1) ... SUNDAY (7).
+        private static Map<Long, String> weekdays(String[] texts) {
+            Map<Long, String> map = new HashMap<>();
+            for (int day = 1; day <= 7; day++) {
+                map.put((long) day, texts[day % 7 + 1]);
+            }
+            return map;
+        }
+
+        private static Map<Long, String> standalone(int style, Locale locale) {
+            Map<String, Integer> names = Calendar.getInstance(TimeZone.getTimeZone("UTC"), locale)
+                    .getDisplayNames(Calendar.MONTH, style, locale);
+            Map<Long, String> map = new HashMap<>();
+            if (names != null) {
+                names.forEach((name, month) -> map.put(month + 1L, name));
+            }
+            return map;
+        }
+    }
+
+    private static final class Key {
+
+        private final String pattern;
+        private final String zoneId;
+        private final Locale locale;
+
+        Key(String pattern, String zoneId, Locale locale) {
+            this.pattern = pattern;
+            this.zoneId = zoneId;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return pattern.equals(other.pattern) && zoneId.equals(other.zoneId) && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * pattern.hashCode() + zoneId.hashCode()) * 31 + locale.hashCode();
+        }
+    }
+
+}
@@ -143,6 +143,54 @@ public class Program {
         System.out.println();
 
 
+        System.out.println("-----------------------------------------------------------------------------------------");
+
+        /* SafeDateFormat -> SimpleDateFormat is not thread-safe.
+        The sdf1 ... sdf4 instances above are fine in this single-threaded program, but sharing them between threads
+        corrupts results. SafeDateFormat gives each thread its own copy of the format for a (pattern, TimeZone) key,
+        without locking, and produces exactly the same output. */
+
+        SafeDateFormat safe3 = SafeDateFormat.of("dd/MM/yyyy HH:mm:ss", TimeZone.getTimeZone("UTC"));
+        SafeDateFormat safe4 = SafeDateFormat.of("dd/MM/yyyy HH:mm:ss", TimeZone.getTimeZone("America/New_York"));
+
+        System.out.println("SafeDateFormat 3: (dd/MM/yyyy HH:mm:ss) - (UTC)");
+        System.out.println("Date 7: " + safe3.format(safe3.parse("03/12/2007 04:15:30")) + " (UTC)");
+        System.out.println("Date 8: " + safe3.format(date8) + " (UTC)");
+        System.out.println();
+        System.out.println("SafeDateFormat 4: dd/MM/yyyy HH:mm:ss (America/New_York)");
+        System.out.println("Date 7: " + safe4.format(date7) + " (America/New_York)");
+        System.out.println("Date 8: " + safe4.format(safe4.parse("03/12/2007 04:15:30")) + " (America/New_York)");
+        System.out.println("-----------------------------------------------------------------------------------------");
+
+
+        System.out.println();
+
+
+        System.out.println("-----------------------------------------------------------------------------------------");
+
+        /* LegacyDateFormat / LegacyBridge -> The same patterns and zones through java.time.
+        LegacyDateFormat translates a SimpleDateFormat pattern to a DateTimeFormatter with exactly the same output, and
+        LegacyBridge converts Date, Calendar and TimeZone to Instant, ZonedDateTime and ZoneId. */
+
+        LegacyDateFormat legacy2 = LegacyDateFormat.of("dd/MM/yyyy HH:mm:ss");
+        LegacyDateFormat legacy4 = LegacyDateFormat.of("dd/MM/yyyy HH:mm:ss", TimeZone.getTimeZone("America/New_York"));
+
+        System.out.println("LegacyDateFormat 2: dd/MM/yyyy HH:mm:ss (Local Time Zone)");
+        System.out.println("Date 6: " + legacy2.format(date6) + " (Local Time Zone)");
+        System.out.println("Date 8: " + legacy2.format(date8) + " (Local Time Zone)");
+        System.out.println();
+        System.out.println("LegacyDateFormat 4: dd/MM/yyyy HH:mm:ss (America/New_York)");
+        System.out.println("Date 6: " + legacy4.format(date6) + " (America/New_York)");
+        System.out.println("Date 8: " + legacy4.format(date8) + " (America/New_York)");
+        System.out.println();
+        System.out.println("Date 8 as Instant: " + LegacyBridge.toInstant(date8));
+        System.out.println("Date 8 as ZonedDateTime: " + LegacyBridge.toZonedDateTime(date8, LegacyBridge.toZoneId(sdf4.getTimeZone())));
+        System.out.println("-----------------------------------------------------------------------------------------");
+
+
+        System.out.println();
+
+
         System.out.println("-----------------------------------------------------------------------------------------");
 
         /* Calendar
@@ -174,6 +222,29 @@ public class Program {
         System.out.println("Calendar Second: " + cal.get(Calendar.SECOND));
         System.out.println("-----------------------------------------------------------------------------------------");
 
+
+        System.out.println();
+
+
+        System.out.println("-----------------------------------------------------------------------------------------");
+
+        /* FastCalendar -> The same set/add/get calls as above, with the same 0-based MONTH, without a GregorianCalendar.
+        Fields are only stored on set, and computed again when they are read. */
+
+        FastCalendar fastCal = FastCalendar.getInstance();
+        fastCal.setTime(date9);
+        fastCal.set(Calendar.MONTH, 11);
+        fastCal.add(Calendar.DAY_OF_MONTH, 4);
+
+        System.out.println("FastCalendar Date: " + sdf2.format(fastCal.getTime()));
+        System.out.println("FastCalendar Day: " + fastCal.get(Calendar.DAY_OF_MONTH));
+        System.out.println("FastCalendar Month: " + (fastCal.get(Calendar.MONTH) + 1));
+        System.out.println("FastCalendar Year: " + fastCal.get(Calendar.YEAR));
+        System.out.println("FastCalendar Hour: " + fastCal.get(Calendar.HOUR));
+        System.out.println("FastCalendar Minute: " + fastCal.get(Calendar.MINUTE));
+        System.out.println("FastCalendar Second: " + fastCal.get(Calendar.SECOND));
+        System.out.println("-----------------------------------------------------------------------------------------");
+
     }
 
 }
\ No newline at end of file
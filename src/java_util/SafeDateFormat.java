@@ -0,0 +1,107 @@
+package java_util;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/* SafeDateFormat -> A thread-safe, lock-free front end for SimpleDateFormat, keyed by (pattern, TimeZone).
+SimpleDateFormat keeps its working Calendar and NumberFormat as instance state, so sharing one instance between threads
+corrupts results, and guarding it with synchronized makes every thread wait on the same lock.
+
+Each SafeDateFormat keeps one SimpleDateFormat per thread, cloned from a prototype built once for the key. The formats
+themselves are cached in a ConcurrentHashMap, so after the first call for a key both the lookup and the format/parse
+path are lock-free. Custom TimeZones (a SimpleTimeZone, or an id with rules of its own) can reuse the id of another
+zone, so their formats are built per call instead of cached. Output is exactly the SimpleDateFormat output for the
+same pattern and zone, for example
+SafeDateFormat.of("dd/MM/yyyy HH:mm:ss", TimeZone.getTimeZone("America/New_York")) behaves like sdf4 in Program.
+
+-> Links:
+https://docs.oracle.com/en/java/javase/11/docs/api/java.base/java/text/SimpleDateFormat.html#synchronization */
+
+public final class SafeDateFormat {
+
+    private static final ConcurrentMap<Key, SafeDateFormat> CACHE = new ConcurrentHashMap<>();
+
+    private final String pattern;
+    private final TimeZone timeZone;
+    private final ThreadLocal<SimpleDateFormat> formats;
+
+    private SafeDateFormat(String pattern, TimeZone timeZone) {
+        SimpleDateFormat prototype = new SimpleDateFormat(pattern);
+        this.pattern = pattern;
+        this.timeZone = (TimeZone) timeZone.clone();
+        // The caller's TimeZone is mutable, so the prototype gets its own copy too.
+        prototype.setTimeZone((TimeZone) timeZone.clone());
+        this.formats = ThreadLocal.withInitial(() -> (SimpleDateFormat) prototype.clone());
+    }
+
+    // Uses the default time zone of the system, like new SimpleDateFormat(pattern).
+    public static SafeDateFormat of(String pattern) {
+        return of(pattern, TimeZone.getDefault());
+    }
+
+    public static SafeDateFormat of(String pattern, TimeZone timeZone) {
+        Objects.requireNonNull(pattern, "pattern");
+        Objects.requireNonNull(timeZone, "timeZone");
+        if (!LegacyBridge.isRegistered(timeZone)) {
+            // Custom zones can share an id with other rules, so they aren't cached by id.
+            return new SafeDateFormat(pattern, timeZone);
+        }
+        Key key = new Key(pattern, timeZone.getID());
+        SafeDateFormat format = CACHE.get(key);
+        if (format == null) {
+            format = CACHE.computeIfAbsent(key, k -> new SafeDateFormat(pattern, timeZone));
+        }
+        return format;
+    }
+
+    public String format(Date date) {
+        return formats.get().format(date);
+    }
+
+    public Date parse(String source) throws ParseException {
+        return formats.get().parse(source);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public TimeZone getTimeZone() {
+        return (TimeZone) timeZone.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "SafeDateFormat[" + pattern + ", " + timeZone.getID() + "]";
+    }
+
+    private static final class Key {
+
+        private final String pattern;
+        private final String zoneId;
+
+        Key(String pattern, String zoneId) {
+            this.pattern = pattern;
+            this.zoneId = zoneId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return pattern.equals(other.pattern) && zoneId.equals(other.zoneId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * pattern.hashCode() + zoneId.hashCode();
+        }
+    }
+
+}